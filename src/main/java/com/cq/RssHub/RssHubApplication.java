@@ -3,9 +3,11 @@ package com.cq.RssHub;
 import org.mybatis.spring.annotation.MapperScan;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @MapperScan("com.cq.RssHub.mapper")
 @SpringBootApplication
+@EnableScheduling
 public class RssHubApplication {
 
     public static void main(String[] args) {
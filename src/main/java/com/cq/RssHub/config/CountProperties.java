@@ -0,0 +1,45 @@
+package com.cq.RssHub.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 文章总数统计和计数对账相关配置（rss.count.*）
+ */
+@Configuration
+@ConfigurationProperties(prefix = "rss.count")
+public class CountProperties {
+    // 按筛选条件缓存的精确总数的有效期
+    private Duration cacheTtl = Duration.ofSeconds(30);
+    // 最多缓存的筛选条件数，超过时先清除过期项，仍超过则清空
+    private Integer maxEntries = 1000;
+    // RSS源和分类计数对账任务的cron表达式
+    private String reconcileCron = "0 15 4 * * ?";
+
+    // Getters and Setters
+    public Duration getCacheTtl() {
+        return cacheTtl;
+    }
+
+    public void setCacheTtl(Duration cacheTtl) {
+        this.cacheTtl = cacheTtl;
+    }
+
+    public Integer getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(Integer maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public String getReconcileCron() {
+        return reconcileCron;
+    }
+
+    public void setReconcileCron(String reconcileCron) {
+        this.reconcileCron = reconcileCron;
+    }
+}
@@ -0,0 +1,237 @@
+package com.cq.RssHub.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * RSS抓取相关配置（rss.fetch.*）
+ */
+@Configuration
+@ConfigurationProperties(prefix = "rss.fetch")
+public class FetchProperties {
+    // 到期时间的随机抖动比例，避免相同频率的源同时抓取
+    private Double jitterRatio = 0.1;
+    // 单轮抓取的全局并发上限
+    private Integer concurrency = 32;
+    // 单轮抓取的截止时间，超时未完成的源会被取消
+    private Duration passTimeout = Duration.ofMinutes(30);
+    // 每个主机的最大并发连接数
+    private Integer perHostConnections = 4;
+    // 每个主机每秒最多发起的请求数
+    private Double perHostRate = 2.0;
+    // 是否使用流式解析器（遇到已入库的条目即停止读取）
+    private Boolean streamingParser = true;
+    // 文章批量写入的每批条数
+    private Integer writeBatchSize = 100;
+    // 手动抓取任务的执行线程数
+    private Integer taskThreads = 4;
+    // 手动抓取任务的等待队列容量，队列满时拒绝新任务
+    private Integer taskQueueCapacity = 100;
+    // 后台异步抓取的线程数
+    private Integer backgroundThreads = 10;
+    // 后台异步抓取的等待队列容量
+    private Integer backgroundQueueCapacity = 200;
+    // 应用关闭时等待已提交抓取完成的最长时间
+    private Duration shutdownTimeout = Duration.ofSeconds(30);
+    // 连续失败多少次后熔断
+    private Integer failureThreshold = 3;
+    // 熔断后第一次重试的等待时间，之后每次失败翻倍
+    private Duration retryBackoff = Duration.ofMinutes(5);
+    // 重试等待时间的上限
+    private Duration maxRetryBackoff = Duration.ofHours(24);
+    // 默认连接超时，RSS源可单独配置
+    private Duration connectTimeout = Duration.ofSeconds(10);
+    // 默认读取超时（接收完整响应的最长时间），RSS源可单独配置
+    private Duration readTimeout = Duration.ofSeconds(30);
+    // 响应体（解压前后）的最大长度，超过时中止下载
+    private DataSize maxBodySize = DataSize.ofMegabytes(10);
+    // 是否在本地归档抓取到的原始内容，用于离线重新解析
+    private Boolean archiveEnabled = true;
+    // 原始内容归档目录
+    private String archiveDir = "data/feed-archive";
+    // 归档快照的保留期限
+    private Duration archiveRetention = Duration.ofDays(30);
+    // 每个RSS源最多保留的快照数
+    private Integer archiveMaxSnapshots = 50;
+
+    // Getters and Setters
+    public Double getJitterRatio() {
+        return jitterRatio;
+    }
+
+    public void setJitterRatio(Double jitterRatio) {
+        this.jitterRatio = jitterRatio;
+    }
+
+    public Integer getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(Integer concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    public Duration getPassTimeout() {
+        return passTimeout;
+    }
+
+    public void setPassTimeout(Duration passTimeout) {
+        this.passTimeout = passTimeout;
+    }
+
+    public Integer getPerHostConnections() {
+        return perHostConnections;
+    }
+
+    public void setPerHostConnections(Integer perHostConnections) {
+        this.perHostConnections = perHostConnections;
+    }
+
+    public Double getPerHostRate() {
+        return perHostRate;
+    }
+
+    public void setPerHostRate(Double perHostRate) {
+        this.perHostRate = perHostRate;
+    }
+
+    public Boolean getStreamingParser() {
+        return streamingParser;
+    }
+
+    public void setStreamingParser(Boolean streamingParser) {
+        this.streamingParser = streamingParser;
+    }
+
+    public Integer getWriteBatchSize() {
+        return writeBatchSize;
+    }
+
+    public void setWriteBatchSize(Integer writeBatchSize) {
+        this.writeBatchSize = writeBatchSize;
+    }
+
+    public Integer getTaskThreads() {
+        return taskThreads;
+    }
+
+    public void setTaskThreads(Integer taskThreads) {
+        this.taskThreads = taskThreads;
+    }
+
+    public Integer getTaskQueueCapacity() {
+        return taskQueueCapacity;
+    }
+
+    public void setTaskQueueCapacity(Integer taskQueueCapacity) {
+        this.taskQueueCapacity = taskQueueCapacity;
+    }
+
+    public Integer getBackgroundThreads() {
+        return backgroundThreads;
+    }
+
+    public void setBackgroundThreads(Integer backgroundThreads) {
+        this.backgroundThreads = backgroundThreads;
+    }
+
+    public Integer getBackgroundQueueCapacity() {
+        return backgroundQueueCapacity;
+    }
+
+    public void setBackgroundQueueCapacity(Integer backgroundQueueCapacity) {
+        this.backgroundQueueCapacity = backgroundQueueCapacity;
+    }
+
+    public Duration getShutdownTimeout() {
+        return shutdownTimeout;
+    }
+
+    public void setShutdownTimeout(Duration shutdownTimeout) {
+        this.shutdownTimeout = shutdownTimeout;
+    }
+
+    public Integer getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    public void setFailureThreshold(Integer failureThreshold) {
+        this.failureThreshold = failureThreshold;
+    }
+
+    public Duration getRetryBackoff() {
+        return retryBackoff;
+    }
+
+    public void setRetryBackoff(Duration retryBackoff) {
+        this.retryBackoff = retryBackoff;
+    }
+
+    public Duration getMaxRetryBackoff() {
+        return maxRetryBackoff;
+    }
+
+    public void setMaxRetryBackoff(Duration maxRetryBackoff) {
+        this.maxRetryBackoff = maxRetryBackoff;
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public Duration getReadTimeout() {
+        return readTimeout;
+    }
+
+    public void setReadTimeout(Duration readTimeout) {
+        this.readTimeout = readTimeout;
+    }
+
+    public DataSize getMaxBodySize() {
+        return maxBodySize;
+    }
+
+    public void setMaxBodySize(DataSize maxBodySize) {
+        this.maxBodySize = maxBodySize;
+    }
+
+    public Boolean getArchiveEnabled() {
+        return archiveEnabled;
+    }
+
+    public void setArchiveEnabled(Boolean archiveEnabled) {
+        this.archiveEnabled = archiveEnabled;
+    }
+
+    public String getArchiveDir() {
+        return archiveDir;
+    }
+
+    public void setArchiveDir(String archiveDir) {
+        this.archiveDir = archiveDir;
+    }
+
+    public Duration getArchiveRetention() {
+        return archiveRetention;
+    }
+
+    public void setArchiveRetention(Duration archiveRetention) {
+        this.archiveRetention = archiveRetention;
+    }
+
+    public Integer getArchiveMaxSnapshots() {
+        return archiveMaxSnapshots;
+    }
+
+    public void setArchiveMaxSnapshots(Integer archiveMaxSnapshots) {
+        this.archiveMaxSnapshots = archiveMaxSnapshots;
+    }
+}
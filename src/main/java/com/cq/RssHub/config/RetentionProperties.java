@@ -0,0 +1,56 @@
+package com.cq.RssHub.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 过期文章清理相关配置（rss.retention.*）
+ * 保留天数和清理间隔由system_setting表的maxArticleAge、cleanupInterval决定
+ */
+@Configuration
+@ConfigurationProperties(prefix = "rss.retention")
+public class RetentionProperties {
+    // 是否启用定时清理
+    private Boolean enabled = true;
+    // 检查是否到达清理间隔的频率
+    private Duration checkInterval = Duration.ofMinutes(10);
+    // 每批删除的文章数，每批一个事务
+    private Integer batchSize = 500;
+    // 两批之间的停顿，给其他写入让出锁和连接
+    private Duration batchPause = Duration.ofMillis(200);
+
+    // Getters and Setters
+    public Boolean getEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(Boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getCheckInterval() {
+        return checkInterval;
+    }
+
+    public void setCheckInterval(Duration checkInterval) {
+        this.checkInterval = checkInterval;
+    }
+
+    public Integer getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(Integer batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Duration getBatchPause() {
+        return batchPause;
+    }
+
+    public void setBatchPause(Duration batchPause) {
+        this.batchPause = batchPause;
+    }
+}
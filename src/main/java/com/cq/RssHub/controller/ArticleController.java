@@ -3,8 +3,11 @@ package com.cq.RssHub.controller;
 import com.cq.RssHub.pojo.Article;
 import com.cq.RssHub.pojo.ResponseMessage;
 import com.cq.RssHub.pojo.dto.BatchIdsDTO;
+import com.cq.RssHub.pojo.vo.ArticleSummaryVO;
+import com.cq.RssHub.pojo.vo.CursorPageArticleVO;
 import com.cq.RssHub.pojo.vo.PageArticleVO;
 import com.cq.RssHub.service.ArticleService;
+import com.cq.RssHub.service.impl.CoverImageJob;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
@@ -20,6 +23,9 @@ public class ArticleController {
     @Autowired
     private ArticleService articleService;
 
+    @Autowired
+    private CoverImageJob coverImageJob;
+
     @GetMapping
     public ResponseMessage<?> getArticles(
             @RequestParam(required = false) String keyword,
@@ -36,6 +42,34 @@ public class ArticleController {
         return ResponseMessage.success("获取文章列表成功", pageArticle);
     }
 
+    @GetMapping("/cursor")
+    public ResponseMessage<?> getArticlesByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer sourceId,
+            @RequestParam(required = false) Integer categoryId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false, defaultValue = "10") Integer limit) {
+        try {
+            CursorPageArticleVO page = articleService.getArticlesByCursor(cursor, sourceId, categoryId, startDate, endDate, limit);
+            return ResponseMessage.success("获取文章列表成功", page);
+        } catch (IllegalArgumentException e) {
+            return ResponseMessage.error(e.getMessage());
+        }
+    }
+
+    @GetMapping("/search")
+    public ResponseMessage<?> searchArticles(
+            @RequestParam String keyword,
+            @RequestParam(required = false) Integer sourceId,
+            @RequestParam(required = false) Integer categoryId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false, defaultValue = "100") Integer limit) {
+        List<Integer> ids = articleService.searchArticleIds(keyword, sourceId, categoryId, startDate, endDate, limit);
+        return ResponseMessage.success("搜索成功", ids);
+    }
+
     @GetMapping("/{id}")
     public ResponseMessage<?> getArticleById(@PathVariable Integer id) {
         Article article = articleService.getArticleById(id);
@@ -51,7 +85,7 @@ public class ArticleController {
     @GetMapping("/latest")
     public ResponseMessage<?> getLatestArticles(
             @RequestParam(required = false, defaultValue = "10") Integer limit) {
-        List<Article> latestArticles = articleService.getLatestArticles(limit);
+        List<ArticleSummaryVO> latestArticles = articleService.getLatestArticles(limit);
         return ResponseMessage.success("获取最新文章成功", latestArticles);
     }
 
@@ -167,4 +201,28 @@ public class ArticleController {
             return ResponseMessage.error("批量删除文章失败");
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * 启动封面图重新提取任务，上次未完成时继续
+     */
+    @PostMapping("/cover-images/job")
+    public ResponseMessage<?> startCoverImageJob(@RequestParam(defaultValue = "false") boolean restart) {
+        return ResponseMessage.success("封面图重新提取任务已启动", coverImageJob.start(restart));
+    }
+
+    /**
+     * 停止封面图重新提取任务，进度保留
+     */
+    @PostMapping("/cover-images/job/stop")
+    public ResponseMessage<?> stopCoverImageJob() {
+        return ResponseMessage.success("已请求停止", coverImageJob.stop());
+    }
+
+    /**
+     * 查询封面图重新提取任务进度
+     */
+    @GetMapping("/cover-images/job")
+    public ResponseMessage<?> getCoverImageJob() {
+        return ResponseMessage.success("获取成功", coverImageJob.getProgress());
+    }
+}
@@ -1,9 +1,9 @@
 package com.cq.RssHub.controller;
 
-import com.cq.RssHub.pojo.Article;
 import com.cq.RssHub.pojo.ArticleFavorite;
 import com.cq.RssHub.pojo.DTO.ArticleFavoriteDTO;
 import com.cq.RssHub.pojo.ResponseMessage;
+import com.cq.RssHub.pojo.vo.ArticleSummaryVO;
 import com.cq.RssHub.pojo.vo.PageArticleFavoriteVO;
 import com.cq.RssHub.service.ArticleFavoriteService;
 import com.cq.RssHub.service.ArticleRecommendService;
@@ -182,7 +182,7 @@ public class ArticleFavoriteController {
                 return ResponseMessage.error("无法获取用户ID");
             }
             
-            List<Article> recommendations = articleRecommendService.getPersonalizedRecommendations(userId, limit);
+            List<ArticleSummaryVO> recommendations = articleRecommendService.getPersonalizedRecommendations(userId, limit);
             return ResponseMessage.success("获取推荐成功", recommendations);
         } catch (Exception e) {
             return ResponseMessage.error("获取推荐失败: " + e.getMessage());
@@ -197,7 +197,7 @@ public class ArticleFavoriteController {
             @PathVariable Integer articleId,
             @RequestParam(required = false, defaultValue = "5") Integer limit) {
         try {
-            List<Article> similarArticles = articleRecommendService.getSimilarArticles(articleId, limit);
+            List<ArticleSummaryVO> similarArticles = articleRecommendService.getSimilarArticles(articleId, limit);
             return ResponseMessage.success("获取相似文章成功", similarArticles);
         } catch (Exception e) {
             return ResponseMessage.error("获取相似文章失败: " + e.getMessage());
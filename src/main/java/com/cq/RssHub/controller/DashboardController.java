@@ -2,7 +2,12 @@ package com.cq.RssHub.controller;
 
 import com.cq.RssHub.pojo.ResponseMessage;
 import com.cq.RssHub.pojo.vo.DashboardStatisticsVO;
+import com.cq.RssHub.pojo.vo.DbPoolVO;
+import com.cq.RssHub.pojo.vo.ExecutorMetricsVO;
+import com.cq.RssHub.pojo.vo.FetchPassVO;
 import com.cq.RssHub.pojo.vo.FetchTaskVO;
+import com.cq.RssHub.pojo.vo.HostMetricsVO;
+import com.cq.RssHub.pojo.vo.RetentionRunVO;
 import com.cq.RssHub.service.DashboardService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -40,4 +45,54 @@ public class DashboardController {
         List<FetchTaskVO> tasks = dashboardService.getRecentFetchTasks(limit);
         return ResponseMessage.success("获取成功", tasks);
     }
-} 
\ No newline at end of file
+
+    /**
+     * 获取最近一轮定时抓取的报告
+     * @return 抓取报告（耗时、成功/失败/超时数量、吞吐量）
+     */
+    @GetMapping("/fetch-pass")
+    public ResponseMessage<?> getLastFetchPass() {
+        FetchPassVO pass = dashboardService.getLastFetchPass();
+        return ResponseMessage.success("获取成功", pass);
+    }
+
+    /**
+     * 获取各主机的抓取限流指标
+     * @return 主机指标列表（并发数、排队数、平均等待时间）
+     */
+    @GetMapping("/fetch-hosts")
+    public ResponseMessage<?> getFetchHostMetrics() {
+        List<HostMetricsVO> hosts = dashboardService.getFetchHostMetrics();
+        return ResponseMessage.success("获取成功", hosts);
+    }
+
+    /**
+     * 获取数据库连接池使用情况
+     * @return 连接池指标（活跃/空闲连接数、等待线程数、抓取写入事务的连接占用时长）
+     */
+    @GetMapping("/db-pool")
+    public ResponseMessage<?> getDbPoolMetrics() {
+        DbPoolVO pool = dashboardService.getDbPoolMetrics();
+        return ResponseMessage.success("获取成功", pool);
+    }
+
+    /**
+     * 获取抓取线程池运行情况
+     * @return 各线程池的活跃线程数、队列深度和拒绝次数
+     */
+    @GetMapping("/fetch-executors")
+    public ResponseMessage<?> getFetchExecutorMetrics() {
+        List<ExecutorMetricsVO> executors = dashboardService.getFetchExecutorMetrics();
+        return ResponseMessage.success("获取成功", executors);
+    }
+
+    /**
+     * 获取最近几次过期文章清理的结果
+     * @return 每次清理删除的文章数、收藏数、批次数和耗时
+     */
+    @GetMapping("/retention-runs")
+    public ResponseMessage<?> getRetentionRuns() {
+        List<RetentionRunVO> runs = dashboardService.getRetentionRuns();
+        return ResponseMessage.success("获取成功", runs);
+    }
+}
@@ -1,11 +1,14 @@
 package com.cq.RssHub.controller;
 
+import com.cq.RssHub.pojo.FetchTask;
 import com.cq.RssHub.pojo.ResponseMessage;
 import com.cq.RssHub.pojo.RssSource;
+import com.cq.RssHub.pojo.dto.BatchIdsDTO;
 import com.cq.RssHub.pojo.vo.PageRssSourceVO;
 import com.cq.RssHub.pojo.vo.RssSourceVO;
 import com.cq.RssHub.service.RssSourceService;
-import com.cq.RssHub.service.impl.RssService;
+import com.cq.RssHub.service.impl.FeedReplayService;
+import com.cq.RssHub.service.impl.FetchJobService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
@@ -20,7 +23,10 @@ public class RssSourceController {
     private RssSourceService rssSourceService;
     
     @Autowired
-    private RssService rssService;
+    private FetchJobService fetchJobService;
+
+    @Autowired
+    private FeedReplayService feedReplayService;
 
     /**
      * 获取RSS源列表
@@ -86,24 +92,66 @@ public class RssSourceController {
 
     /**
      * 立即抓取RSS源
+     * 任务放入后台队列后立即返回任务ID，进度通过抓取任务接口查询
      */
     @PostMapping("/{id}/fetch")
     public ResponseMessage<?> fetchRssSource(@PathVariable Integer id) {
+        FetchTask task = fetchJobService.submit(id);
+        if (task == null) {
+            return ResponseMessage.error("RSS源不存在");
+        }
+        if ("failed".equals(task.getStatus())) {
+            return ResponseMessage.error(task.getErrorMessage());
+        }
+        
+        Map<String, Object> result = new HashMap<>();
+        result.put("taskId", task.getId().toString());
+        result.put("status", task.getStatus());
+        return ResponseMessage.success("抓取任务已提交", result);
+    }
+
+    /**
+     * 批量抓取RSS源
+     */
+    @PostMapping("/fetch")
+    public ResponseMessage<?> fetchRssSources(@RequestBody BatchIdsDTO batchIds) {
+        List<FetchTask> tasks = fetchJobService.submitAll(batchIds.getIds());
+        return ResponseMessage.success("已提交" + tasks.size() + "个抓取任务", tasks);
+    }
+
+    /**
+     * 查询抓取任务进度
+     */
+    @GetMapping("/fetch-tasks/{taskId}")
+    public ResponseMessage<?> getFetchTask(@PathVariable Integer taskId) {
+        FetchTask task = fetchJobService.getTask(taskId);
+        if (task == null) {
+            return ResponseMessage.error("抓取任务不存在");
+        }
+        return ResponseMessage.success("获取成功", task);
+    }
+
+    /**
+     * 批量查询抓取任务进度
+     */
+    @GetMapping("/fetch-tasks")
+    public ResponseMessage<?> getFetchTasks(@RequestParam List<Integer> ids) {
+        return ResponseMessage.success("获取成功", fetchJobService.getTasks(ids));
+    }
+
+    /**
+     * 用归档的原始内容重新解析RSS源，不访问网络
+     * 不传ID时处理所有有归档的源；默认只统计，apply=true时写入数据库中还不存在的文章
+     */
+    @PostMapping("/replay")
+    public ResponseMessage<?> replayRssSources(@RequestBody(required = false) BatchIdsDTO batchIds,
+                                               @RequestParam(defaultValue = "false") boolean latestOnly,
+                                               @RequestParam(defaultValue = "false") boolean apply) {
         try {
-            // 先抓取新文章
-            int newArticlesCount = rssService.fetchRssSourceNow(id);
-            
-            // 然后处理封面图 - 为该源的所有文章重新提取封面图
-            int updatedCoverImages = rssService.reprocessArticleCoverImages(id);
-            
-            Map<String, Object> result = new HashMap<>();
-            result.put("taskId", id.toString());
-            result.put("newArticlesCount", newArticlesCount);
-            result.put("updatedCoverImagesCount", updatedCoverImages);
-            
-            return ResponseMessage.success("抓取任务已完成，已更新" + updatedCoverImages + "篇文章的封面图", result);
+            List<Integer> ids = batchIds != null ? batchIds.getIds() : null;
+            return ResponseMessage.success("重新解析完成", feedReplayService.replay(ids, latestOnly, apply));
         } catch (Exception e) {
-            return ResponseMessage.error("抓取失败: " + e.getMessage());
+            return ResponseMessage.error("重新解析失败: " + e.getMessage());
         }
     }
 }
@@ -0,0 +1,30 @@
+package com.cq.RssHub.controller;
+
+import com.cq.RssHub.pojo.ResponseMessage;
+import com.cq.RssHub.service.SystemSettingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/settings")
+public class SystemSettingController {
+    @Autowired
+    private SystemSettingService systemSettingService;
+
+    @GetMapping
+    public ResponseMessage<?> getSettings() {
+        return ResponseMessage.success("获取成功", systemSettingService.getSettings());
+    }
+
+    @PutMapping
+    public ResponseMessage<?> updateSettings(@RequestBody Map<String, Object> settings) {
+        try {
+            systemSettingService.updateSettings(settings);
+            return ResponseMessage.success("更新成功", null);
+        } catch (IllegalArgumentException e) {
+            return ResponseMessage.error(e.getMessage());
+        }
+    }
+}
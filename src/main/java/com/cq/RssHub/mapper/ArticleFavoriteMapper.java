@@ -21,6 +21,11 @@ public interface ArticleFavoriteMapper {
      */
     int delete(@Param("userId") Integer userId, @Param("articleId") Integer articleId);
     
+    /**
+     * 删除文章的所有收藏
+     */
+    int deleteByArticleIds(@Param("articleIds") List<Integer> articleIds);
+    
     /**
      * 查询用户所有收藏
      */
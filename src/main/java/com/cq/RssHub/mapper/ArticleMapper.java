@@ -1,9 +1,11 @@
 package com.cq.RssHub.mapper;
 
 import com.cq.RssHub.pojo.Article;
+import com.cq.RssHub.pojo.vo.ArticleSummaryVO;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cursor.Cursor;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -11,10 +13,11 @@ import java.util.List;
 @Mapper
 public interface ArticleMapper {
     /**
-     * 条件查询文章列表
+     * 条件查询文章列表，有检索词时按相关度排序
      * 注意：当使用PageHelper时，offset和limit参数不再需要
+     * @param query 全文检索的布尔模式查询串，见FullTextQueryUtil
      */
-    List<Article> findByFilters(@Param("keyword") String keyword, 
+    List<ArticleSummaryVO> findByFilters(@Param("query") String query, 
                               @Param("sourceId") Integer sourceId, 
                               @Param("categoryId") Integer categoryId,
                               @Param("startDate") LocalDateTime startDate, 
@@ -22,14 +25,40 @@ public interface ArticleMapper {
                               @Param("offset") Integer offset,
                               @Param("limit") Integer limit);
     
+    /**
+     * 游标分页查询文章列表，按(publish_date, id)倒序
+     * @param afterDate 上一页最后一篇文章的发布时间，为null时从第一页开始
+     * @param afterId 上一页最后一篇文章的ID
+     * @param limit 本页最多返回的文章数
+     */
+    List<ArticleSummaryVO> findPageAfter(@Param("afterDate") LocalDateTime afterDate,
+                                @Param("afterId") Integer afterId,
+                                @Param("sourceId") Integer sourceId,
+                                @Param("categoryId") Integer categoryId,
+                                @Param("startDate") LocalDateTime startDate,
+                                @Param("endDate") LocalDateTime endDate,
+                                @Param("limit") int limit);
+
     /**
      * 获取符合条件的文章总数
      */
-    int countByFilters(@Param("keyword") String keyword, 
+    int countByFilters(@Param("query") String query, 
                      @Param("sourceId") Integer sourceId, 
                      @Param("categoryId") Integer categoryId,
                      @Param("startDate") LocalDateTime startDate, 
                      @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * 全文检索文章ID，按相关度从高到低
+     * @param query 全文检索的布尔模式查询串，不能为空
+     * @param limit 最多返回的ID数
+     */
+    List<Integer> searchIds(@Param("query") String query,
+                            @Param("sourceId") Integer sourceId,
+                            @Param("categoryId") Integer categoryId,
+                            @Param("startDate") LocalDateTime startDate,
+                            @Param("endDate") LocalDateTime endDate,
+                            @Param("limit") int limit);
     
     /**
      * 根据ID查询文章
@@ -39,7 +68,7 @@ public interface ArticleMapper {
     /**
      * 获取最新文章列表
      */
-    List<Article> findLatestArticles(Integer limit);
+    List<ArticleSummaryVO> findLatestArticles(Integer limit);
     
     /**
      * 插入文章
@@ -67,14 +96,54 @@ public interface ArticleMapper {
     int deleteByIds(@Param("ids") List<Integer> ids);
     
     /**
-     * 删除过期文章
+     * 按ID查询并锁定文章，只包含id和source_id，需要在事务中调用
+     */
+    List<Article> findSourceIds(@Param("ids") List<Integer> ids);
+    
+    /**
+     * 按ID顺序查询一批过期且未加星标的文章，只包含id和source_id，不加锁
+     * @param cutoffDate 发布时间早于该时间的文章过期
+     * @param afterId 只查询ID大于该值的文章
+     * @param limit 最多返回的文章数
+     * @return 过期文章列表
      */
-    int deleteOlderThan(LocalDateTime cutoffDate);
+    List<Article> findExpired(@Param("cutoffDate") LocalDateTime cutoffDate,
+                              @Param("afterId") int afterId,
+                              @Param("limit") int limit);
     
     /**
-     * 查询已存在的链接
+     * 按ID锁定仍然过期且未加星标的文章，只包含id和source_id，需要在事务中调用
+     * @param ids 候选文章ID
+     * @param cutoffDate 发布时间早于该时间的文章过期
+     * @return 锁定的文章列表
      */
-    List<String> findExistingLinks(List<String> links);
+    List<Article> lockExpiredByIds(@Param("ids") List<Integer> ids,
+                                   @Param("cutoffDate") LocalDateTime cutoffDate);
+    
+    /**
+     * 按ID删除仍然过期且未加星标的文章
+     * @param ids 文章ID
+     * @param cutoffDate 发布时间早于该时间的文章过期
+     * @return 删除的行数
+     */
+    int deleteExpiredByIds(@Param("ids") List<Integer> ids,
+                           @Param("cutoffDate") LocalDateTime cutoffDate);
+    
+    /**
+     * 查询已存在的链接哈希
+     */
+    List<String> findExistingLinkHashes(@Param("linkHashes") List<String> linkHashes);
+    
+    /**
+     * 按链接哈希查询文章ID，返回的文章只包含id和linkHash
+     */
+    List<Article> findIdsByLinkHashes(@Param("linkHashes") List<String> linkHashes);
+    
+    /**
+     * 查询RSS源最近入库的文章链接
+     */
+    @Select("SELECT link FROM article WHERE source_id = #{sourceId} ORDER BY id DESC LIMIT #{limit}")
+    List<String> findRecentLinksBySourceId(@Param("sourceId") Integer sourceId, @Param("limit") Integer limit);
     
     /**
      * 批量插入文章
@@ -94,8 +163,30 @@ public interface ArticleMapper {
     int countByDateRange(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
     
     /**
-     * 查找所有没有封面图的文章
-     * @return 没有封面图的文章列表
+     * 当前最大的文章ID
+     */
+    @Select("SELECT COALESCE(MAX(id), 0) FROM article")
+    int findMaxId();
+    
+    /**
+     * 按ID顺序流式读取ID区间 (afterId, toId] 内需要提取封面图的文章，只包含id、content和cover_image
+     * @param afterId 区间起点（不含）
+     * @param toId 区间终点（含）
+     * @param sourceId RSS源ID，为null时不限
+     * @param onlyMissing 是否只读取没有封面图的文章
+     * @param limit 最多读取的文章数
+     * @return 文章游标，需要在事务中读取
+     */
+    Cursor<Article> scanForCoverImage(@Param("afterId") int afterId,
+                                      @Param("toId") int toId,
+                                      @Param("sourceId") Integer sourceId,
+                                      @Param("onlyMissing") boolean onlyMissing,
+                                      @Param("limit") int limit);
+    
+    /**
+     * 批量更新封面图
+     * @param articles 文章列表（使用id和coverImage字段）
+     * @return 影响的行数
      */
-    List<Article> findArticlesWithoutCoverImage();
+    int updateCoverImages(@Param("articles") List<Article> articles);
 } 
\ No newline at end of file
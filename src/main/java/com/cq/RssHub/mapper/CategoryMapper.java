@@ -2,22 +2,19 @@ package com.cq.RssHub.mapper;
 
 import com.cq.RssHub.pojo.Category;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
 
 import java.util.List;
 
 @Mapper
 public interface CategoryMapper {
     /**
-     * 查询所有分类
+     * 查询所有分类，包含RSS源数和文章数
      */
     List<Category> findAll();
     
-    /**
-     * 查询所有分类，包含统计信息
-     */
-    List<Category> findAllWithStats();
-    
     /**
      * 根据ID查询分类
      */
@@ -43,4 +40,26 @@ public interface CategoryMapper {
      */
     @Select("SELECT COUNT(*) FROM category")
     int countTotal();
-} 
\ No newline at end of file
+
+    /**
+     * 把RSS源连同它当前的文章数计入分类或从分类中移出，
+     * 在RSS源换分类或删除时调用，需要和修改RSS源的语句在同一事务中
+     * @param categoryId 分类ID
+     * @param sourceId RSS源ID
+     * @param sign 1为计入，-1为移出
+     * @return 影响的行数
+     */
+    @Update("UPDATE category c JOIN rss_source rs ON rs.id = #{sourceId} " +
+            "SET c.source_count = GREATEST(c.source_count + #{sign}, 0), " +
+            "c.article_count = GREATEST(c.article_count + #{sign} * rs.article_count, 0) WHERE c.id = #{categoryId}")
+    int applySource(@Param("categoryId") Integer categoryId, @Param("sourceId") Integer sourceId, @Param("sign") int sign);
+
+    /**
+     * 按rss_source表重新计算所有分类的RSS源数和文章数
+     * @return 影响的行数
+     */
+    @Update("UPDATE category c SET " +
+            "c.source_count = (SELECT COUNT(*) FROM rss_source rs WHERE rs.category_id = c.id), " +
+            "c.article_count = (SELECT COALESCE(SUM(rs.article_count), 0) FROM rss_source rs WHERE rs.category_id = c.id)")
+    int recountAll();
+}
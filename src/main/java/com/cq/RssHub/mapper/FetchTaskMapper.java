@@ -2,6 +2,7 @@ package com.cq.RssHub.mapper;
 
 import com.cq.RssHub.pojo.FetchTask;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 import java.util.List;
 
 @Mapper
@@ -16,6 +17,16 @@ public interface FetchTaskMapper {
      */
     int update(FetchTask fetchTask);
     
+    /**
+     * 根据ID查询抓取任务
+     */
+    FetchTask findById(Integer id);
+    
+    /**
+     * 根据ID列表批量查询抓取任务
+     */
+    List<FetchTask> findByIds(@Param("ids") List<Integer> ids);
+    
     /**
      * 查询最近的抓取任务
      */
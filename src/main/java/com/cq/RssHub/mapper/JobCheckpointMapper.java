@@ -0,0 +1,29 @@
+package com.cq.RssHub.mapper;
+
+import com.cq.RssHub.pojo.JobCheckpoint;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Select;
+
+@Mapper
+public interface JobCheckpointMapper {
+    /**
+     * 查询任务进度
+     * @param jobName 任务名称
+     * @return 任务进度，从未运行过时返回null
+     */
+    @Select("SELECT * FROM job_checkpoint WHERE job_name = #{jobName}")
+    JobCheckpoint findByName(String jobName);
+
+    /**
+     * 保存任务进度（不存在时插入）
+     * @param checkpoint 任务进度
+     * @return 影响的行数
+     */
+    @Insert("INSERT INTO job_checkpoint (job_name, status, last_id, end_id, processed, updated, error_message, start_time, update_time) " +
+            "VALUES (#{jobName}, #{status}, #{lastId}, #{endId}, #{processed}, #{updated}, #{errorMessage}, #{startTime}, NOW()) " +
+            "ON DUPLICATE KEY UPDATE status = VALUES(status), last_id = VALUES(last_id), end_id = VALUES(end_id), " +
+            "processed = VALUES(processed), updated = VALUES(updated), error_message = VALUES(error_message), " +
+            "start_time = VALUES(start_time), update_time = NOW()")
+    int save(JobCheckpoint checkpoint);
+}
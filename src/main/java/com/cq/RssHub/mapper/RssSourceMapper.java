@@ -16,6 +16,14 @@ public interface RssSourceMapper {
      */
     List<RssSource> findAll();
 
+    /**
+     * 查询调度所需的RSS源信息，不关联分类表
+     * 包括活跃的源和熔断中等待重试的源
+     * @return 只包含id、frequency、lastFetchTime、status和nextRetryTime的RSS源列表
+     */
+    @Select("SELECT id, frequency, last_fetch_time, status, next_retry_time FROM rss_source WHERE status IN ('active', 'error')")
+    List<RssSource> findScheduleEntries();
+
     /**
      * 根据ID查询RSS源
      * @param id RSS源ID
@@ -42,7 +50,7 @@ public interface RssSourceMapper {
     int insert(RssSource rssSource);
 
     /**
-     * 更新RSS源
+     * 更新RSS源，文章数只通过incrementArticleCount增量修改，这里不写入
      * @param rssSource RSS源
      * @return 影响的行数
      */
@@ -63,6 +71,90 @@ public interface RssSourceMapper {
     @Update("UPDATE rss_source SET last_fetch_time = NOW(), update_time = NOW() WHERE id = #{id}")
     int updateLastFetchTime(Integer id);
 
+    /**
+     * 更新RSS源的条件请求校验信息
+     * @param rssSource RSS源（使用etag、lastModified、contentHash字段）
+     * @return 影响的行数
+     */
+    @Update("UPDATE rss_source SET etag = #{etag}, last_modified = #{lastModified}, content_hash = #{contentHash} WHERE id = #{id}")
+    int updateFetchValidators(RssSource rssSource);
+
+    /**
+     * 更新RSS源的增量抓取水位线
+     * @param rssSource RSS源（使用watermarkGuid、watermarkTime、watermarkOrdered字段）
+     * @return 影响的行数
+     */
+    @Update("UPDATE rss_source SET watermark_guid = #{watermarkGuid}, watermark_time = #{watermarkTime}, " +
+            "watermark_ordered = #{watermarkOrdered} WHERE id = #{id}")
+    int updateWatermark(RssSource rssSource);
+
+    /**
+     * 记录抓取失败，抓取期间被停用的源保持inactive
+     * @param rssSource RSS源（使用status、errorMessage、consecutiveFailures、nextRetryTime字段）
+     * @return 影响的行数
+     */
+    @Update("UPDATE rss_source SET status = IF(status = 'inactive', status, #{status}), error_message = #{errorMessage}, " +
+            "consecutive_failures = #{consecutiveFailures}, next_retry_time = #{nextRetryTime}, update_time = NOW() WHERE id = #{id}")
+    int updateFetchFailure(RssSource rssSource);
+
+    /**
+     * 写入抓取结果后清除错误信息，出错的源恢复为活跃状态，
+     * 只修改这几列，抓取期间管理员对名称、分类、频率的修改和停用不会被覆盖
+     * @param id RSS源ID
+     * @return 影响的行数
+     */
+    @Update("UPDATE rss_source SET status = IF(status = 'error', 'active', status), error_message = NULL, " +
+            "update_time = NOW() WHERE id = #{id}")
+    int updateFetchStatus(Integer id);
+
+    /**
+     * 抓取成功后清除失败记录，熔断中的源恢复为活跃状态，其他状态（如抓取期间被停用）保持不变
+     * @param id RSS源ID
+     * @return 影响的行数
+     */
+    @Update("UPDATE rss_source SET status = IF(status = 'error', 'active', status), error_message = NULL, consecutive_failures = 0, " +
+            "next_retry_time = NULL, update_time = NOW() WHERE id = #{id}")
+    int resetFetchFailures(Integer id);
+
+    /**
+     * 在一条语句中原子地增加RSS源及其分类的文章数，不会减到0以下
+     * @param id RSS源ID
+     * @param delta 增加的文章数，删除文章时为负数
+     * @return 影响的行数
+     */
+    @Update("UPDATE rss_source rs LEFT JOIN category c ON c.id = rs.category_id " +
+            "SET rs.article_count = GREATEST(rs.article_count + #{delta}, 0), " +
+            "c.article_count = GREATEST(c.article_count + #{delta}, 0), rs.update_time = NOW() WHERE rs.id = #{id}")
+    int incrementArticleCount(@Param("id") Integer id, @Param("delta") int delta);
+
+    /**
+     * 查询文章数计数与文章表实际数量不一致的RSS源ID
+     */
+    @Select("SELECT rs.id FROM rss_source rs " +
+            "LEFT JOIN (SELECT source_id, COUNT(*) AS cnt FROM article GROUP BY source_id) a ON a.source_id = rs.id " +
+            "WHERE rs.article_count <> COALESCE(a.cnt, 0)")
+    List<Integer> findDriftedArticleCounts();
+
+    /**
+     * 按文章表重新计算RSS源的文章数
+     * @param id RSS源ID
+     * @return 影响的行数
+     */
+    @Update("UPDATE rss_source SET article_count = (SELECT COUNT(*) FROM article WHERE source_id = #{id}) WHERE id = #{id}")
+    int recountArticles(Integer id);
+
+    /**
+     * 查询RSS源的文章数计数，RSS源不存在时返回null
+     */
+    @Select("SELECT article_count FROM rss_source WHERE id = #{id}")
+    Integer findArticleCount(Integer id);
+
+    /**
+     * 所有RSS源的文章数计数之和，即文章总数
+     */
+    @Select("SELECT COALESCE(SUM(article_count), 0) FROM rss_source")
+    long sumArticleCount();
+
     /**
      * 统计RSS源总数
      */
@@ -0,0 +1,30 @@
+package com.cq.RssHub.mapper;
+
+import com.cq.RssHub.pojo.SystemSetting;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.List;
+
+/**
+ * 系统设置数据访问接口
+ */
+@Mapper
+public interface SystemSettingMapper {
+    /**
+     * 查询所有设置
+     */
+    @Select("SELECT * FROM system_setting ORDER BY id")
+    List<SystemSetting> findAll();
+
+    /**
+     * 更新设置值
+     * @param settingKey 设置键
+     * @param settingValue 设置值
+     * @return 影响的行数，设置不存在时为0
+     */
+    @Update("UPDATE system_setting SET setting_value = #{settingValue}, update_time = NOW() WHERE setting_key = #{settingKey}")
+    int updateValue(@Param("settingKey") String settingKey, @Param("settingValue") String settingValue);
+}
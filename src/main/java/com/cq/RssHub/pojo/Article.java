@@ -8,6 +8,8 @@ public class Article {
     private Integer id;
     private String title;
     private String link;
+    // 链接的SHA-256，唯一索引，用于去重
+    private String linkHash;
     private Integer sourceId;
     private String summary;
     private String content;
@@ -7,11 +7,15 @@ import java.time.LocalDateTime;
 public class FetchTask {
     private Integer id;
     private Integer sourceId;
-    private String status; // completed, failed, running
+    private String status; // pending, running, completed, failed
     private LocalDateTime startTime;
     private LocalDateTime endTime;
     private Integer articlesAdded;
     private String errorMessage;
+    // 是否复用了同一源或同一URL正在进行的抓取
+    private Boolean joined = false;
+    // 下载实际传输的字节数（压缩后）
+    private Long bytesTransferred = 0L;
     private LocalDateTime createTime;
     private LocalDateTime updateTime;
     
@@ -0,0 +1,22 @@
+package com.cq.RssHub.pojo;
+
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * 后台批处理任务的进度
+ */
+@Data
+public class JobCheckpoint {
+    private String jobName;
+    private String status; // running, paused, completed, failed
+    // 已处理到的记录ID，任务从这里继续
+    private Integer lastId = 0;
+    // 本轮任务处理到的最大记录ID
+    private Integer endId = 0;
+    private Integer processed = 0;
+    private Integer updated = 0;
+    private String errorMessage;
+    private LocalDateTime startTime;
+    private LocalDateTime updateTime;
+}
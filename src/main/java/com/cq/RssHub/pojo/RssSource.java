@@ -11,14 +11,33 @@ public class RssSource {
     private String url;
     private Integer categoryId;
     private String description;
-    private Integer frequency = 60;
+    // 抓取频率（分钟），创建时为空则使用系统设置的默认抓取频率
+    private Integer frequency;
     private LocalDateTime lastFetchTime;
     private String status = "active";
     private String errorMessage;
     private Integer articleCount = 0;
+    // 条件请求校验信息
+    private String etag;
+    private String lastModified;
+    private String contentHash;
+    // 连续抓取失败次数和熔断后的下次重试时间
+    private Integer consecutiveFailures = 0;
+    private LocalDateTime nextRetryTime;
+    // 增量抓取水位线：最新已入库条目guid的SHA-256和发布时间，以及条目是否按时间倒序
+    private String watermarkGuid;
+    private LocalDateTime watermarkTime;
+    private Boolean watermarkOrdered = true;
+    // 连接超时和读取超时（秒），为空时使用全局配置
+    private Integer connectTimeout;
+    private Integer readTimeout;
     private LocalDateTime createTime;
     private LocalDateTime updateTime;
 
     // 非数据库字段，用于显示分类名称
     private String categoryName;
+    // 非数据库字段，本次抓取复用了同一URL正在进行的下载
+    private boolean downloadShared;
+    // 非数据库字段，本次抓取实际传输的字节数
+    private long bytesTransferred;
 }
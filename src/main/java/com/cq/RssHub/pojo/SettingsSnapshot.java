@@ -0,0 +1,128 @@
+package com.cq.RssHub.pojo;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 系统设置的不可变快照
+ * 设置变更时整体替换为新的快照，读取方不需要加锁，也不会读到一半新一半旧的设置
+ */
+public final class SettingsSnapshot {
+    public static final String SYSTEM_NAME = "systemName";
+    public static final String DEFAULT_FETCH_FREQUENCY = "defaultFetchFrequency";
+    public static final String MAX_ARTICLE_AGE = "maxArticleAge";
+    public static final String CLEANUP_INTERVAL = "cleanupInterval";
+    public static final String THEME = "theme";
+
+    // 数据库中没有对应设置或设置值无效时使用的默认值
+    private static final int DEFAULT_FETCH_FREQUENCY_VALUE = 60;
+    private static final int DEFAULT_MAX_ARTICLE_AGE_VALUE = 30;
+    private static final int DEFAULT_CLEANUP_INTERVAL_VALUE = 24;
+
+    private final Map<String, String> values;
+    private final long version;
+    private final LocalDateTime loadedAt;
+    private final int defaultFetchFrequency;
+    private final int maxArticleAge;
+    private final int cleanupInterval;
+
+    private SettingsSnapshot(Map<String, String> values, long version) {
+        this.values = Collections.unmodifiableMap(values);
+        this.version = version;
+        this.loadedAt = LocalDateTime.now();
+        // 常用的数值设置在创建快照时解析一次
+        this.defaultFetchFrequency = positiveInt(DEFAULT_FETCH_FREQUENCY, DEFAULT_FETCH_FREQUENCY_VALUE);
+        this.maxArticleAge = nonNegativeInt(MAX_ARTICLE_AGE, DEFAULT_MAX_ARTICLE_AGE_VALUE);
+        this.cleanupInterval = positiveInt(CLEANUP_INTERVAL, DEFAULT_CLEANUP_INTERVAL_VALUE);
+    }
+
+    /**
+     * 还未从数据库加载时使用的默认设置
+     */
+    public static SettingsSnapshot defaults() {
+        return new SettingsSnapshot(new LinkedHashMap<>(), 0);
+    }
+
+    /**
+     * 由数据库中的设置创建快照
+     * @param settings 数据库中的设置
+     * @param version 快照版本，每次重新加载递增
+     */
+    public static SettingsSnapshot of(List<SystemSetting> settings, long version) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (SystemSetting setting : settings) {
+            if (setting.getSettingKey() != null && setting.getSettingValue() != null) {
+                values.put(setting.getSettingKey(), setting.getSettingValue());
+            }
+        }
+        return new SettingsSnapshot(values, version);
+    }
+
+    /**
+     * 设置值，不存在时返回null
+     */
+    public String get(String key) {
+        return values.get(key);
+    }
+
+    /**
+     * 所有设置（只读）
+     */
+    public Map<String, String> getValues() {
+        return values;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public LocalDateTime getLoadedAt() {
+        return loadedAt;
+    }
+
+    /**
+     * 新建RSS源的默认抓取频率（分钟）
+     */
+    public int getDefaultFetchFrequency() {
+        return defaultFetchFrequency;
+    }
+
+    /**
+     * 文章最大保留天数，0表示不清理
+     */
+    public int getMaxArticleAge() {
+        return maxArticleAge;
+    }
+
+    /**
+     * 过期文章清理间隔（小时）
+     */
+    public int getCleanupInterval() {
+        return cleanupInterval;
+    }
+
+    private int positiveInt(String key, int defaultValue) {
+        Integer value = parseInt(key);
+        return value != null && value > 0 ? value : defaultValue;
+    }
+
+    private int nonNegativeInt(String key, int defaultValue) {
+        Integer value = parseInt(key);
+        return value != null && value >= 0 ? value : defaultValue;
+    }
+
+    private Integer parseInt(String key) {
+        String value = values.get(key);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.cq.RssHub.pojo.vo;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 文章列表项，不包含正文，正文只在文章详情中返回
+ */
+@Data
+public class ArticleSummaryVO {
+    private Integer id;
+    private String title;
+    private String link;
+    private Integer sourceId;
+    private String summary;
+    private String author;
+    private String coverImage;
+    private LocalDateTime publishDate;
+    private Boolean isRead;
+    private Boolean isStarred;
+    private Integer readCount;
+    private String sourceName;
+    private String categoryName;
+}
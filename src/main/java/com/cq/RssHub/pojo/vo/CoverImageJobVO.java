@@ -0,0 +1,28 @@
+package com.cq.RssHub.pojo.vo;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 封面图重新提取任务的进度
+ */
+@Data
+public class CoverImageJobVO {
+    // idle（从未运行）、running、paused、completed、failed
+    private String status;
+    // 已处理到的文章ID
+    private Integer lastId;
+    // 本轮任务处理到的最大文章ID
+    private Integer endId;
+    // 按ID计算的完成百分比
+    private Double percent;
+    // 已扫描的文章数
+    private Integer processed;
+    // 已更新封面图的文章数
+    private Integer updated;
+    // 本次运行的处理速度（篇/秒）
+    private Double articlesPerSecond;
+    private LocalDateTime startTime;
+    private String errorMessage;
+}
@@ -0,0 +1,16 @@
+package com.cq.RssHub.pojo.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPageArticleVO {
+    private List<ArticleSummaryVO> items;
+    // 下一页的游标，没有更多文章时为null
+    private String nextCursor;
+}
@@ -0,0 +1,24 @@
+package com.cq.RssHub.pojo.vo;
+
+import lombok.Data;
+
+/**
+ * 数据库连接池使用情况
+ */
+@Data
+public class DbPoolVO {
+    // 正在使用的连接数
+    private Integer activeConnections;
+    // 空闲连接数
+    private Integer idleConnections;
+    private Integer totalConnections;
+    private Integer maxPoolSize;
+    // 等待获取连接的线程数
+    private Integer threadsAwaitingConnection;
+    // 抓取写入事务次数
+    private Long fetchWriteCount;
+    // 抓取写入事务占用连接的平均时长（毫秒）
+    private Double avgFetchWriteMillis;
+    // 抓取写入事务占用连接的最长时长（毫秒）
+    private Long maxFetchWriteMillis;
+}
@@ -0,0 +1,21 @@
+package com.cq.RssHub.pojo.vo;
+
+import lombok.Data;
+
+/**
+ * 抓取线程池的运行指标
+ */
+@Data
+public class ExecutorMetricsVO {
+    private String name;
+    // 正在执行任务的线程数
+    private Integer activeThreads;
+    private Integer poolSize;
+    private Integer maxPoolSize;
+    // 当前排队等待的任务数
+    private Integer queueDepth;
+    private Integer queueCapacity;
+    private Long completedTasks;
+    // 因线程池已满被拒绝的任务数
+    private Long rejectedTasks;
+}
@@ -0,0 +1,23 @@
+package com.cq.RssHub.pojo.vo;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 单轮抓取的执行报告
+ */
+@Data
+public class FetchPassVO {
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private Integer totalSources;
+    private Integer succeeded;
+    private Integer failed;
+    // 超过截止时间被取消的源数量
+    private Integer timedOut;
+    private Integer articlesAdded;
+    private Long elapsedMillis;
+    // 吞吐量（源/秒）
+    private Double throughput;
+}
@@ -12,4 +12,8 @@ public class FetchTaskVO {
     private LocalDateTime startTime;
     private LocalDateTime endTime;
     private Integer articlesAdded;
+    // 是否复用了正在进行的抓取
+    private Boolean joined;
+    // 下载实际传输的字节数
+    private Long bytesTransferred;
 } 
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.cq.RssHub.pojo.vo;
+
+import lombok.Data;
+
+/**
+ * 单个主机的抓取限流指标
+ */
+@Data
+public class HostMetricsVO {
+    private String host;
+    // 正在进行的请求数
+    private Integer inFlight;
+    // 当前排队等待的请求数
+    private Integer queueDepth;
+    // 历史最大排队数
+    private Integer maxQueueDepth;
+    private Long totalRequests;
+    // 平均排队等待时间（毫秒）
+    private Double avgWaitMillis;
+}
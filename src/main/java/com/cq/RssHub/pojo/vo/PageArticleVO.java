@@ -1,6 +1,5 @@
 package com.cq.RssHub.pojo.vo;
 
-import com.cq.RssHub.pojo.Article;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -12,5 +11,5 @@ import java.util.List;
 @NoArgsConstructor
 public class PageArticleVO {
     private long total;
-    private List<Article> items;
+    private List<ArticleSummaryVO> items;
 }
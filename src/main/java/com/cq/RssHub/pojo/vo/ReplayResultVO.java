@@ -0,0 +1,23 @@
+package com.cq.RssHub.pojo.vo;
+
+import lombok.Data;
+
+/**
+ * 归档快照重新解析结果
+ */
+@Data
+public class ReplayResultVO {
+    // 处理的RSS源数
+    private Integer sourceCount;
+    // 解析的快照数
+    private Integer snapshotCount;
+    // 读取失败或解析失败的快照数
+    private Integer failedSnapshots;
+    // 解析出的条目数（同一源内按链接去重后）
+    private Integer entriesParsed;
+    // 数据库中还不存在的文章数
+    private Integer newArticles;
+    // 实际写入的文章数，仅写入模式下大于0
+    private Integer insertedArticles;
+    private Long elapsedMillis;
+}
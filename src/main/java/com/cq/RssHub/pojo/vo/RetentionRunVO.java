@@ -0,0 +1,25 @@
+package com.cq.RssHub.pojo.vo;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 一次过期文章清理的结果
+ */
+@Data
+public class RetentionRunVO {
+    // running、completed、failed
+    private String status;
+    // 发布时间早于该时间且未加星标的文章被删除
+    private LocalDateTime cutoffDate;
+    private Integer articlesDeleted;
+    // 随文章一起删除的收藏记录数
+    private Integer favoritesDeleted;
+    // 删除的批次数（每批一个事务）
+    private Integer batches;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private Long elapsedMillis;
+    private String errorMessage;
+}
@@ -1,6 +1,6 @@
 package com.cq.RssHub.service;
 
-import com.cq.RssHub.pojo.Article;
+import com.cq.RssHub.pojo.vo.ArticleSummaryVO;
 import java.util.List;
 
 /**
@@ -14,7 +14,7 @@ public interface ArticleRecommendService {
      * @param limit 推荐数量限制
      * @return 推荐文章列表
      */
-    List<Article> getPersonalizedRecommendations(Integer userId, int limit);
+    List<ArticleSummaryVO> getPersonalizedRecommendations(Integer userId, int limit);
     
     /**
      * 获取与指定文章相似的文章推荐
@@ -22,12 +22,12 @@ public interface ArticleRecommendService {
      * @param limit 推荐数量限制
      * @return 相似文章列表
      */
-    List<Article> getSimilarArticles(Integer articleId, int limit);
+    List<ArticleSummaryVO> getSimilarArticles(Integer articleId, int limit);
     
     /**
      * 获取热门文章推荐
      * @param limit 推荐数量限制
      * @return 热门文章列表
      */
-    List<Article> getHotRecommendations(int limit);
+    List<ArticleSummaryVO> getHotRecommendations(int limit);
 } 
\ No newline at end of file
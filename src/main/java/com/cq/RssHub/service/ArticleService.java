@@ -1,6 +1,8 @@
 package com.cq.RssHub.service;
 
 import com.cq.RssHub.pojo.Article;
+import com.cq.RssHub.pojo.vo.ArticleSummaryVO;
+import com.cq.RssHub.pojo.vo.CursorPageArticleVO;
 import com.cq.RssHub.pojo.vo.PageArticleVO;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -33,6 +35,33 @@ public interface ArticleService {
     int getArticlesCount(String keyword, Integer sourceId, Integer categoryId,
                         LocalDateTime startDate, LocalDateTime endDate);
     
+    /**
+     * 按游标分页获取文章列表，按发布时间倒序，每页的查询代价与翻到第几页无关
+     * @param cursor 上一页返回的游标，为空时获取第一页
+     * @param sourceId RSS源ID
+     * @param categoryId 分类ID
+     * @param startDate 开始日期
+     * @param endDate 结束日期
+     * @param limit 每页数量
+     * @return 本页文章和下一页的游标
+     * @throws IllegalArgumentException 游标无效
+     */
+    CursorPageArticleVO getArticlesByCursor(String cursor, Integer sourceId, Integer categoryId,
+                                            LocalDateTime startDate, LocalDateTime endDate, Integer limit);
+
+    /**
+     * 全文检索文章
+     * @param keyword 搜索关键词，多个词用空格分隔，每个词都必须出现
+     * @param sourceId RSS源ID
+     * @param categoryId 分类ID
+     * @param startDate 开始日期
+     * @param endDate 结束日期
+     * @param limit 最多返回的数量
+     * @return 按相关度从高到低排列的文章ID
+     */
+    List<Integer> searchArticleIds(String keyword, Integer sourceId, Integer categoryId,
+                                   LocalDateTime startDate, LocalDateTime endDate, Integer limit);
+
     /**
      * 根据ID获取文章详情
      * @param id 文章ID
@@ -45,7 +74,7 @@ public interface ArticleService {
      * @param limit 获取数量
      * @return 最新文章列表
      */
-    List<Article> getLatestArticles(Integer limit);
+    List<ArticleSummaryVO> getLatestArticles(Integer limit);
     
     /**
      * 创建文章
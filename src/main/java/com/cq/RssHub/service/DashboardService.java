@@ -1,7 +1,12 @@
 package com.cq.RssHub.service;
 
 import com.cq.RssHub.pojo.vo.DashboardStatisticsVO;
+import com.cq.RssHub.pojo.vo.DbPoolVO;
+import com.cq.RssHub.pojo.vo.ExecutorMetricsVO;
+import com.cq.RssHub.pojo.vo.FetchPassVO;
 import com.cq.RssHub.pojo.vo.FetchTaskVO;
+import com.cq.RssHub.pojo.vo.HostMetricsVO;
+import com.cq.RssHub.pojo.vo.RetentionRunVO;
 import java.util.List;
 
 public interface DashboardService {
@@ -17,4 +22,34 @@ public interface DashboardService {
      * @return 抓取任务列表
      */
     List<FetchTaskVO> getRecentFetchTasks(Integer limit);
-} 
\ No newline at end of file
+    
+    /**
+     * 获取最近一轮定时抓取的报告
+     * @return 抓取报告，尚未执行过抓取时为null
+     */
+    FetchPassVO getLastFetchPass();
+    
+    /**
+     * 获取各主机的抓取限流指标
+     * @return 主机指标列表，按排队数从高到低排序
+     */
+    List<HostMetricsVO> getFetchHostMetrics();
+    
+    /**
+     * 获取数据库连接池使用情况
+     * @return 连接池指标和抓取写入事务的连接占用时长
+     */
+    DbPoolVO getDbPoolMetrics();
+
+    /**
+     * 获取抓取线程池运行情况
+     * @return 手动抓取和后台抓取线程池的活跃线程数、队列深度和拒绝次数
+     */
+    List<ExecutorMetricsVO> getFetchExecutorMetrics();
+
+    /**
+     * 获取最近几次过期文章清理的结果
+     * @return 清理结果列表，从新到旧
+     */
+    List<RetentionRunVO> getRetentionRuns();
+}
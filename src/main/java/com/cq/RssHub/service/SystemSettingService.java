@@ -0,0 +1,32 @@
+package com.cq.RssHub.service;
+
+import com.cq.RssHub.pojo.SettingsSnapshot;
+
+import java.util.Map;
+
+public interface SystemSettingService {
+    /**
+     * 获取当前的设置快照，只读内存，不访问数据库
+     * @return 设置快照
+     */
+    SettingsSnapshot getSnapshot();
+
+    /**
+     * 获取所有设置，数值设置以数字返回
+     * @return 设置键值
+     */
+    Map<String, Object> getSettings();
+
+    /**
+     * 更新设置，保存后刷新本节点的快照并通知其他节点重新加载
+     * @param settings 要更新的设置键值
+     * @throws IllegalArgumentException 设置项不存在或设置值无效
+     */
+    void updateSettings(Map<String, Object> settings);
+
+    /**
+     * 从数据库重新加载设置
+     * @return 是否加载成功
+     */
+    boolean reload();
+}
@@ -0,0 +1,117 @@
+package com.cq.RssHub.service.impl;
+
+import com.cq.RssHub.config.FetchProperties;
+import com.cq.RssHub.mapper.ArticleMapper;
+import com.cq.RssHub.pojo.Article;
+import com.cq.RssHub.utils.HashUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 文章批量写入器
+ * 按配置的批大小分批执行多行INSERT，每批一次数据库往返，
+ * 写入后文章的id由数据库生成的主键回填。
+ * 去重基于链接哈希的唯一索引，并发写入同一链接时重复的行会被INSERT IGNORE忽略
+ */
+@Component
+public class ArticleBatchWriter {
+    private static final Logger logger = LoggerFactory.getLogger(ArticleBatchWriter.class);
+
+    @Autowired
+    private ArticleMapper articleMapper;
+
+    @Autowired
+    private FetchProperties fetchProperties;
+
+    /**
+     * 过滤出尚未入库的文章
+     * 同一批中重复的链接只保留第一篇
+     * @param articles 候选文章
+     * @return 新文章，已计算好链接哈希
+     */
+    public List<Article> filterNew(List<Article> articles) {
+        if (articles == null || articles.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<String, Article> byHash = new LinkedHashMap<>();
+        for (Article article : articles) {
+            byHash.putIfAbsent(ensureLinkHash(article), article);
+        }
+
+        Set<String> existing = new HashSet<>();
+        List<String> hashes = new ArrayList<>(byHash.keySet());
+        int batchSize = Math.max(1, fetchProperties.getWriteBatchSize());
+        for (int from = 0; from < hashes.size(); from += batchSize) {
+            existing.addAll(articleMapper.findExistingLinkHashes(
+                    hashes.subList(from, Math.min(from + batchSize, hashes.size()))));
+        }
+
+        List<Article> newArticles = new ArrayList<>(byHash.size());
+        for (Map.Entry<String, Article> entry : byHash.entrySet()) {
+            if (!existing.contains(entry.getKey())) {
+                newArticles.add(entry.getValue());
+            }
+        }
+        return newArticles;
+    }
+
+    /**
+     * 分批写入文章
+     * 有行被忽略时（其他抓取已写入相同链接），数据库返回的主键与文章无法一一对应，
+     * 此时按链接哈希重新查询id，保证每篇文章的id都指向库中的记录
+     * @param articles 待写入的文章
+     * @return 实际插入的行数
+     */
+    public int write(List<Article> articles) {
+        if (articles == null || articles.isEmpty()) {
+            return 0;
+        }
+
+        int batchSize = Math.max(1, fetchProperties.getWriteBatchSize());
+        int written = 0;
+        int batches = 0;
+        for (int from = 0; from < articles.size(); from += batchSize) {
+            List<Article> chunk = articles.subList(from, Math.min(from + batchSize, articles.size()));
+            chunk.forEach(this::ensureLinkHash);
+            int inserted = articleMapper.batchInsert(chunk);
+            if (inserted < chunk.size()) {
+                logger.info("批量写入时有 {} 篇重复文章被忽略", chunk.size() - inserted);
+                resolveIds(chunk);
+            }
+            written += inserted;
+            batches++;
+        }
+        logger.debug("批量写入文章 {} 篇，共 {} 批", written, batches);
+        return written;
+    }
+
+    private String ensureLinkHash(Article article) {
+        if (article.getLinkHash() == null) {
+            article.setLinkHash(HashUtil.sha256Hex(article.getLink()));
+        }
+        return article.getLinkHash();
+    }
+
+    private void resolveIds(List<Article> chunk) {
+        List<String> hashes = chunk.stream().map(Article::getLinkHash).collect(Collectors.toList());
+        Map<String, Integer> ids = new HashMap<>();
+        for (Article stored : articleMapper.findIdsByLinkHashes(hashes)) {
+            ids.put(stored.getLinkHash(), stored.getId());
+        }
+        for (Article article : chunk) {
+            article.setId(ids.get(article.getLinkHash()));
+        }
+    }
+}
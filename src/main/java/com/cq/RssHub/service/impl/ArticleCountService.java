@@ -0,0 +1,151 @@
+package com.cq.RssHub.service.impl;
+
+import com.cq.RssHub.config.CountProperties;
+import com.cq.RssHub.mapper.ArticleMapper;
+import com.cq.RssHub.mapper.RssSourceMapper;
+import com.cq.RssHub.utils.SingleFlight;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 文章总数统计
+ * 不带筛选条件或只按RSS源筛选时直接读取rss_source表上增量维护的文章数，不扫描文章表；
+ * 其他筛选条件的精确总数按条件缓存一小段时间，抓取或删除文章时按RSS源和分类提前失效。
+ * 同一条件的并发统计只执行一次
+ */
+@Service
+public class ArticleCountService {
+
+    @Autowired
+    private ArticleMapper articleMapper;
+
+    @Autowired
+    private RssSourceMapper rssSourceMapper;
+
+    @Autowired
+    private CountProperties countProperties;
+
+    private final Map<Filter, CachedCount> cache = new ConcurrentHashMap<>();
+    private final SingleFlight<Filter, Integer> counting = new SingleFlight<>();
+
+    /**
+     * 统计符合条件的文章数
+     * @param query 全文检索的布尔模式查询串，见FullTextQueryUtil
+     */
+    public long count(String query, Integer sourceId, Integer categoryId,
+                      LocalDateTime startDate, LocalDateTime endDate) {
+        if (query == null && categoryId == null && startDate == null && endDate == null) {
+            if (sourceId == null) {
+                return rssSourceMapper.sumArticleCount();
+            }
+            Integer count = rssSourceMapper.findArticleCount(sourceId);
+            return count != null ? count : 0;
+        }
+
+        Filter filter = new Filter(query, sourceId, categoryId, startDate, endDate);
+        long now = System.currentTimeMillis();
+        CachedCount cached = cache.get(filter);
+        if (cached != null && cached.expiresAt > now) {
+            return cached.count;
+        }
+
+        int count;
+        try {
+            count = counting.execute(filter,
+                    () -> articleMapper.countByFilters(query, sourceId, categoryId, startDate, endDate)).getValue();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        store(filter, new CachedCount(count, now + countProperties.getCacheTtl().toMillis()));
+        return count;
+    }
+
+    /**
+     * RSS源的文章有增删时，使可能包含这些文章的缓存失效
+     * @param sourceId RSS源ID
+     * @param categoryId RSS源的分类ID，未知时传null，所有按分类筛选的缓存都失效
+     */
+    public void invalidate(Integer sourceId, Integer categoryId) {
+        cache.keySet().removeIf(filter -> (filter.sourceId == null || filter.sourceId.equals(sourceId))
+                && (filter.categoryId == null || categoryId == null || filter.categoryId.equals(categoryId)));
+    }
+
+    /**
+     * 清空所有缓存
+     */
+    public void invalidateAll() {
+        cache.clear();
+    }
+
+    /**
+     * 当前缓存的条件数
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    private void store(Filter filter, CachedCount count) {
+        if (cache.size() >= countProperties.getMaxEntries()) {
+            long now = System.currentTimeMillis();
+            cache.values().removeIf(cached -> cached.expiresAt <= now);
+            if (cache.size() >= countProperties.getMaxEntries()) {
+                cache.clear();
+            }
+        }
+        cache.put(filter, count);
+    }
+
+    /**
+     * 筛选条件，作为缓存的key
+     */
+    private static class Filter {
+        private final String query;
+        private final Integer sourceId;
+        private final Integer categoryId;
+        private final LocalDateTime startDate;
+        private final LocalDateTime endDate;
+
+        Filter(String query, Integer sourceId, Integer categoryId, LocalDateTime startDate, LocalDateTime endDate) {
+            this.query = query;
+            this.sourceId = sourceId;
+            this.categoryId = categoryId;
+            this.startDate = startDate;
+            this.endDate = endDate;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Filter other)) {
+                return false;
+            }
+            return Objects.equals(query, other.query) && Objects.equals(sourceId, other.sourceId)
+                    && Objects.equals(categoryId, other.categoryId) && Objects.equals(startDate, other.startDate)
+                    && Objects.equals(endDate, other.endDate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(query, sourceId, categoryId, startDate, endDate);
+        }
+    }
+
+    private static class CachedCount {
+        private final long count;
+        private final long expiresAt;
+
+        CachedCount(long count, long expiresAt) {
+            this.count = count;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
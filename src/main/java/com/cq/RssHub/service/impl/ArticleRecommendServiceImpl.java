@@ -3,6 +3,7 @@ package com.cq.RssHub.service.impl;
 import com.cq.RssHub.mapper.ArticleMapper;
 import com.cq.RssHub.pojo.Article;
 import com.cq.RssHub.pojo.ArticleFavorite;
+import com.cq.RssHub.pojo.vo.ArticleSummaryVO;
 import com.cq.RssHub.service.ArticleFavoriteService;
 import com.cq.RssHub.service.ArticleRecommendService;
 import org.slf4j.Logger;
@@ -50,7 +51,7 @@ public class ArticleRecommendServiceImpl implements ArticleRecommendService {
     
     @Override
     @Cacheable(value = "personalizedRecommendations", key = "#userId + '-' + #limit", unless = "#result.isEmpty()")
-    public List<Article> getPersonalizedRecommendations(Integer userId, int limit) {
+    public List<ArticleSummaryVO> getPersonalizedRecommendations(Integer userId, int limit) {
         try {
             // 获取用户收藏列表
             List<ArticleFavorite> favorites = articleFavoriteService.getRecentFavorites(userId, 10);
@@ -67,8 +68,11 @@ public class ArticleRecommendServiceImpl implements ArticleRecommendService {
                     .filter(Objects::nonNull)
                     .collect(Collectors.toList());
             
+            // 获取最新文章作为推荐候选
+            List<ArticleSummaryVO> candidates = articleMapper.findLatestArticles(100);
+            
             // 计算TF-IDF特征
-            Map<Integer, Double> articleScores = calculateArticleScores(favoriteTitles);
+            Map<Integer, Double> articleScores = calculateArticleScores(favoriteTitles, candidates);
             
             // 排除已收藏的文章
             Set<Integer> favoriteIds = favorites.stream()
@@ -83,11 +87,13 @@ public class ArticleRecommendServiceImpl implements ArticleRecommendService {
                     .map(Map.Entry::getKey)
                     .collect(Collectors.toList());
             
-            // 获取推荐文章列表
+            // 推荐文章都在候选列表中，直接取出，不再逐篇查询
             if (!recommendArticleIds.isEmpty()) {
-                List<Article> recommendations = new ArrayList<>();
+                Map<Integer, ArticleSummaryVO> candidateById = candidates.stream()
+                        .collect(Collectors.toMap(ArticleSummaryVO::getId, candidate -> candidate, (a, b) -> a));
+                List<ArticleSummaryVO> recommendations = new ArrayList<>();
                 for (Integer articleId : recommendArticleIds) {
-                    Article article = articleMapper.findById(articleId);
+                    ArticleSummaryVO article = candidateById.get(articleId);
                     if (article != null) {
                         recommendations.add(article);
                     }
@@ -108,7 +114,7 @@ public class ArticleRecommendServiceImpl implements ArticleRecommendService {
     
     @Override
     @Cacheable(value = "similarArticles", key = "#articleId + '-' + #limit", unless = "#result.isEmpty()")
-    public List<Article> getSimilarArticles(Integer articleId, int limit) {
+    public List<ArticleSummaryVO> getSimilarArticles(Integer articleId, int limit) {
         try {
             // 获取当前文章
             Article article = articleMapper.findById(articleId);
@@ -121,11 +127,11 @@ public class ArticleRecommendServiceImpl implements ArticleRecommendService {
             Map<String, Double> titleTerms = extractTermsWithWeight(article.getTitle());
             
             // 获取最新文章
-            List<Article> latestArticles = articleMapper.findLatestArticles(100); // 获取较多文章以便筛选
+            List<ArticleSummaryVO> latestArticles = articleMapper.findLatestArticles(100); // 获取较多文章以便筛选
             
             // 计算相似度
             Map<Integer, Double> similarityScores = new HashMap<>();
-            for (Article candidate : latestArticles) {
+            for (ArticleSummaryVO candidate : latestArticles) {
                 // 排除自身
                 if (candidate.getId().equals(articleId)) {
                     continue;
@@ -144,9 +150,9 @@ public class ArticleRecommendServiceImpl implements ArticleRecommendService {
                     .collect(Collectors.toList());
             
             // 获取相似文章列表
-            List<Article> similarArticles = new ArrayList<>();
+            List<ArticleSummaryVO> similarArticles = new ArrayList<>();
             for (Integer id : similarArticleIds) {
-                for (Article latestArticle : latestArticles) {
+                for (ArticleSummaryVO latestArticle : latestArticles) {
                     if (latestArticle.getId().equals(id)) {
                         similarArticles.add(latestArticle);
                         break;
@@ -164,10 +170,10 @@ public class ArticleRecommendServiceImpl implements ArticleRecommendService {
     
     @Override
     @Cacheable(value = "hotRecommendations", key = "#limit", unless = "#result.isEmpty()")
-    public List<Article> getHotRecommendations(int limit) {
+    public List<ArticleSummaryVO> getHotRecommendations(int limit) {
         try {
             // 简单实现：返回阅读量最高的文章
-            List<Article> hotArticles = articleMapper.findLatestArticles(limit);
+            List<ArticleSummaryVO> hotArticles = articleMapper.findLatestArticles(limit);
             logger.info("获取了{}篇热门推荐文章", hotArticles.size());
             return hotArticles;
         } catch (Exception e) {
@@ -179,16 +185,13 @@ public class ArticleRecommendServiceImpl implements ArticleRecommendService {
     /**
      * 计算文章相似度评分
      */
-    private Map<Integer, Double> calculateArticleScores(List<String> favoriteTitles) {
+    private Map<Integer, Double> calculateArticleScores(List<String> favoriteTitles, List<ArticleSummaryVO> candidates) {
         // 提取用户收藏文章的关键词权重
         Map<String, Double> userProfile = buildUserProfile(favoriteTitles);
         
-        // 获取最新文章用于推荐
-        List<Article> candidates = articleMapper.findLatestArticles(100);
-        
         // 计算每篇文章与用户兴趣的相似度
         Map<Integer, Double> articleScores = new HashMap<>();
-        for (Article article : candidates) {
+        for (ArticleSummaryVO article : candidates) {
             if (article.getTitle() == null) continue;
             
             double score = calculateSimilarity(userProfile, article.getTitle());
@@ -0,0 +1,262 @@
+package com.cq.RssHub.service.impl;
+
+import com.cq.RssHub.config.RetentionProperties;
+import com.cq.RssHub.mapper.ArticleFavoriteMapper;
+import com.cq.RssHub.mapper.ArticleMapper;
+import com.cq.RssHub.mapper.JobCheckpointMapper;
+import com.cq.RssHub.mapper.RssSourceMapper;
+import com.cq.RssHub.pojo.Article;
+import com.cq.RssHub.pojo.JobCheckpoint;
+import com.cq.RssHub.pojo.SettingsSnapshot;
+import com.cq.RssHub.pojo.vo.RetentionRunVO;
+import com.cq.RssHub.service.SystemSettingService;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * 过期文章清理任务
+ * 按system_setting表的cleanupInterval（小时）定期执行，删除发布时间超过maxArticleAge（天）且未加星标的文章。
+ * 按ID顺序分批删除，候选文章不加锁查询，每批在一个短事务中按主键锁定并重新检查过期条件，
+ * 再删除文章及其收藏记录，批次之间停顿，避免一条大DELETE或范围锁长时间阻塞写入
+ */
+@Service
+public class ArticleRetentionJob {
+    private static final Logger logger = LoggerFactory.getLogger(ArticleRetentionJob.class);
+
+    static final String JOB_NAME = "article_retention";
+
+    // 保留最近几次清理的结果
+    private static final int MAX_HISTORY = 10;
+    // 错误信息字段的最大长度
+    private static final int ERROR_MESSAGE_MAX_LENGTH = 500;
+
+    @Autowired
+    private ArticleMapper articleMapper;
+
+    @Autowired
+    private ArticleFavoriteMapper articleFavoriteMapper;
+
+    @Autowired
+    private RssSourceMapper rssSourceMapper;
+
+    @Autowired
+    private SystemSettingService systemSettingService;
+
+    @Autowired
+    private JobCheckpointMapper jobCheckpointMapper;
+
+    @Autowired
+    private RetentionProperties retentionProperties;
+
+    @Autowired
+    private ArticleCountService articleCountService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final Deque<RetentionRunVO> history = new ConcurrentLinkedDeque<>();
+
+    @PostConstruct
+    public void init() {
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * 定期检查是否到达清理间隔，到达时按保留天数清理
+     */
+    @Scheduled(initialDelayString = "${rss.retention.check-interval:10m}",
+            fixedDelayString = "${rss.retention.check-interval:10m}")
+    public void scheduledPurge() {
+        if (!Boolean.TRUE.equals(retentionProperties.getEnabled())) {
+            return;
+        }
+        try {
+            SettingsSnapshot settings = systemSettingService.getSnapshot();
+            int maxArticleAge = settings.getMaxArticleAge();
+            if (maxArticleAge <= 0) {
+                return;
+            }
+            int cleanupInterval = settings.getCleanupInterval();
+            LocalDateTime now = LocalDateTime.now();
+            JobCheckpoint last = jobCheckpointMapper.findByName(JOB_NAME);
+            // 上次清理成功且未到间隔时跳过；失败或中断的清理在下次检查时重试
+            if (last != null && "completed".equals(last.getStatus()) && last.getStartTime() != null
+                    && last.getStartTime().plusHours(cleanupInterval).isAfter(now)) {
+                return;
+            }
+            purge(now.minusDays(maxArticleAge));
+        } catch (Exception e) {
+            logger.warn("定时清理过期文章失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 分批删除发布时间早于截止时间且未加星标的文章及其收藏记录
+     * @param cutoffDate 截止时间
+     * @return 清理结果
+     * @throws IllegalStateException 已有清理在进行中
+     */
+    public RetentionRunVO purge(LocalDateTime cutoffDate) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("过期文章清理正在进行中");
+        }
+
+        RetentionRunVO run = new RetentionRunVO();
+        run.setStatus("running");
+        run.setCutoffDate(cutoffDate);
+        run.setArticlesDeleted(0);
+        run.setFavoritesDeleted(0);
+        run.setBatches(0);
+        run.setStartTime(LocalDateTime.now());
+        history.addFirst(run);
+        while (history.size() > MAX_HISTORY) {
+            history.pollLast();
+        }
+
+        JobCheckpoint checkpoint = new JobCheckpoint();
+        checkpoint.setJobName(JOB_NAME);
+        checkpoint.setStartTime(run.getStartTime());
+        long start = System.nanoTime();
+        try {
+            checkpoint.setStatus("running");
+            jobCheckpointMapper.save(checkpoint);
+
+            int batchSize = Math.max(1, retentionProperties.getBatchSize());
+            int afterId = 0;
+            while (true) {
+                int from = afterId;
+                BatchResult batch = transaction.execute(status -> deleteBatch(cutoffDate, from, batchSize));
+                if (batch == null || batch.selected == 0) {
+                    break;
+                }
+                run.setBatches(run.getBatches() + 1);
+                run.setArticlesDeleted(run.getArticlesDeleted() + batch.articlesDeleted);
+                run.setFavoritesDeleted(run.getFavoritesDeleted() + batch.favoritesDeleted);
+                afterId = batch.lastId;
+                if (batch.selected < batchSize || !pause()) {
+                    break;
+                }
+            }
+
+            run.setStatus("completed");
+            checkpoint.setLastId(afterId);
+        } catch (Exception e) {
+            logger.error("清理过期文章失败", e);
+            run.setStatus("failed");
+            run.setErrorMessage(truncate(e.getMessage()));
+        } finally {
+            // 已删除的批次已提交，失败时也要让缓存的总数失效
+            if (run.getArticlesDeleted() > 0) {
+                articleCountService.invalidateAll();
+            }
+            run.setEndTime(LocalDateTime.now());
+            run.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+            checkpoint.setStatus(run.getStatus());
+            checkpoint.setProcessed(run.getArticlesDeleted());
+            checkpoint.setUpdated(run.getFavoritesDeleted());
+            checkpoint.setErrorMessage(run.getErrorMessage());
+            try {
+                jobCheckpointMapper.save(checkpoint);
+            } catch (Exception e) {
+                logger.warn("保存过期文章清理记录失败: {}", e.getMessage());
+            }
+            running.set(false);
+        }
+
+        logger.info("清理过期文章{}：截止 {}，删除文章 {} 篇、收藏 {} 条，共 {} 批，耗时 {}ms",
+                "completed".equals(run.getStatus()) ? "完成" : "失败", cutoffDate, run.getArticlesDeleted(),
+                run.getFavoritesDeleted(), run.getBatches(), run.getElapsedMillis());
+        return run;
+    }
+
+    /**
+     * 最近几次清理的结果，从新到旧
+     */
+    public List<RetentionRunVO> getRecentRuns() {
+        return new ArrayList<>(history);
+    }
+
+    /**
+     * 在当前事务中删除一批过期文章及其收藏记录，并按实际删除的文章扣减RSS源的文章数
+     */
+    private BatchResult deleteBatch(LocalDateTime cutoffDate, int afterId, int batchSize) {
+        BatchResult result = new BatchResult();
+        List<Article> candidates = articleMapper.findExpired(cutoffDate, afterId, batchSize);
+        result.selected = candidates.size();
+        if (candidates.isEmpty()) {
+            return result;
+        }
+        result.lastId = candidates.get(candidates.size() - 1).getId();
+
+        // 查询后被加星标、修改发布时间或已删除的文章不再处理
+        List<Article> expired = articleMapper.lockExpiredByIds(
+                candidates.stream().map(Article::getId).toList(), cutoffDate);
+        if (expired.isEmpty()) {
+            return result;
+        }
+        List<Integer> ids = expired.stream().map(Article::getId).toList();
+        // 先删除依赖文章的收藏记录
+        result.favoritesDeleted = articleFavoriteMapper.deleteByArticleIds(ids);
+        result.articlesDeleted = articleMapper.deleteExpiredByIds(ids, cutoffDate);
+
+        // 锁定的行就是实际删除的行
+        Map<Integer, Long> deletedBySource = expired.stream()
+                .filter(article -> article.getSourceId() != null)
+                .collect(Collectors.groupingBy(Article::getSourceId, Collectors.counting()));
+        deletedBySource.forEach((sourceId, count) -> rssSourceMapper.incrementArticleCount(sourceId, -count.intValue()));
+        return result;
+    }
+
+    /**
+     * 批次之间停顿
+     * @return 是否继续，线程被中断时返回false
+     */
+    private boolean pause() {
+        long millis = retentionProperties.getBatchPause().toMillis();
+        if (millis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private String truncate(String message) {
+        if (message == null || message.length() <= ERROR_MESSAGE_MAX_LENGTH) {
+            return message;
+        }
+        return message.substring(0, ERROR_MESSAGE_MAX_LENGTH);
+    }
+
+    /**
+     * 一批删除的结果
+     */
+    private static class BatchResult {
+        private int selected;
+        private int lastId;
+        private int articlesDeleted;
+        private int favoritesDeleted;
+    }
+}
@@ -1,26 +1,54 @@
 package com.cq.RssHub.service.impl;
 
+import com.cq.RssHub.mapper.ArticleFavoriteMapper;
 import com.cq.RssHub.mapper.ArticleMapper;
+import com.cq.RssHub.mapper.RssSourceMapper;
 import com.cq.RssHub.pojo.Article;
+import com.cq.RssHub.pojo.vo.ArticleSummaryVO;
+import com.cq.RssHub.pojo.vo.CursorPageArticleVO;
 import com.cq.RssHub.pojo.vo.PageArticleVO;
 import com.cq.RssHub.service.ArticleService;
-import com.github.pagehelper.Page;
+import com.cq.RssHub.utils.FullTextQueryUtil;
+import com.cq.RssHub.utils.HashUtil;
 import com.github.pagehelper.PageHelper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 public class ArticleServiceImpl implements ArticleService {
+    // 全文检索最多返回的文章ID数
+    private static final int MAX_SEARCH_RESULTS = 1000;
+    // 游标分页每页最多返回的文章数
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
 
     @Autowired
     private ArticleMapper articleMapper;
 
+    @Autowired
+    private ArticleFavoriteMapper articleFavoriteMapper;
+
+    @Autowired
+    private ArticleBatchWriter articleBatchWriter;
+
+    @Autowired
+    private ArticleRetentionJob articleRetentionJob;
+
+    @Autowired
+    private ArticleCountService articleCountService;
+
+    @Autowired
+    private RssSourceMapper rssSourceMapper;
+
     @Override
     public PageArticleVO getArticles(String keyword, Integer sourceId, Integer categoryId, 
                                     LocalDateTime startDate, LocalDateTime endDate, 
@@ -32,12 +60,11 @@ public class ArticleServiceImpl implements ArticleService {
             pageSize = 10;
         }
         
-        // 使用PageHelper进行分页
-        PageHelper.startPage(page, pageSize);
-        List<Article> articles = articleMapper.findByFilters(keyword, sourceId, categoryId, startDate, endDate, null, null);
-        
-        // 获取分页信息
-        long total = ((Page<Article>) articles).getTotal();
+        // 使用PageHelper进行分页，总数由计数服务提供，不再每页执行COUNT
+        PageHelper.startPage(page, pageSize, false);
+        String query = FullTextQueryUtil.toBooleanQuery(keyword);
+        List<ArticleSummaryVO> articles = articleMapper.findByFilters(query, sourceId, categoryId, startDate, endDate, null, null);
+        long total = articleCountService.count(query, sourceId, categoryId, startDate, endDate);
         
         // 构建并返回PageArticleVO
         return new PageArticleVO(total, articles);
@@ -46,7 +73,48 @@ public class ArticleServiceImpl implements ArticleService {
     @Override
     public int getArticlesCount(String keyword, Integer sourceId, Integer categoryId, 
                                LocalDateTime startDate, LocalDateTime endDate) {
-        return articleMapper.countByFilters(keyword, sourceId, categoryId, startDate, endDate);
+        long count = articleCountService.count(FullTextQueryUtil.toBooleanQuery(keyword), sourceId, categoryId, startDate, endDate);
+        return (int) Math.min(count, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public CursorPageArticleVO getArticlesByCursor(String cursor, Integer sourceId, Integer categoryId,
+                                                   LocalDateTime startDate, LocalDateTime endDate, Integer limit) {
+        if (limit == null || limit < 1) {
+            limit = 10;
+        }
+        limit = Math.min(limit, MAX_CURSOR_PAGE_SIZE);
+
+        LocalDateTime afterDate = null;
+        Integer afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            Article position = decodeCursor(cursor);
+            afterDate = position.getPublishDate();
+            afterId = position.getId();
+        }
+
+        // 多取一篇判断是否还有下一页
+        List<ArticleSummaryVO> articles = articleMapper.findPageAfter(afterDate, afterId, sourceId, categoryId, startDate, endDate, limit + 1);
+        String nextCursor = null;
+        if (articles.size() > limit) {
+            articles = articles.subList(0, limit);
+            ArticleSummaryVO last = articles.get(limit - 1);
+            nextCursor = encodeCursor(last.getPublishDate(), last.getId());
+        }
+        return new CursorPageArticleVO(articles, nextCursor);
+    }
+
+    @Override
+    public List<Integer> searchArticleIds(String keyword, Integer sourceId, Integer categoryId,
+                                          LocalDateTime startDate, LocalDateTime endDate, Integer limit) {
+        String query = FullTextQueryUtil.toBooleanQuery(keyword);
+        if (query == null) {
+            return Collections.emptyList();
+        }
+        if (limit == null || limit < 1) {
+            limit = 100;
+        }
+        return articleMapper.searchIds(query, sourceId, categoryId, startDate, endDate, Math.min(limit, MAX_SEARCH_RESULTS));
     }
 
     @Override
@@ -55,7 +123,7 @@ public class ArticleServiceImpl implements ArticleService {
     }
 
     @Override
-    public List<Article> getLatestArticles(Integer limit) {
+    public List<ArticleSummaryVO> getLatestArticles(Integer limit) {
         if (limit == null || limit < 1) {
             limit = 10;
         }
@@ -81,10 +149,19 @@ public class ArticleServiceImpl implements ArticleService {
         }
         
         LocalDateTime now = LocalDateTime.now();
+        // 游标分页按发布时间排序，发布时间不能为空
+        if (article.getPublishDate() == null) {
+            article.setPublishDate(now);
+        }
         article.setCreateTime(now);
         article.setUpdateTime(now);
+        article.setLinkHash(HashUtil.sha256Hex(article.getLink()));
         
         articleMapper.insert(article);
+        if (article.getSourceId() != null) {
+            rssSourceMapper.incrementArticleCount(article.getSourceId(), 1);
+        }
+        articleCountService.invalidate(article.getSourceId(), null);
         return article;
     }
 
@@ -107,8 +184,7 @@ public class ArticleServiceImpl implements ArticleService {
             return false;
         }
         
-        articleMapper.deleteById(id);
-        return true;
+        return deleteArticles(List.of(id));
     }
 
     @Override
@@ -118,7 +194,21 @@ public class ArticleServiceImpl implements ArticleService {
             return false;
         }
         
-        articleMapper.deleteByIds(ids);
+        // 锁定要删除的文章，删除后按RSS源扣减文章数
+        List<Article> articles = articleMapper.findSourceIds(ids);
+        if (articles.isEmpty()) {
+            return true;
+        }
+        List<Integer> found = articles.stream().map(Article::getId).toList();
+        // 先删除依赖文章的收藏记录
+        articleFavoriteMapper.deleteByArticleIds(found);
+        articleMapper.deleteByIds(found);
+
+        Map<Integer, Long> deletedBySource = articles.stream()
+                .filter(article -> article.getSourceId() != null)
+                .collect(Collectors.groupingBy(Article::getSourceId, Collectors.counting()));
+        deletedBySource.forEach((sourceId, count) -> rssSourceMapper.incrementArticleCount(sourceId, -count.intValue()));
+        articleCountService.invalidateAll();
         return true;
     }
 
@@ -140,13 +230,13 @@ public class ArticleServiceImpl implements ArticleService {
     }
 
     @Override
-    @Transactional
     public int deleteExpiredArticles(LocalDateTime cutoffDate) {
         if (cutoffDate == null) {
             return 0;
         }
         
-        return articleMapper.deleteOlderThan(cutoffDate);
+        // 分批删除，每批一个短事务
+        return articleRetentionJob.purge(cutoffDate).getArticlesDeleted();
     }
 
     @Override
@@ -156,43 +246,64 @@ public class ArticleServiceImpl implements ArticleService {
             return Collections.emptyList();
         }
         
-        // 提取所有链接
-        List<String> links = new ArrayList<>();
-        for (Article article : articles) {
-            links.add(article.getLink());
-        }
-        
-        // 查找已存在的链接
-        List<String> existingLinks = articleMapper.findExistingLinks(links);
-        
         // 过滤掉已存在的文章
-        List<Article> newArticles = new ArrayList<>();
-        for (Article article : articles) {
-            if (!existingLinks.contains(article.getLink())) {
-                // 设置初始值
-                if (article.getIsRead() == null) {
-                    article.setIsRead(false);
-                }
-                if (article.getIsStarred() == null) {
-                    article.setIsStarred(false);
-                }
-                if (article.getReadCount() == null) {
-                    article.setReadCount(0);
-                }
-                
-                LocalDateTime now = LocalDateTime.now();
-                article.setCreateTime(now);
-                article.setUpdateTime(now);
-                
-                newArticles.add(article);
+        List<Article> newArticles = articleBatchWriter.filterNew(articles);
+        for (Article article : newArticles) {
+            // 设置初始值
+            if (article.getIsRead() == null) {
+                article.setIsRead(false);
+            }
+            if (article.getIsStarred() == null) {
+                article.setIsStarred(false);
+            }
+            if (article.getReadCount() == null) {
+                article.setReadCount(0);
             }
+            
+            LocalDateTime now = LocalDateTime.now();
+            article.setCreateTime(now);
+            article.setUpdateTime(now);
         }
         
-        // 批量插入新文章
-        if (!newArticles.isEmpty()) {
-            articleMapper.batchInsert(newArticles);
-        }
+        // 按RSS源分批插入新文章，按各源实际插入的行数累加文章数（source_id非空，没有RSS源的文章无法入库）
+        Map<Integer, List<Article>> bySource = newArticles.stream()
+                .filter(article -> article.getSourceId() != null)
+                .collect(Collectors.groupingBy(Article::getSourceId));
+        bySource.forEach((sourceId, sourceArticles) -> {
+            int inserted = articleBatchWriter.write(sourceArticles);
+            if (inserted > 0) {
+                rssSourceMapper.incrementArticleCount(sourceId, inserted);
+                articleCountService.invalidate(sourceId, null);
+            }
+        });
         
         return newArticles;
     }
+
+    /**
+     * 游标内容为"发布时间|文章ID"，Base64编码后对调用方不透明
+     */
+    private static String encodeCursor(LocalDateTime publishDate, Integer id) {
+        String position = publishDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标，返回只包含发布时间和ID的文章
+     */
+    private static Article decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = position.split("\\|");
+            if (parts.length == 2) {
+                Article article = new Article();
+                article.setPublishDate(LocalDateTime.parse(parts[0]));
+                article.setId(Integer.valueOf(parts[1]));
+                return article;
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            // 按无效游标处理
+        }
+        throw new IllegalArgumentException("无效的分页游标");
+    }
 }
@@ -0,0 +1,96 @@
+package com.cq.RssHub.service.impl;
+
+import com.cq.RssHub.pojo.vo.ExecutorMetricsVO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 隔离的有界线程池
+ * 线程数和等待队列都有上限，队列满时直接抛出RejectedExecutionException由调用方处理，
+ * 不会无限堆积任务，也不会让提交任务的线程代为执行
+ */
+public class Bulkhead implements Executor {
+    private static final Logger logger = LoggerFactory.getLogger(Bulkhead.class);
+
+    private final String name;
+    private final int queueCapacity;
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    public Bulkhead(String name, int threads, int queueCapacity) {
+        this.name = name;
+        this.queueCapacity = Math.max(1, queueCapacity);
+        int poolSize = Math.max(1, threads);
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(this.queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, pool) -> {
+                    rejectedCount.incrementAndGet();
+                    throw new RejectedExecutionException(name + "线程池已满");
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * 提交任务，线程和队列都已占满时抛出RejectedExecutionException
+     */
+    @Override
+    public void execute(Runnable command) {
+        executor.execute(command);
+    }
+
+    /**
+     * 停止接收新任务，等待已提交的任务完成，超时后中断剩余任务
+     */
+    public void shutdown(Duration timeout) {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                logger.warn("{}线程池未在{}秒内结束，中断剩余 {} 个任务",
+                        name, timeout.getSeconds(), executor.getQueue().size() + executor.getActiveCount());
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /**
+     * 线程池当前的运行指标
+     */
+    public ExecutorMetricsVO getMetrics() {
+        ExecutorMetricsVO vo = new ExecutorMetricsVO();
+        vo.setName(name);
+        vo.setActiveThreads(executor.getActiveCount());
+        vo.setPoolSize(executor.getPoolSize());
+        vo.setMaxPoolSize(executor.getMaximumPoolSize());
+        vo.setQueueDepth(executor.getQueue().size());
+        vo.setQueueCapacity(queueCapacity);
+        vo.setCompletedTasks(executor.getCompletedTaskCount());
+        vo.setRejectedTasks(rejectedCount.get());
+        return vo;
+    }
+}
@@ -0,0 +1,134 @@
+package com.cq.RssHub.service.impl;
+
+import lombok.Data;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.safety.Cleaner;
+import org.jsoup.safety.Safelist;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * 文章内容分析器
+ * 对一段HTML只解析一次，同时得到清理后的摘要、纯文本和作者信息，
+ * 封面图由CoverImageExtractor直接扫描原始HTML得到
+ */
+@Component
+public class ContentAnalyzer {
+    // 摘要最大长度
+    private static final int SUMMARY_MAX_LENGTH = 500;
+
+    // 常见的作者标记class或meta
+    private static final String[] AUTHOR_SELECTORS = {
+        "span.author", ".byline", ".author", "meta[name=author]", ".meta-author",
+        "[rel=author]", ".ArticleAuthor", ".article-author", ".entry-author"
+    };
+    private static final String[] AUTHOR_PATTERNS = {
+        "By ", "by ", "作者：", "作者:", "記者", "撰文", "Author: ", "Written by "
+    };
+
+    // Cleaner不会修改传入的文档，可以在线程间共享
+    private static final Cleaner CLEANER = new Cleaner(Safelist.basic());
+
+    @Autowired
+    private CoverImageExtractor coverImageExtractor;
+
+    /**
+     * 分析一段HTML内容
+     * @param html HTML内容
+     * @param extractCover 是否需要提取封面图
+     * @param extractAuthor 是否需要从内容中提取作者
+     * @return 分析结果，html为null时各项均为空
+     */
+    public Result analyze(String html, boolean extractCover, boolean extractAuthor) {
+        Result result = new Result();
+        if (html == null) {
+            result.setSummary("");
+            result.setText("");
+            return result;
+        }
+
+        // 封面图通过字符扫描提取，不依赖解析结果
+        if (extractCover) {
+            result.setCoverImage(coverImageExtractor.extract(html));
+        }
+
+        Document doc = Jsoup.parseBodyFragment(html);
+
+        String summary = CLEANER.clean(doc).body().html();
+        if (summary.length() > SUMMARY_MAX_LENGTH) {
+            summary = summary.substring(0, SUMMARY_MAX_LENGTH - 3) + "...";
+        }
+        result.setSummary(summary);
+
+        String text = doc.text();
+        result.setText(text);
+
+        if (extractAuthor) {
+            result.setAuthor(extractAuthor(doc, text));
+        }
+        return result;
+    }
+
+    /**
+     * 从HTML内容中提取第一张图片的URL
+     */
+    public String extractCoverImage(String html) {
+        return coverImageExtractor.extract(html);
+    }
+
+    /**
+     * 从HTML内容中提取作者信息
+     */
+    public String extractAuthor(String html) {
+        if (html == null || html.isEmpty()) {
+            return null;
+        }
+        Document doc = Jsoup.parseBodyFragment(html);
+        return extractAuthor(doc, doc.text());
+    }
+
+    /**
+     * 查找常见的作者标记，如"By Author Name"，"作者：XXX"等
+     */
+    private String extractAuthor(Document doc, String text) {
+        for (String selector : AUTHOR_SELECTORS) {
+            Element element = doc.selectFirst(selector);
+            if (element != null) {
+                return element.text().trim();
+            }
+        }
+
+        for (String pattern : AUTHOR_PATTERNS) {
+            int index = text.indexOf(pattern);
+            if (index >= 0) {
+                String afterPattern = text.substring(index + pattern.length());
+                // 取到下一个句号或逗号为止
+                int dot = afterPattern.indexOf('.');
+                int comma = afterPattern.indexOf(',');
+                int endIndex = Math.min(dot != -1 ? dot : Integer.MAX_VALUE, comma != -1 ? comma : Integer.MAX_VALUE);
+                if (endIndex == Integer.MAX_VALUE) {
+                    endIndex = Math.min(50, afterPattern.length()); // 最多取50个字符
+                }
+                return afterPattern.substring(0, endIndex).trim();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 内容分析结果
+     */
+    @Data
+    public static class Result {
+        // 封面图，未找到时为null
+        private String coverImage;
+        // 清理后的HTML摘要
+        private String summary;
+        // 纯文本内容
+        private String text;
+        // 从内容中识别出的作者，未找到时为null
+        private String author;
+    }
+}
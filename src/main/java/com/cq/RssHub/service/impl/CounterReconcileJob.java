@@ -0,0 +1,72 @@
+package com.cq.RssHub.service.impl;
+
+import com.cq.RssHub.mapper.CategoryMapper;
+import com.cq.RssHub.mapper.RssSourceMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 计数对账任务
+ * RSS源和分类上的文章数、RSS源数都是随写入增量维护的，进程在写入和计数之间崩溃、
+ * 直接修改数据库或并发更新RSS源分类时可能出现偏差。每天按文章表修正有偏差的RSS源，
+ * 再按RSS源重新汇总分类计数
+ */
+@Service
+public class CounterReconcileJob {
+    private static final Logger logger = LoggerFactory.getLogger(CounterReconcileJob.class);
+
+    @Autowired
+    private RssSourceMapper rssSourceMapper;
+
+    @Autowired
+    private CategoryMapper categoryMapper;
+
+    @Autowired
+    private ArticleCountService articleCountService;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Scheduled(cron = "${rss.count.reconcile-cron:0 15 4 * * ?}")
+    public void scheduledReconcile() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            logger.warn("计数对账失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 执行一次对账，已有对账在执行时直接返回
+     * @return 修正了文章数的RSS源个数
+     */
+    public int reconcile() {
+        if (!running.compareAndSet(false, true)) {
+            logger.info("计数对账正在执行，跳过本次");
+            return 0;
+        }
+        try {
+            // 每个源单独一条语句修正，不长时间锁定文章表
+            List<Integer> drifted = rssSourceMapper.findDriftedArticleCounts();
+            for (Integer sourceId : drifted) {
+                rssSourceMapper.recountArticles(sourceId);
+            }
+            categoryMapper.recountAll();
+
+            if (!drifted.isEmpty()) {
+                articleCountService.invalidateAll();
+                logger.info("计数对账完成，修正了 {} 个RSS源的文章数: {}", drifted.size(), drifted);
+            } else {
+                logger.info("计数对账完成，RSS源文章数无偏差");
+            }
+            return drifted.size();
+        } finally {
+            running.set(false);
+        }
+    }
+}
@@ -0,0 +1,389 @@
+package com.cq.RssHub.service.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 封面图提取器
+ * 对HTML只做一次字符扫描，只读取img、meta标签和style属性，不构建DOM。
+ * 选图规则与原先基于Jsoup的实现一致：
+ * 1. 第一个带src的img不是小图标时直接使用
+ * 2. 第一个background-image
+ * 3. 宽高最大的图片
+ * 4. 第一个非小图标的图片（支持srcset）
+ * 5. Open Graph、Twitter Card和文章图片meta标签
+ */
+@Component
+public class CoverImageExtractor {
+    private static final Logger logger = LoggerFactory.getLogger(CoverImageExtractor.class);
+
+    private static final Pattern BACKGROUND_PATTERN = Pattern.compile(
+            "background-image\\s*:\\s*url\\(['\"]?([^'\"\\)]+)['\"]?\\)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern STYLE_WIDTH_PATTERN = Pattern.compile("width:\\s*(\\d+)px");
+    private static final Pattern STYLE_HEIGHT_PATTERN = Pattern.compile("height:\\s*(\\d+)px");
+
+    // 明显的图标和1x1像素图文件名，均以.gif结尾
+    private static final String[] ICON_NAMES = {"1x1", "spacer", "blank", "pixel"};
+
+    private static final int TAG_OTHER = 0;
+    private static final int TAG_IMG = 1;
+    private static final int TAG_META = 2;
+
+    /**
+     * 从HTML内容中提取封面图
+     * @param html HTML内容
+     * @return 封面图URL，未找到时返回null
+     */
+    public String extract(String html) {
+        if (html == null || html.isEmpty()) {
+            return null;
+        }
+
+        Scan scan = new Scan();
+        Tag tag = new Tag();
+        int len = html.length();
+        int i = html.indexOf('<');
+        while (i >= 0 && i < len - 1) {
+            // 跳过注释
+            if (html.startsWith("!--", i + 1)) {
+                int end = html.indexOf("-->", i + 4);
+                if (end < 0) {
+                    break;
+                }
+                i = html.indexOf('<', end + 3);
+                continue;
+            }
+
+            int nameStart = i + 1;
+            int p = nameStart;
+            while (p < len && Character.isLetterOrDigit(html.charAt(p))) {
+                p++;
+            }
+            if (p == nameStart) {
+                // 结束标签或普通文本中的'<'
+                i = html.indexOf('<', nameStart);
+                continue;
+            }
+
+            tag.reset(tagType(html, nameStart, p - nameStart));
+            p = readAttributes(html, p, tag);
+
+            String found = scan.accept(tag);
+            if (found != null) {
+                logger.debug("找到图片URL: {}", found);
+                return found;
+            }
+            i = p < len ? html.indexOf('<', p) : -1;
+        }
+        return scan.resolve();
+    }
+
+    /**
+     * 判断是否是小图标
+     * 宽松条件：只过滤明显的图标和1x1像素图
+     */
+    public boolean isSmallIcon(String imgUrl) {
+        if (imgUrl == null) return true;
+
+        int gif = imgUrl.indexOf(".gif");
+        while (gif >= 0) {
+            for (String name : ICON_NAMES) {
+                int start = gif - name.length();
+                if (start >= 0 && imgUrl.startsWith(name, start)) {
+                    return true;
+                }
+            }
+            gif = imgUrl.indexOf(".gif", gif + 4);
+        }
+        return false;
+    }
+
+    /**
+     * 标准化图片URL
+     */
+    public String normalizeImageUrl(String imgUrl) {
+        if (imgUrl == null) {
+            return null;
+        }
+
+        // 去除URL前后空白
+        imgUrl = imgUrl.trim();
+        if (imgUrl.isEmpty()) {
+            return null;
+        }
+
+        // 处理相对URL
+        if (imgUrl.startsWith("//")) {
+            return "https:" + imgUrl;
+        } else if (imgUrl.charAt(0) == '/') {
+            // 相对路径需要域名，此处返回null后可由调用者处理
+            return null;
+        }
+
+        // 检查URL是否有效，无效时尝试添加https前缀
+        if (!imgUrl.startsWith("http://") && !imgUrl.startsWith("https://") && !imgUrl.startsWith("data:")) {
+            imgUrl = "https://" + imgUrl;
+        }
+
+        // 移除图片URL中的转义字符
+        return imgUrl.indexOf('&') >= 0 ? imgUrl.replace("&amp;", "&") : imgUrl;
+    }
+
+    private int tagType(String html, int start, int length) {
+        if (length == 3 && html.regionMatches(true, start, "img", 0, 3)) {
+            return TAG_IMG;
+        }
+        if (length == 4 && html.regionMatches(true, start, "meta", 0, 4)) {
+            return TAG_META;
+        }
+        return TAG_OTHER;
+    }
+
+    /**
+     * 读取标签属性，只截取需要的属性值
+     * @return 标签结束后的位置
+     */
+    private int readAttributes(String html, int p, Tag tag) {
+        int len = html.length();
+        while (p < len) {
+            char c = html.charAt(p);
+            if (c == '>') {
+                return p + 1;
+            }
+            if (Character.isWhitespace(c) || c == '/') {
+                p++;
+                continue;
+            }
+
+            int nameStart = p;
+            while (p < len) {
+                c = html.charAt(p);
+                if (Character.isWhitespace(c) || c == '=' || c == '>' || c == '/') {
+                    break;
+                }
+                p++;
+            }
+            int nameEnd = p;
+            while (p < len && Character.isWhitespace(html.charAt(p))) {
+                p++;
+            }
+            if (p >= len || html.charAt(p) != '=') {
+                continue;
+            }
+            p++;
+            while (p < len && Character.isWhitespace(html.charAt(p))) {
+                p++;
+            }
+            if (p >= len) {
+                break;
+            }
+
+            int valueStart;
+            int valueEnd;
+            char quote = html.charAt(p);
+            if (quote == '"' || quote == '\'') {
+                valueStart = p + 1;
+                valueEnd = html.indexOf(quote, valueStart);
+                if (valueEnd < 0) {
+                    valueEnd = len;
+                }
+                p = valueEnd + 1;
+            } else {
+                valueStart = p;
+                while (p < len && !Character.isWhitespace(html.charAt(p)) && html.charAt(p) != '>') {
+                    p++;
+                }
+                valueEnd = p;
+            }
+            tag.setAttribute(html, nameStart, nameEnd - nameStart, valueStart, valueEnd);
+        }
+        return len;
+    }
+
+    private static boolean nameIs(String html, int start, int length, String name) {
+        return length == name.length() && html.regionMatches(true, start, name, 0, length);
+    }
+
+    /**
+     * 解析宽高属性，只保留其中的数字
+     */
+    private static int parseDimension(String value) {
+        if (value == null) {
+            return 0;
+        }
+        long result = 0;
+        boolean hasDigit = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                result = result * 10 + (c - '0');
+                hasDigit = true;
+                if (result > Integer.MAX_VALUE) {
+                    // 忽略无法解析的数值
+                    return 0;
+                }
+            }
+        }
+        return hasDigit ? (int) result : 0;
+    }
+
+    /**
+     * 当前标签中需要的属性，扫描时复用同一个实例
+     */
+    private static class Tag {
+        int type;
+        String src;
+        String srcset;
+        String width;
+        String height;
+        String style;
+        String property;
+        String name;
+        String content;
+
+        void reset(int type) {
+            this.type = type;
+            src = srcset = width = height = style = property = name = content = null;
+        }
+
+        void setAttribute(String html, int nameStart, int nameLength, int valueStart, int valueEnd) {
+            if (nameIs(html, nameStart, nameLength, "style")) {
+                style = html.substring(valueStart, valueEnd);
+            } else if (type == TAG_IMG) {
+                if (nameIs(html, nameStart, nameLength, "src")) {
+                    src = html.substring(valueStart, valueEnd).trim();
+                } else if (nameIs(html, nameStart, nameLength, "srcset")) {
+                    srcset = html.substring(valueStart, valueEnd).trim();
+                } else if (nameIs(html, nameStart, nameLength, "width")) {
+                    width = html.substring(valueStart, valueEnd);
+                } else if (nameIs(html, nameStart, nameLength, "height")) {
+                    height = html.substring(valueStart, valueEnd);
+                }
+            } else if (type == TAG_META) {
+                if (nameIs(html, nameStart, nameLength, "property")) {
+                    property = html.substring(valueStart, valueEnd);
+                } else if (nameIs(html, nameStart, nameLength, "name")) {
+                    name = html.substring(valueStart, valueEnd);
+                } else if (nameIs(html, nameStart, nameLength, "content")) {
+                    content = html.substring(valueStart, valueEnd);
+                }
+            }
+        }
+    }
+
+    /**
+     * 扫描过程中收集到的候选图片
+     */
+    private class Scan {
+        boolean firstImgSeen;
+        String background;
+        String largest;
+        long largestSize;
+        String firstNonIcon;
+        String ogImage;
+        String twitterImage;
+        String articleImage;
+
+        /**
+         * 处理一个标签，能直接确定封面图时返回结果
+         */
+        String accept(Tag tag) {
+            if (tag.style != null && background == null) {
+                Matcher matcher = BACKGROUND_PATTERN.matcher(tag.style);
+                if (matcher.find()) {
+                    background = matcher.group(1).trim();
+                }
+            }
+
+            if (tag.type == TAG_IMG) {
+                return acceptImage(tag);
+            }
+            if (tag.type == TAG_META && tag.content != null && !tag.content.isEmpty()) {
+                if (ogImage == null && "og:image".equalsIgnoreCase(tag.property)) {
+                    ogImage = tag.content;
+                } else if (twitterImage == null && "twitter:image".equalsIgnoreCase(tag.name)) {
+                    twitterImage = tag.content;
+                } else if (articleImage == null && ("article:image".equalsIgnoreCase(tag.property)
+                        || "thumbnail".equalsIgnoreCase(tag.name))) {
+                    articleImage = tag.content;
+                }
+            }
+            return null;
+        }
+
+        private String acceptImage(Tag tag) {
+            String src = tag.src;
+            boolean hasSrc = src != null && !src.isEmpty();
+
+            if (hasSrc) {
+                boolean icon = isSmallIcon(src);
+                // 第一个带src的图片不是小图标时直接作为封面
+                if (!firstImgSeen) {
+                    firstImgSeen = true;
+                    if (!icon) {
+                        return src;
+                    }
+                }
+
+                // 记录宽高最大的图片，属性中没有尺寸时检查样式
+                long size = (long) parseDimension(tag.width) * parseDimension(tag.height);
+                if (size == 0 && tag.style != null
+                        && (tag.style.contains("width") || tag.style.contains("height"))) {
+                    Matcher widthMatcher = STYLE_WIDTH_PATTERN.matcher(tag.style);
+                    Matcher heightMatcher = STYLE_HEIGHT_PATTERN.matcher(tag.style);
+                    int imgWidth = widthMatcher.find() ? parseDimension(widthMatcher.group(1)) : 0;
+                    int imgHeight = heightMatcher.find() ? parseDimension(heightMatcher.group(1)) : 0;
+                    size = (long) imgWidth * imgHeight;
+                }
+                if (size > largestSize && !icon) {
+                    largestSize = size;
+                    largest = src;
+                }
+            }
+
+            if (firstNonIcon == null) {
+                String candidate = src;
+                if (!hasSrc && tag.srcset != null && !tag.srcset.isEmpty()) {
+                    // 从srcset中提取第一个URL (格式通常是"url 1x, url 2x")
+                    int end = 0;
+                    while (end < tag.srcset.length() && !Character.isWhitespace(tag.srcset.charAt(end))) {
+                        end++;
+                    }
+                    candidate = tag.srcset.substring(0, end);
+                }
+                if (candidate != null && !candidate.isEmpty() && !isSmallIcon(candidate)) {
+                    firstNonIcon = candidate;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * 扫描结束后按优先级选出封面图
+         */
+        String resolve() {
+            if (background != null && !background.isEmpty()) {
+                logger.debug("找到背景图片URL: {}", background);
+                return background;
+            }
+            if (largest != null) {
+                logger.debug("找到最大尺寸图片: {}，尺寸: {}", largest, largestSize);
+                return normalizeImageUrl(largest);
+            }
+            if (firstNonIcon != null) {
+                logger.debug("找到非小图标图片: {}", firstNonIcon);
+                return normalizeImageUrl(firstNonIcon);
+            }
+            String metaImage = ogImage != null ? ogImage : twitterImage != null ? twitterImage : articleImage;
+            if (metaImage != null) {
+                logger.debug("找到meta标签图片: {}", metaImage);
+                return normalizeImageUrl(metaImage);
+            }
+            return null;
+        }
+    }
+}
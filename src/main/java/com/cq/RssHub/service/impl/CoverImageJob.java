@@ -0,0 +1,308 @@
+package com.cq.RssHub.service.impl;
+
+import com.cq.RssHub.mapper.ArticleMapper;
+import com.cq.RssHub.mapper.JobCheckpointMapper;
+import com.cq.RssHub.pojo.Article;
+import com.cq.RssHub.pojo.JobCheckpoint;
+import com.cq.RssHub.pojo.vo.CoverImageJobVO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.ibatis.cursor.Cursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 封面图重新提取任务
+ * 按ID顺序分段用游标流式读取文章，每段只在一个短的只读事务中读取，
+ * 封面图提取在多个线程中并行执行，更新按小批次各自提交。
+ * 进度保存在job_checkpoint表，任务停止、应用重启或失败后从上次处理到的ID继续
+ */
+@Service
+public class CoverImageJob {
+    private static final Logger logger = LoggerFactory.getLogger(CoverImageJob.class);
+
+    static final String JOB_NAME = "cover_image";
+
+    // 每段最多读取的文章数，同时决定内存中最多保留的文章内容数
+    private static final int CHUNK_SIZE = 500;
+    // 每个更新事务的文章数
+    private static final int UPDATE_BATCH_SIZE = 100;
+    // 错误信息字段的最大长度
+    private static final int ERROR_MESSAGE_MAX_LENGTH = 500;
+
+    @Autowired
+    private ArticleMapper articleMapper;
+
+    @Autowired
+    private JobCheckpointMapper jobCheckpointMapper;
+
+    @Autowired
+    private RssParserService rssParserService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readTransaction;
+    private TransactionTemplate writeTransaction;
+
+    // 正在运行的任务最近一次保存的进度，没有运行时为null
+    private final AtomicReference<JobCheckpoint> running = new AtomicReference<>();
+    private volatile boolean stopRequested;
+    private volatile long runStartNanos;
+    private volatile int runStartProcessed;
+
+    @PostConstruct
+    public void init() {
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+        writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * 应用关闭时请求停止，当前段处理完后保存为paused，下次启动时继续
+     */
+    @PreDestroy
+    public void shutdown() {
+        stopRequested = true;
+    }
+
+    /**
+     * 在后台启动任务，处理所有没有封面图的文章
+     * 上次任务未完成时从上次处理到的ID继续；已在运行时直接返回当前进度
+     * @param restart 是否忽略上次的进度从头开始
+     * @return 任务进度
+     */
+    public synchronized CoverImageJobVO start(boolean restart) {
+        JobCheckpoint current = running.get();
+        if (current != null) {
+            return toVO(current);
+        }
+
+        JobCheckpoint checkpoint = jobCheckpointMapper.findByName(JOB_NAME);
+        if (restart || checkpoint == null || "completed".equals(checkpoint.getStatus())) {
+            checkpoint = new JobCheckpoint();
+            checkpoint.setJobName(JOB_NAME);
+            checkpoint.setEndId(articleMapper.findMaxId());
+            checkpoint.setStartTime(LocalDateTime.now());
+        }
+        checkpoint.setStatus("running");
+        checkpoint.setErrorMessage(null);
+        jobCheckpointMapper.save(checkpoint);
+
+        stopRequested = false;
+        runStartNanos = System.nanoTime();
+        runStartProcessed = checkpoint.getProcessed();
+        running.set(copy(checkpoint));
+        logger.info("封面图重新提取任务开始，从文章ID {} 处理到 {}", checkpoint.getLastId(), checkpoint.getEndId());
+
+        JobCheckpoint state = checkpoint;
+        Thread.ofPlatform().name("cover-image-job").daemon().start(() -> run(state));
+        return toVO(checkpoint);
+    }
+
+    /**
+     * 请求停止任务，当前段处理完后停止，进度保留
+     * @return 任务进度
+     */
+    public CoverImageJobVO stop() {
+        stopRequested = true;
+        return getProgress();
+    }
+
+    /**
+     * 查询任务进度
+     */
+    public CoverImageJobVO getProgress() {
+        JobCheckpoint current = running.get();
+        if (current != null) {
+            return toVO(current);
+        }
+        JobCheckpoint checkpoint = jobCheckpointMapper.findByName(JOB_NAME);
+        if (checkpoint == null) {
+            CoverImageJobVO vo = new CoverImageJobVO();
+            vo.setStatus("idle");
+            return vo;
+        }
+        return toVO(checkpoint);
+    }
+
+    /**
+     * 同步重新提取一个RSS源所有文章的封面图，不记录进度
+     * @param sourceId RSS源ID
+     * @return 更新的文章数
+     * @throws Exception 读取或更新失败
+     */
+    public int reprocessSource(Integer sourceId) throws Exception {
+        int maxId = articleMapper.findMaxId();
+        int updated = 0;
+        try (ExecutorService extractors = newExtractors()) {
+            int afterId = 0;
+            while (afterId < maxId) {
+                Chunk chunk = processChunk(afterId, maxId, sourceId, false, extractors);
+                updated += chunk.updated;
+                afterId = chunk.exhausted ? maxId : chunk.lastId;
+            }
+        }
+        return updated;
+    }
+
+    private void run(JobCheckpoint checkpoint) {
+        try (ExecutorService extractors = newExtractors()) {
+            while (checkpoint.getLastId() < checkpoint.getEndId()) {
+                if (stopRequested) {
+                    checkpoint.setStatus("paused");
+                    publish(checkpoint);
+                    logger.info("封面图重新提取任务已停止，处理到文章ID {}", checkpoint.getLastId());
+                    return;
+                }
+                Chunk chunk = processChunk(checkpoint.getLastId(), checkpoint.getEndId(), null, true, extractors);
+                checkpoint.setLastId(chunk.exhausted ? checkpoint.getEndId() : chunk.lastId);
+                checkpoint.setProcessed(checkpoint.getProcessed() + chunk.scanned);
+                checkpoint.setUpdated(checkpoint.getUpdated() + chunk.updated);
+                publish(checkpoint);
+            }
+            checkpoint.setStatus("completed");
+            publish(checkpoint);
+            logger.info("封面图重新提取任务完成，扫描 {} 篇，更新 {} 篇", checkpoint.getProcessed(), checkpoint.getUpdated());
+        } catch (Exception e) {
+            logger.error("封面图重新提取任务失败，处理到文章ID {}", checkpoint.getLastId(), e);
+            checkpoint.setStatus("failed");
+            checkpoint.setErrorMessage(truncate(e.getMessage()));
+            try {
+                publish(checkpoint);
+            } catch (Exception saveError) {
+                logger.error("保存封面图重新提取任务进度失败", saveError);
+            }
+        } finally {
+            running.set(null);
+        }
+    }
+
+    /**
+     * 处理ID大于afterId的一段文章：在只读事务中用游标读取并提交提取，事务结束后分批更新
+     */
+    private Chunk processChunk(int afterId, int toId, Integer sourceId, boolean onlyMissing,
+                               ExecutorService extractors) throws Exception {
+        List<Future<Article>> extractions = new ArrayList<>();
+        Chunk chunk = new Chunk();
+        chunk.lastId = afterId;
+        readTransaction.executeWithoutResult(status -> {
+            try (Cursor<Article> cursor = articleMapper.scanForCoverImage(afterId, toId, sourceId, onlyMissing, CHUNK_SIZE)) {
+                for (Article article : cursor) {
+                    chunk.lastId = article.getId();
+                    extractions.add(extractors.submit(() -> extract(article)));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        chunk.scanned = extractions.size();
+        chunk.exhausted = extractions.size() < CHUNK_SIZE;
+
+        List<Article> changed = new ArrayList<>();
+        for (Future<Article> extraction : extractions) {
+            try {
+                Article article = extraction.get();
+                if (article != null) {
+                    changed.add(article);
+                }
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception cause ? cause : e;
+            }
+        }
+        for (int i = 0; i < changed.size(); i += UPDATE_BATCH_SIZE) {
+            List<Article> batch = changed.subList(i, Math.min(i + UPDATE_BATCH_SIZE, changed.size()));
+            writeTransaction.executeWithoutResult(status -> articleMapper.updateCoverImages(batch));
+        }
+        chunk.updated = changed.size();
+        return chunk;
+    }
+
+    /**
+     * 提取封面图，与原封面图相同或提取不到时返回null
+     */
+    private Article extract(Article article) {
+        String coverImage = rssParserService.extractFirstImage(article.getContent());
+        if (coverImage == null || coverImage.isEmpty() || coverImage.equals(article.getCoverImage())) {
+            return null;
+        }
+        Article update = new Article();
+        update.setId(article.getId());
+        update.setCoverImage(coverImage);
+        return update;
+    }
+
+    private void publish(JobCheckpoint checkpoint) {
+        jobCheckpointMapper.save(checkpoint);
+        running.set(copy(checkpoint));
+    }
+
+    private ExecutorService newExtractors() {
+        // 提取封面图是纯CPU工作，线程数与处理器核数一致
+        return Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors()));
+    }
+
+    private CoverImageJobVO toVO(JobCheckpoint checkpoint) {
+        CoverImageJobVO vo = new CoverImageJobVO();
+        vo.setStatus(checkpoint.getStatus());
+        vo.setLastId(checkpoint.getLastId());
+        vo.setEndId(checkpoint.getEndId());
+        vo.setPercent(checkpoint.getEndId() > 0
+                ? Math.min(100.0, checkpoint.getLastId() * 100.0 / checkpoint.getEndId()) : 100.0);
+        vo.setProcessed(checkpoint.getProcessed());
+        vo.setUpdated(checkpoint.getUpdated());
+        vo.setStartTime(checkpoint.getStartTime());
+        vo.setErrorMessage(checkpoint.getErrorMessage());
+        if ("running".equals(checkpoint.getStatus())) {
+            double seconds = (System.nanoTime() - runStartNanos) / 1_000_000_000.0;
+            vo.setArticlesPerSecond(seconds > 0 ? (checkpoint.getProcessed() - runStartProcessed) / seconds : 0.0);
+        }
+        return vo;
+    }
+
+    private JobCheckpoint copy(JobCheckpoint checkpoint) {
+        JobCheckpoint copy = new JobCheckpoint();
+        copy.setJobName(checkpoint.getJobName());
+        copy.setStatus(checkpoint.getStatus());
+        copy.setLastId(checkpoint.getLastId());
+        copy.setEndId(checkpoint.getEndId());
+        copy.setProcessed(checkpoint.getProcessed());
+        copy.setUpdated(checkpoint.getUpdated());
+        copy.setErrorMessage(checkpoint.getErrorMessage());
+        copy.setStartTime(checkpoint.getStartTime());
+        return copy;
+    }
+
+    private String truncate(String message) {
+        if (message == null || message.length() <= ERROR_MESSAGE_MAX_LENGTH) {
+            return message;
+        }
+        return message.substring(0, ERROR_MESSAGE_MAX_LENGTH);
+    }
+
+    /**
+     * 一段文章的处理结果
+     */
+    private static class Chunk {
+        private int lastId;
+        private int scanned;
+        private int updated;
+        // 读取的文章数不足一段，之后已没有符合条件的文章
+        private boolean exhausted;
+    }
+}
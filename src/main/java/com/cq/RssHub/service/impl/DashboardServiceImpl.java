@@ -6,12 +6,20 @@ import com.cq.RssHub.mapper.FetchTaskMapper;
 import com.cq.RssHub.mapper.RssSourceMapper;
 import com.cq.RssHub.pojo.FetchTask;
 import com.cq.RssHub.pojo.vo.DashboardStatisticsVO;
+import com.cq.RssHub.pojo.vo.DbPoolVO;
+import com.cq.RssHub.pojo.vo.ExecutorMetricsVO;
+import com.cq.RssHub.pojo.vo.FetchPassVO;
 import com.cq.RssHub.pojo.vo.FetchTaskVO;
+import com.cq.RssHub.pojo.vo.HostMetricsVO;
+import com.cq.RssHub.pojo.vo.RetentionRunVO;
 import com.cq.RssHub.service.DashboardService;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import javax.sql.DataSource;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -32,6 +40,24 @@ public class DashboardServiceImpl implements DashboardService {
     
     @Autowired
     private FetchTaskMapper fetchTaskMapper;
+    
+    @Autowired
+    private RssFetchEngine rssFetchEngine;
+    
+    @Autowired
+    private HostRequestLimiter hostRequestLimiter;
+
+    @Autowired
+    private FetchPersistService fetchPersistService;
+
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private FetchExecutors fetchExecutors;
+
+    @Autowired
+    private ArticleRetentionJob articleRetentionJob;
 
     @Override
     public DashboardStatisticsVO getStatistics() {
@@ -73,9 +99,49 @@ public class DashboardServiceImpl implements DashboardService {
                 .collect(Collectors.toList());
     }
     
+    @Override
+    public FetchPassVO getLastFetchPass() {
+        return rssFetchEngine.getLastPass();
+    }
+    
+    @Override
+    public List<HostMetricsVO> getFetchHostMetrics() {
+        return hostRequestLimiter.getHostMetrics();
+    }
+    
+    @Override
+    public DbPoolVO getDbPoolMetrics() {
+        DbPoolVO vo = new DbPoolVO();
+        if (dataSource instanceof HikariDataSource hikari) {
+            vo.setMaxPoolSize(hikari.getMaximumPoolSize());
+            // 连接池在第一次获取连接时才创建
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            if (pool != null) {
+                vo.setActiveConnections(pool.getActiveConnections());
+                vo.setIdleConnections(pool.getIdleConnections());
+                vo.setTotalConnections(pool.getTotalConnections());
+                vo.setThreadsAwaitingConnection(pool.getThreadsAwaitingConnection());
+            }
+        }
+        vo.setFetchWriteCount(fetchPersistService.getWriteCount());
+        vo.setAvgFetchWriteMillis(fetchPersistService.getAvgWriteMillis());
+        vo.setMaxFetchWriteMillis(fetchPersistService.getMaxWriteMillis());
+        return vo;
+    }
+
     private FetchTaskVO convertToVO(FetchTask fetchTask) {
         FetchTaskVO vo = new FetchTaskVO();
         BeanUtils.copyProperties(fetchTask, vo);
         return vo;
     }
-} 
\ No newline at end of file
+    
+    @Override
+    public List<ExecutorMetricsVO> getFetchExecutorMetrics() {
+        return fetchExecutors.getMetrics();
+    }
+
+    @Override
+    public List<RetentionRunVO> getRetentionRuns() {
+        return articleRetentionJob.getRecentRuns();
+    }
+}
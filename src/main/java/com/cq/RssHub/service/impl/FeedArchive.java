@@ -0,0 +1,265 @@
+package com.cq.RssHub.service.impl;
+
+import com.cq.RssHub.config.FetchProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * RSS原始内容归档
+ * 每次抓取到有变化的内容时压缩保存到本地磁盘，按内容哈希寻址，相同内容只存一份：
+ * objects/{哈希前两位}/{哈希}.gz 保存内容，refs/{源ID}/{抓取时间}-{哈希} 记录每个源的快照。
+ * 每个源只保留最近的若干份快照，超过保留期限的快照被删除，不再被引用的内容定期清理
+ */
+@Component
+public class FeedArchive {
+    private static final Logger logger = LoggerFactory.getLogger(FeedArchive.class);
+
+    // 清理时跳过最近写入的内容，避免删除正在写入引用的内容
+    private static final Duration SWEEP_GRACE = Duration.ofHours(1);
+
+    @Autowired
+    private FetchProperties fetchProperties;
+
+    /**
+     * 归档一次抓取的原始内容，失败时只记录日志，不影响抓取
+     * @param sourceId RSS源ID
+     * @param contentHash 内容的SHA-256
+     * @param content 原始内容（解压后）
+     */
+    public void archive(Integer sourceId, String contentHash, byte[] content) {
+        if (!Boolean.TRUE.equals(fetchProperties.getArchiveEnabled()) || sourceId == null || content == null) {
+            return;
+        }
+        try {
+            Path object = objectPath(contentHash);
+            // 复用已有内容时刷新修改时间，清理统计引用之后才写入的新快照仍在保护期内，内容不会被删除
+            if (!touch(object)) {
+                Files.createDirectories(object.getParent());
+                Path temp = Files.createTempFile(object.getParent(), contentHash, ".tmp");
+                try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+                    out.write(content);
+                }
+                Files.move(temp, object, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            Path refs = refsDir(sourceId);
+            Files.createDirectories(refs);
+            Files.createFile(refs.resolve(System.currentTimeMillis() + "-" + contentHash));
+            trim(sourceId);
+        } catch (IOException e) {
+            logger.warn("归档RSS源 {} 的内容失败: {}", sourceId, e.getMessage());
+        }
+    }
+
+    /**
+     * 列出RSS源的快照，按抓取时间从新到旧
+     */
+    public List<Snapshot> listSnapshots(Integer sourceId) throws IOException {
+        List<Snapshot> snapshots = new ArrayList<>();
+        Path refs = refsDir(sourceId);
+        if (!Files.isDirectory(refs)) {
+            return snapshots;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(refs)) {
+            for (Path ref : stream) {
+                Snapshot snapshot = Snapshot.parse(sourceId, ref);
+                if (snapshot != null) {
+                    snapshots.add(snapshot);
+                }
+            }
+        }
+        snapshots.sort(Comparator.comparingLong(Snapshot::getFetchedAtMillis).reversed());
+        return snapshots;
+    }
+
+    /**
+     * 有快照的RSS源ID
+     */
+    public List<Integer> listSourceIds() throws IOException {
+        List<Integer> sourceIds = new ArrayList<>();
+        Path root = root().resolve("refs");
+        if (!Files.isDirectory(root)) {
+            return sourceIds;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(root)) {
+            for (Path dir : stream) {
+                try {
+                    sourceIds.add(Integer.valueOf(dir.getFileName().toString()));
+                } catch (NumberFormatException e) {
+                    // 忽略无关目录
+                }
+            }
+        }
+        return sourceIds;
+    }
+
+    /**
+     * 读取快照内容
+     */
+    public byte[] read(Snapshot snapshot) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(objectPath(snapshot.getContentHash())))) {
+            return in.readAllBytes();
+        }
+    }
+
+    /**
+     * 每天清理过期快照和不再被引用的内容
+     */
+    @Scheduled(cron = "0 30 3 * * ?")
+    public void prune() {
+        if (!Boolean.TRUE.equals(fetchProperties.getArchiveEnabled())) {
+            return;
+        }
+        try {
+            Set<String> referenced = new HashSet<>();
+            for (Integer sourceId : listSourceIds()) {
+                trim(sourceId);
+                for (Snapshot snapshot : listSnapshots(sourceId)) {
+                    referenced.add(snapshot.getContentHash());
+                }
+            }
+            int removed = sweep(referenced);
+            logger.info("RSS内容归档清理完成，删除了 {} 份不再引用的内容", removed);
+        } catch (IOException e) {
+            logger.warn("清理RSS内容归档失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 删除超出数量或超过保留期限的快照引用
+     */
+    private void trim(Integer sourceId) throws IOException {
+        List<Snapshot> snapshots = listSnapshots(sourceId);
+        long cutoff = System.currentTimeMillis() - fetchProperties.getArchiveRetention().toMillis();
+        int keep = Math.max(1, fetchProperties.getArchiveMaxSnapshots());
+        for (int i = 0; i < snapshots.size(); i++) {
+            Snapshot snapshot = snapshots.get(i);
+            if (i >= keep || snapshot.getFetchedAtMillis() < cutoff) {
+                Files.deleteIfExists(refsDir(sourceId).resolve(snapshot.getRefName()));
+            }
+        }
+    }
+
+    private int sweep(Set<String> referenced) throws IOException {
+        Path objects = root().resolve("objects");
+        if (!Files.isDirectory(objects)) {
+            return 0;
+        }
+        Instant graceCutoff = Instant.now().minus(SWEEP_GRACE);
+        int removed = 0;
+        try (Stream<Path> files = Files.walk(objects)) {
+            for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                String name = file.getFileName().toString();
+                String hash = name.endsWith(".gz") ? name.substring(0, name.length() - 3) : name;
+                try {
+                    if (!referenced.contains(hash)
+                            && Files.getLastModifiedTime(file).toInstant().isBefore(graceCutoff)) {
+                        Files.delete(file);
+                        removed++;
+                    }
+                } catch (NoSuchFileException e) {
+                    // 已被其他清理删除
+                }
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * 把已有文件的修改时间设为当前时间，文件不存在时返回false
+     */
+    private boolean touch(Path file) throws IOException {
+        try {
+            Files.setLastModifiedTime(file, FileTime.from(Instant.now()));
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    private Path root() {
+        return Paths.get(fetchProperties.getArchiveDir());
+    }
+
+    private Path refsDir(Integer sourceId) {
+        return root().resolve("refs").resolve(String.valueOf(sourceId));
+    }
+
+    private Path objectPath(String contentHash) {
+        return root().resolve("objects").resolve(contentHash.substring(0, 2)).resolve(contentHash + ".gz");
+    }
+
+    /**
+     * 一份快照：某个源在某次抓取时得到的内容
+     */
+    public static class Snapshot {
+        private final Integer sourceId;
+        private final long fetchedAtMillis;
+        private final String contentHash;
+
+        Snapshot(Integer sourceId, long fetchedAtMillis, String contentHash) {
+            this.sourceId = sourceId;
+            this.fetchedAtMillis = fetchedAtMillis;
+            this.contentHash = contentHash;
+        }
+
+        static Snapshot parse(Integer sourceId, Path ref) {
+            String name = ref.getFileName().toString();
+            int separator = name.indexOf('-');
+            if (separator <= 0) {
+                return null;
+            }
+            try {
+                return new Snapshot(sourceId, Long.parseLong(name.substring(0, separator)), name.substring(separator + 1));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        public Integer getSourceId() {
+            return sourceId;
+        }
+
+        public long getFetchedAtMillis() {
+            return fetchedAtMillis;
+        }
+
+        public LocalDateTime getFetchedAt() {
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(fetchedAtMillis), ZoneId.systemDefault());
+        }
+
+        public String getContentHash() {
+            return contentHash;
+        }
+
+        String getRefName() {
+            return fetchedAtMillis + "-" + contentHash;
+        }
+    }
+}
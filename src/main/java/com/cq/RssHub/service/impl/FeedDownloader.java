@@ -0,0 +1,334 @@
+package com.cq.RssHub.service.impl;
+
+import com.cq.RssHub.config.FetchProperties;
+import com.cq.RssHub.pojo.RssSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * RSS内容下载器
+ * 每次下载都有连接超时和整体读取超时，响应体超过最大长度时立即中止，
+ * 请求gzip/deflate压缩并在本地解压，解压后的长度同样受最大长度限制，
+ * 重定向逐跳跟随，每一跳都受目标主机的限流配额约束
+ */
+@Component
+public class FeedDownloader {
+
+    // 最多跟随的重定向次数，与HttpClient默认值一致
+    private static final int MAX_REDIRECTS = 5;
+
+    @Autowired
+    private HostRequestLimiter hostRequestLimiter;
+
+    @Autowired
+    private FetchProperties fetchProperties;
+
+    // HttpClient的连接超时在创建时确定，按连接超时缓存，同一超时的源复用连接
+    private final Map<Duration, HttpClient> clients = new ConcurrentHashMap<>();
+
+    /**
+     * 按源的超时配置下载，携带条件请求校验信息
+     * @param source RSS源（使用url、connectTimeout、readTimeout字段）
+     * @param etag 上次响应的ETag，可为null
+     * @param lastModified 上次响应的Last-Modified，可为null
+     * @return 下载结果
+     * @throws Exception 网络异常、超时或响应超过最大长度
+     */
+    public Download download(RssSource source, String etag, String lastModified) throws Exception {
+        return download(source.getUrl(), etag, lastModified,
+                timeout(source.getConnectTimeout(), fetchProperties.getConnectTimeout()),
+                timeout(source.getReadTimeout(), fetchProperties.getReadTimeout()));
+    }
+
+    /**
+     * 按默认超时配置下载
+     */
+    public Download download(String url) throws Exception {
+        return download(url, null, null, fetchProperties.getConnectTimeout(), fetchProperties.getReadTimeout());
+    }
+
+    private Download download(String url, String etag, String lastModified,
+                              Duration connectTimeout, Duration readTimeout) throws Exception {
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .uri(new URI(url))
+                .timeout(readTimeout)
+                .header("User-Agent", "RssHub/1.0")
+                .header("Accept-Encoding", "gzip, deflate")
+                .GET();
+        if (etag != null) {
+            builder.header("If-None-Match", etag);
+        }
+        if (lastModified != null) {
+            builder.header("If-Modified-Since", lastModified);
+        }
+
+        HttpRequest request = builder.build();
+        int maxBodySize = maxBodySize();
+        HttpClient client = clients.computeIfAbsent(connectTimeout, timeout -> HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(timeout)
+                .build());
+        HttpResponse<byte[]> response = sendFollowingRedirects(client, request, maxBodySize, readTimeout);
+
+        Download download = new Download();
+        download.requestEtag = etag;
+        download.requestLastModified = lastModified;
+        download.statusCode = response.statusCode();
+        download.bytesTransferred = response.body().length;
+        download.body = decode(response.body(),
+                response.headers().firstValue("Content-Encoding").orElse(null), maxBodySize);
+        download.etag = response.headers().firstValue("ETag").orElse(null);
+        download.lastModified = response.headers().firstValue("Last-Modified").orElse(null);
+        return download;
+    }
+
+    /**
+     * 在目标主机的限流配额内发送请求，遇到重定向时对新地址重新申请配额后再发送，
+     * 由HttpClient自动跟随时跳转到其他主机的请求不经过限流
+     */
+    private HttpResponse<byte[]> sendFollowingRedirects(HttpClient client, HttpRequest request, int maxBodySize,
+                                                       Duration readTimeout) throws Exception {
+        HttpRequest current = request;
+        for (int redirects = 0; ; redirects++) {
+            HttpRequest hop = current;
+            HttpResponse<byte[]> response = hostRequestLimiter.execute(hop.uri(),
+                    () -> send(client, hop, maxBodySize, readTimeout));
+            URI target = redirectTarget(response);
+            if (target == null) {
+                return response;
+            }
+            if (redirects >= MAX_REDIRECTS) {
+                throw new IOException("重定向次数过多: " + request.uri());
+            }
+            // 保留原请求的头部（含条件请求校验信息）
+            current = HttpRequest.newBuilder(hop, (name, value) -> true).uri(target).build();
+        }
+    }
+
+    /**
+     * 解析重定向地址，规则与HttpClient.Redirect.NORMAL一致：不从https跳转到http
+     * @return 重定向地址，不是可跟随的重定向时返回null
+     */
+    private URI redirectTarget(HttpResponse<?> response) throws IOException {
+        switch (response.statusCode()) {
+            case 301, 302, 303, 307, 308 -> {
+            }
+            default -> {
+                return null;
+            }
+        }
+        String location = response.headers().firstValue("Location").orElse(null);
+        if (location == null) {
+            return null;
+        }
+        URI target;
+        try {
+            target = response.uri().resolve(location);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("无效的重定向地址: " + location, e);
+        }
+        String scheme = target.getScheme() != null ? target.getScheme().toLowerCase(Locale.ROOT) : "";
+        if (!scheme.equals("http") && !scheme.equals("https")) {
+            return null;
+        }
+        if ("https".equalsIgnoreCase(response.uri().getScheme()) && scheme.equals("http")) {
+            return null;
+        }
+        return target;
+    }
+
+    /**
+     * 发送请求并在读取超时内等待完整的响应体，超时后取消请求
+     */
+    private HttpResponse<byte[]> send(HttpClient client, HttpRequest request, int maxBodySize,
+                                      Duration readTimeout) throws Exception {
+        CompletableFuture<HttpResponse<byte[]>> future = client.sendAsync(request,
+                responseInfo -> new LimitedBodySubscriber(maxBodySize));
+        try {
+            return future.get(readTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new HttpTimeoutException("读取响应超时(" + readTimeout.getSeconds() + "秒): " + request.uri());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * 按Content-Encoding解压响应体
+     */
+    private byte[] decode(byte[] body, String encoding, int maxBodySize) throws IOException {
+        if (encoding == null || body.length == 0) {
+            return body;
+        }
+        switch (encoding.trim().toLowerCase(Locale.ROOT)) {
+            case "identity":
+                return body;
+            case "gzip":
+            case "x-gzip":
+                return readLimited(new GZIPInputStream(new ByteArrayInputStream(body)), maxBodySize);
+            case "deflate":
+                // 规范要求zlib格式，但部分服务端直接返回原始deflate数据
+                try {
+                    return readLimited(new InflaterInputStream(new ByteArrayInputStream(body)), maxBodySize);
+                } catch (ZipException e) {
+                    Inflater inflater = new Inflater(true);
+                    try {
+                        return readLimited(new InflaterInputStream(new ByteArrayInputStream(body), inflater), maxBodySize);
+                    } finally {
+                        inflater.end();
+                    }
+                }
+            default:
+                throw new IOException("不支持的内容编码: " + encoding);
+        }
+    }
+
+    private byte[] readLimited(InputStream in, int maxBodySize) throws IOException {
+        try (in) {
+            byte[] data = in.readNBytes(maxBodySize + 1);
+            if (data.length > maxBodySize) {
+                throw new IOException("解压后的响应超过最大长度" + maxBodySize + "字节");
+            }
+            return data;
+        }
+    }
+
+    private int maxBodySize() {
+        long bytes = fetchProperties.getMaxBodySize().toBytes();
+        return (int) Math.min(bytes, Integer.MAX_VALUE - 8);
+    }
+
+    private Duration timeout(Integer seconds, Duration defaultTimeout) {
+        return seconds != null && seconds > 0 ? Duration.ofSeconds(seconds) : defaultTimeout;
+    }
+
+    /**
+     * 累积响应体，超过最大长度时取消订阅并以异常结束
+     */
+    static class LimitedBodySubscriber implements HttpResponse.BodySubscriber<byte[]> {
+        private final int maxBodySize;
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private final CompletableFuture<byte[]> result = new CompletableFuture<>();
+        private Flow.Subscription subscription;
+
+        LimitedBodySubscriber(int maxBodySize) {
+            this.maxBodySize = maxBodySize;
+        }
+
+        @Override
+        public CompletionStage<byte[]> getBody() {
+            return result;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> items) {
+            if (result.isDone()) {
+                return;
+            }
+            for (ByteBuffer item : items) {
+                if (buffer.size() + item.remaining() > maxBodySize) {
+                    subscription.cancel();
+                    result.completeExceptionally(new IOException("响应超过最大长度" + maxBodySize + "字节"));
+                    return;
+                }
+                byte[] bytes = new byte[item.remaining()];
+                item.get(bytes);
+                buffer.write(bytes, 0, bytes.length);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            result.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            result.complete(buffer.toByteArray());
+        }
+    }
+
+    /**
+     * 一次HTTP下载的结果，同一URL的并发抓取之间共享
+     */
+    public static class Download {
+        // 发起请求时携带的校验信息
+        private String requestEtag;
+        private String requestLastModified;
+        private int statusCode;
+        // 解压后的响应体
+        private byte[] body;
+        // 实际传输的字节数（压缩后）
+        private long bytesTransferred;
+        private String etag;
+        private String lastModified;
+
+        public int getStatusCode() {
+            return statusCode;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        public long getBytesTransferred() {
+            return bytesTransferred;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public String getLastModified() {
+            return lastModified;
+        }
+
+        /**
+         * 请求是否携带了相同的校验信息
+         */
+        public boolean requestedWith(String etag, String lastModified) {
+            return Objects.equals(requestEtag, etag) && Objects.equals(requestLastModified, lastModified);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.cq.RssHub.service.impl;
+
+import com.cq.RssHub.config.FetchProperties;
+import com.cq.RssHub.pojo.vo.ExecutorMetricsVO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 抓取相关的线程池
+ * 手动"立即抓取"和后台异步抓取使用相互隔离的线程池，
+ * 后台任务堆积时不会占用管理员手动抓取的线程，反之亦然
+ */
+@Component
+public class FetchExecutors {
+
+    @Autowired
+    private FetchProperties fetchProperties;
+
+    private Bulkhead interactive;
+    private Bulkhead background;
+
+    @PostConstruct
+    public void init() {
+        interactive = new Bulkhead("rss-fetch-task",
+                fetchProperties.getTaskThreads(), fetchProperties.getTaskQueueCapacity());
+        background = new Bulkhead("rss-fetch-async",
+                fetchProperties.getBackgroundThreads(), fetchProperties.getBackgroundQueueCapacity());
+    }
+
+    /**
+     * 应用关闭时等待已提交的抓取完成
+     */
+    @PreDestroy
+    public void shutdown() {
+        interactive.shutdown(fetchProperties.getShutdownTimeout());
+        background.shutdown(fetchProperties.getShutdownTimeout());
+    }
+
+    /**
+     * 手动抓取任务使用的线程池
+     */
+    public Bulkhead interactive() {
+        return interactive;
+    }
+
+    /**
+     * 后台异步抓取使用的线程池
+     */
+    public Bulkhead background() {
+        return background;
+    }
+
+    public List<ExecutorMetricsVO> getMetrics() {
+        return List.of(interactive.getMetrics(), background.getMetrics());
+    }
+}
@@ -0,0 +1,116 @@
+package com.cq.RssHub.service.impl;
+
+import com.cq.RssHub.mapper.FetchTaskMapper;
+import com.cq.RssHub.mapper.RssSourceMapper;
+import com.cq.RssHub.pojo.FetchTask;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 手动抓取任务服务
+ * 接口只负责创建pending状态的抓取任务并放入手动抓取线程池，立即返回任务ID，
+ * 下载、解析和写入在后台执行，进度通过fetch_task表查询
+ */
+@Service
+public class FetchJobService {
+    private static final Logger logger = LoggerFactory.getLogger(FetchJobService.class);
+
+    @Autowired
+    private RssService rssService;
+
+    @Autowired
+    private RssSourceMapper rssSourceMapper;
+
+    @Autowired
+    private FetchTaskMapper fetchTaskMapper;
+
+    @Autowired
+    private FetchExecutors fetchExecutors;
+
+    @Autowired
+    private CoverImageJob coverImageJob;
+
+    /**
+     * 提交单个RSS源的抓取任务
+     * @param sourceId RSS源ID
+     * @return 已保存的抓取任务，RSS源不存在时返回null；队列已满时任务状态为failed
+     */
+    public FetchTask submit(Integer sourceId) {
+        if (rssSourceMapper.findById(sourceId) == null) {
+            return null;
+        }
+
+        FetchTask task = new FetchTask();
+        task.setSourceId(sourceId);
+        task.setStartTime(LocalDateTime.now());
+        task.setStatus("pending");
+        task.setArticlesAdded(0);
+        fetchTaskMapper.insert(task);
+
+        try {
+            fetchExecutors.interactive().execute(() -> run(task));
+        } catch (RejectedExecutionException e) {
+            logger.warn("抓取任务队列已满，拒绝RSS源 {} 的抓取任务", sourceId);
+            task.setStatus("failed");
+            task.setErrorMessage("抓取任务队列已满，请稍后重试");
+            task.setEndTime(LocalDateTime.now());
+            fetchTaskMapper.update(task);
+        }
+        return task;
+    }
+
+    /**
+     * 批量提交抓取任务，不存在的RSS源被跳过
+     * @param sourceIds RSS源ID列表
+     * @return 已保存的抓取任务列表
+     */
+    public List<FetchTask> submitAll(List<Integer> sourceIds) {
+        List<FetchTask> tasks = new ArrayList<>();
+        if (sourceIds == null) {
+            return tasks;
+        }
+        for (Integer sourceId : sourceIds) {
+            FetchTask task = submit(sourceId);
+            if (task != null) {
+                tasks.add(task);
+            }
+        }
+        return tasks;
+    }
+
+    /**
+     * 查询抓取任务
+     */
+    public FetchTask getTask(Integer taskId) {
+        return fetchTaskMapper.findById(taskId);
+    }
+
+    /**
+     * 批量查询抓取任务
+     */
+    public List<FetchTask> getTasks(List<Integer> taskIds) {
+        if (taskIds == null || taskIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return fetchTaskMapper.findByIds(taskIds);
+    }
+
+    private void run(FetchTask task) {
+        try {
+            rssService.runFetchTask(task);
+            // 抓取完成后为该源的文章重新提取封面图
+            int updated = coverImageJob.reprocessSource(task.getSourceId());
+            logger.info("抓取任务 {} 完成，更新了 {} 篇文章的封面图", task.getId(), updated);
+        } catch (Exception e) {
+            // 任务状态已由runFetchTask记录
+            logger.warn("抓取任务 {} 失败: {}", task.getId(), e.getMessage());
+        }
+    }
+}
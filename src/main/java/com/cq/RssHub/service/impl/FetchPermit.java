@@ -0,0 +1,68 @@
+package com.cq.RssHub.service.impl;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+
+/**
+ * 当前线程持有的全局抓取许可
+ * 抓取任务在等待主机配额时暂时让出许可，拿到主机配额后再重新获取，
+ * 避免被限流主机的排队请求占满全局许可而阻塞其他主机的抓取
+ */
+final class FetchPermit {
+
+    private static final ThreadLocal<FetchPermit> CURRENT = new ThreadLocal<>();
+
+    private final Semaphore permits;
+    private boolean held;
+
+    private FetchPermit(Semaphore permits) {
+        this.permits = permits;
+    }
+
+    /**
+     * 获取一个全局许可后执行任务，任务结束时归还
+     */
+    static <T> T run(Semaphore permits, Callable<T> task) throws Exception {
+        FetchPermit permit = new FetchPermit(permits);
+        permit.acquire();
+        CURRENT.set(permit);
+        try {
+            return task.call();
+        } finally {
+            CURRENT.remove();
+            permit.release();
+        }
+    }
+
+    /**
+     * 让出当前线程持有的全局许可
+     * @return 让出的许可，等待结束后需调用resume重新获取；当前线程未持有许可时返回null
+     */
+    static FetchPermit suspend() {
+        FetchPermit permit = CURRENT.get();
+        if (permit == null || !permit.held) {
+            return null;
+        }
+        permit.release();
+        return permit;
+    }
+
+    /**
+     * 重新获取之前让出的全局许可
+     */
+    void resume() throws InterruptedException {
+        acquire();
+    }
+
+    private void acquire() throws InterruptedException {
+        permits.acquire();
+        held = true;
+    }
+
+    private void release() {
+        if (held) {
+            held = false;
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.cq.RssHub.service.impl;
+
+import com.cq.RssHub.mapper.RssSourceMapper;
+import com.cq.RssHub.pojo.Article;
+import com.cq.RssHub.pojo.RssSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 抓取结果写入服务
+ * 下载和解析在事务外完成，这里只负责最后一次短事务写入，
+ * 同时记录每次写入事务占用数据库连接的时长
+ */
+@Service
+public class FetchPersistService {
+
+    @Autowired
+    private ArticleBatchWriter articleBatchWriter;
+
+    @Autowired
+    private RssSourceMapper rssSourceMapper;
+
+    private final AtomicLong writeCount = new AtomicLong();
+    private final AtomicLong totalWriteNanos = new AtomicLong();
+    private final AtomicLong maxWriteNanos = new AtomicLong();
+
+    /**
+     * 在一个事务中写入新文章并更新RSS源状态
+     * @param rssSource RSS源（校验信息和水位线已由本次抓取更新）
+     * @param newArticles 过滤后的新文章
+     * @return 实际插入的文章数
+     */
+    @Transactional
+    public int persist(RssSource rssSource, List<Article> newArticles) {
+        long start = System.nanoTime();
+        try {
+            // 分批保存新文章，并发抓取写入的重复链接由唯一索引忽略
+            int inserted = articleBatchWriter.write(newArticles);
+
+            // 文章数在数据库中原子累加，并发写入同一个源时不会互相覆盖
+            if (inserted > 0) {
+                rssSourceMapper.incrementArticleCount(rssSource.getId(), inserted);
+            }
+            rssSource.setArticleCount(rssSource.getArticleCount() + inserted);
+
+            // 只更新抓取状态，RSS源对象是抓取开始时读取的，整行写回会覆盖抓取期间的修改
+            rssSource.setErrorMessage(null);
+            if ("error".equals(rssSource.getStatus())) {
+                rssSource.setStatus("active");
+            }
+            rssSourceMapper.updateFetchStatus(rssSource.getId());
+
+            // 保存成功后再持久化校验信息和水位线，避免失败的抓取被当作"未变化"跳过
+            rssSourceMapper.updateFetchValidators(rssSource);
+            rssSourceMapper.updateWatermark(rssSource);
+            return inserted;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            writeCount.incrementAndGet();
+            totalWriteNanos.addAndGet(elapsed);
+            maxWriteNanos.accumulateAndGet(elapsed, Math::max);
+        }
+    }
+
+    /**
+     * 写入事务次数
+     */
+    public long getWriteCount() {
+        return writeCount.get();
+    }
+
+    /**
+     * 写入事务平均耗时（毫秒）
+     */
+    public double getAvgWriteMillis() {
+        long count = writeCount.get();
+        return count > 0 ? totalWriteNanos.get() / 1_000_000.0 / count : 0.0;
+    }
+
+    /**
+     * 写入事务最长耗时（毫秒）
+     */
+    public long getMaxWriteMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxWriteNanos.get());
+    }
+}
@@ -0,0 +1,310 @@
+package com.cq.RssHub.service.impl;
+
+import com.cq.RssHub.config.FetchProperties;
+import com.cq.RssHub.mapper.RssSourceMapper;
+import com.cq.RssHub.pojo.RssSource;
+import com.cq.RssHub.service.SystemSettingService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RSS源到期调度器
+ * 内存中按下次到期时间维护RSS源的小顶堆，调度线程在最早的源到期时才被唤醒，
+ * 把同时到期的源作为一批交给抓取引擎在后台执行，随即继续等待下一个到期的源，
+ * 抓取完成后按频率加随机抖动重新入堆。
+ * 熔断中的源按下次重试时间入堆，到期时试探抓取一次。
+ * 启动时从数据库加载一次，之后由RSS源的增删改增量维护
+ */
+@Component
+public class FetchScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(FetchScheduler.class);
+
+    // 启动时数据库不可用的重试间隔
+    private static final long LOAD_RETRY_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    @Autowired
+    private RssSourceMapper rssSourceMapper;
+
+    @Autowired
+    private RssService rssService;
+
+    @Autowired
+    private RssFetchEngine rssFetchEngine;
+
+    @Autowired
+    private FetchProperties fetchProperties;
+
+    @Autowired
+    private SystemSettingService systemSettingService;
+
+    private final DelayQueue<ScheduledSource> queue = new DelayQueue<>();
+    // 每个源当前有效的调度项，队列中被替换或删除的旧项在出队时丢弃
+    private final Map<Integer, ScheduledSource> entries = new ConcurrentHashMap<>();
+    // 执行抓取批次，调度线程不等待批次完成；各批次的并发由抓取引擎的全局许可限制
+    private final ExecutorService dispatcher = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("rss-dispatch-", 0).factory());
+
+    private volatile Thread worker;
+
+    /**
+     * 应用启动完成后开始调度
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        worker = Thread.ofPlatform().name("rss-scheduler").daemon(true).start(this::run);
+    }
+
+    @PreDestroy
+    public void stop() {
+        Thread current = worker;
+        worker = null;
+        if (current != null) {
+            current.interrupt();
+        }
+        dispatcher.shutdownNow();
+    }
+
+    /**
+     * 新增或更新RSS源的调度，按上次抓取时间和频率计算到期时间，熔断中的源按下次重试时间。
+     * 未指定频率时沿用当前调度项的频率，新源使用系统设置的默认抓取频率
+     */
+    public void upsert(RssSource source) {
+        if (source == null || source.getId() == null) {
+            return;
+        }
+        ScheduledSource current = entries.get(source.getId());
+        int frequency;
+        if (source.getFrequency() != null) {
+            frequency = source.getFrequency();
+        } else if (current != null) {
+            frequency = current.getFrequency();
+        } else {
+            frequency = systemSettingService.getSnapshot().getDefaultFetchFrequency();
+        }
+        if (SourceCircuitBreaker.isOpen(source)) {
+            schedule(new ScheduledSource(source.getId(), frequency, toEpochMillis(source.getNextRetryTime())));
+            return;
+        }
+        long lastFetchMillis = source.getLastFetchTime() != null
+                ? toEpochMillis(source.getLastFetchTime())
+                : System.currentTimeMillis();
+        long frequencyMillis = TimeUnit.MINUTES.toMillis(frequency);
+        // 从未抓取过的源立即到期，只加抖动
+        long base = source.getLastFetchTime() != null ? lastFetchMillis + frequencyMillis : lastFetchMillis;
+        schedule(new ScheduledSource(source.getId(), frequency, base + jitterMillis(frequencyMillis)));
+    }
+
+    /**
+     * 移除RSS源的调度
+     */
+    public void remove(Integer sourceId) {
+        if (sourceId != null) {
+            // 队列中的旧项在出队时因不是当前有效项而被丢弃
+            entries.remove(sourceId);
+        }
+    }
+
+    /**
+     * 当前调度中的RSS源数量
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * 阻塞直到有源到期，返回当前所有已到期的有效调度项
+     */
+    public List<ScheduledSource> takeDue() throws InterruptedException {
+        List<ScheduledSource> due = new ArrayList<>();
+        while (due.isEmpty()) {
+            List<ScheduledSource> drained = new ArrayList<>();
+            drained.add(queue.take());
+            queue.drainTo(drained);
+            for (ScheduledSource entry : drained) {
+                if (entries.get(entry.getSourceId()) == entry) {
+                    due.add(entry);
+                }
+            }
+        }
+        return due;
+    }
+
+    private void run() {
+        boolean loaded = false;
+        while (worker == Thread.currentThread()) {
+            try {
+                if (!loaded) {
+                    loaded = load();
+                    if (!loaded) {
+                        Thread.sleep(LOAD_RETRY_MILLIS);
+                    }
+                    continue;
+                }
+                dispatch(takeDue());
+            } catch (InterruptedException e) {
+                break;
+            } catch (Exception e) {
+                logger.error("调度RSS源抓取失败", e);
+            }
+        }
+        logger.info("RSS源调度线程已停止");
+    }
+
+    private boolean load() {
+        try {
+            List<RssSource> sources = rssSourceMapper.findScheduleEntries();
+            sources.forEach(this::upsert);
+            logger.info("RSS源调度已加载 {} 个源", sources.size());
+            return true;
+        } catch (Exception e) {
+            logger.warn("加载RSS源调度失败，{}秒后重试: {}", LOAD_RETRY_MILLIS / 1000, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 把一批到期的源交给后台抓取，不等待抓取完成
+     */
+    private void dispatch(List<ScheduledSource> due) {
+        List<RssSource> batch = new ArrayList<>(due.size());
+        Map<Integer, ScheduledSource> dispatched = new HashMap<>();
+        for (ScheduledSource entry : due) {
+            RssSource source = rssSourceMapper.findById(entry.getSourceId());
+            if (source == null) {
+                entries.remove(entry.getSourceId(), entry);
+            } else if (SourceCircuitBreaker.isOpen(source)) {
+                // 熔断中的源等到重试时间再试探
+                reschedule(entry, source);
+            } else if (!"active".equals(source.getStatus()) && !"error".equals(source.getStatus())) {
+                // 停用的源保留调度，恢复后在下次到期时抓取
+                reschedule(entry, source);
+            } else {
+                batch.add(source);
+                dispatched.put(source.getId(), entry);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        logger.info("{} 个RSS源到期，开始抓取", batch.size());
+        try {
+            dispatcher.execute(() -> fetchBatch(batch, dispatched));
+        } catch (RejectedExecutionException e) {
+            // 调度器已停止
+            logger.warn("RSS源调度已停止，{} 个到期的源未抓取", batch.size());
+        }
+    }
+
+    /**
+     * 抓取一批源，完成后重新入堆
+     */
+    private void fetchBatch(List<RssSource> batch, Map<Integer, ScheduledSource> dispatched) {
+        try {
+            rssFetchEngine.runPass(batch, source -> {
+                try {
+                    return rssService.fetchScheduledSource(source);
+                } finally {
+                    reschedule(dispatched.get(source.getId()), source);
+                }
+            });
+        } finally {
+            // 本轮超时时还在等待并发许可的源没有执行抓取，也要重新入堆，否则会永久脱离调度。
+            // 已重新入堆的调度项不再是当前有效项，这里不会重复入堆
+            for (RssSource source : batch) {
+                reschedule(dispatched.get(source.getId()), source);
+            }
+        }
+    }
+
+    /**
+     * 从现在起按频率重新计算到期时间，熔断中的源使用下次重试时间，
+     * 调度项在抓取期间被更新或删除时不覆盖
+     */
+    private void reschedule(ScheduledSource entry, RssSource source) {
+        int minutes = source.getFrequency() != null ? source.getFrequency() : entry.getFrequency();
+        long dueAtMillis;
+        if (SourceCircuitBreaker.isOpen(source)) {
+            dueAtMillis = toEpochMillis(source.getNextRetryTime());
+        } else {
+            long frequencyMillis = TimeUnit.MINUTES.toMillis(minutes);
+            dueAtMillis = System.currentTimeMillis() + frequencyMillis + jitterMillis(frequencyMillis);
+        }
+        ScheduledSource next = new ScheduledSource(entry.getSourceId(), minutes, dueAtMillis);
+        if (entries.replace(entry.getSourceId(), entry, next)) {
+            queue.offer(next);
+        }
+    }
+
+    private void schedule(ScheduledSource entry) {
+        entries.put(entry.getSourceId(), entry);
+        queue.offer(entry);
+    }
+
+    private long jitterMillis(long frequencyMillis) {
+        double ratio = fetchProperties.getJitterRatio() != null ? fetchProperties.getJitterRatio() : 0;
+        long bound = (long) (frequencyMillis * ratio);
+        return bound > 0 ? ThreadLocalRandom.current().nextLong(bound) : 0;
+    }
+
+    private long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * 堆中的调度项，按到期时间排序
+     */
+    public static class ScheduledSource implements Delayed {
+        private final Integer sourceId;
+        private final int frequency;
+        private final long dueAtMillis;
+
+        ScheduledSource(Integer sourceId, int frequency, long dueAtMillis) {
+            this.sourceId = sourceId;
+            this.frequency = frequency;
+            this.dueAtMillis = dueAtMillis;
+        }
+
+        public Integer getSourceId() {
+            return sourceId;
+        }
+
+        public int getFrequency() {
+            return frequency;
+        }
+
+        public long getDueAtMillis() {
+            return dueAtMillis;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueAtMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueAtMillis, ((ScheduledSource) other).dueAtMillis);
+        }
+    }
+}
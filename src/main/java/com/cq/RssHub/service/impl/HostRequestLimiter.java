@@ -0,0 +1,145 @@
+package com.cq.RssHub.service.impl;
+
+import com.cq.RssHub.config.FetchProperties;
+import com.cq.RssHub.pojo.vo.HostMetricsVO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * 按主机限流的请求调度器
+ * 同一主机的请求受并发连接数和每秒请求数双重限制，
+ * 超出部分按到达顺序公平排队，避免并发抓取时被目标站点限流；
+ * 排队期间让出调用线程持有的全局抓取许可，拿到主机配额后再重新获取
+ */
+@Component
+public class HostRequestLimiter {
+
+    @Autowired
+    private FetchProperties fetchProperties;
+
+    private final Map<String, HostBudget> budgets = new ConcurrentHashMap<>();
+
+    /**
+     * 在目标主机的配额内执行请求
+     * @param uri 请求地址
+     * @param request 实际的请求逻辑
+     * @return 请求结果
+     * @throws Exception 请求异常或等待被中断
+     */
+    public <T> T execute(URI uri, Callable<T> request) throws Exception {
+        String host = uri.getHost() != null ? uri.getHost().toLowerCase() : "";
+        HostBudget budget = budgets.computeIfAbsent(host, this::createBudget);
+
+        long waitStart = System.nanoTime();
+        // 先拿主机配额再拿全局许可，被限流的主机不会占住全局许可拖慢其他主机
+        FetchPermit permit = FetchPermit.suspend();
+        budget.queued.incrementAndGet();
+        budget.maxQueueDepth.accumulateAndGet(budget.queued.get(), Math::max);
+        try {
+            budget.connections.acquire();
+        } finally {
+            budget.queued.decrementAndGet();
+        }
+        try {
+            budget.awaitRateSlot();
+            budget.totalWaitNanos.addAndGet(System.nanoTime() - waitStart);
+            budget.totalRequests.incrementAndGet();
+            if (permit != null) {
+                permit.resume();
+            }
+            return request.call();
+        } finally {
+            budget.connections.release();
+        }
+    }
+
+    /**
+     * 获取各主机的限流指标，按排队数从高到低排序
+     */
+    public List<HostMetricsVO> getHostMetrics() {
+        return budgets.values().stream()
+                .map(HostBudget::toMetrics)
+                .sorted(Comparator.comparing(HostMetricsVO::getQueueDepth)
+                        .thenComparing(HostMetricsVO::getMaxQueueDepth).reversed())
+                .collect(Collectors.toList());
+    }
+
+    private HostBudget createBudget(String host) {
+        int connections = Math.max(1, fetchProperties.getPerHostConnections());
+        double rate = fetchProperties.getPerHostRate() != null ? fetchProperties.getPerHostRate() : 0;
+        long intervalNanos = rate > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / rate) : 0;
+        return new HostBudget(host, connections, intervalNanos);
+    }
+
+    /**
+     * 单个主机的连接和速率配额
+     */
+    private static class HostBudget {
+        private final String host;
+        private final int maxConnections;
+        // 公平信号量，保证排队请求按到达顺序获取连接
+        private final Semaphore connections;
+        private final ReentrantLock rateLock = new ReentrantLock(true);
+        private final long intervalNanos;
+        private long nextSlotNanos = System.nanoTime();
+
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicInteger maxQueueDepth = new AtomicInteger();
+        private final AtomicLong totalRequests = new AtomicLong();
+        private final AtomicLong totalWaitNanos = new AtomicLong();
+
+        HostBudget(String host, int maxConnections, long intervalNanos) {
+            this.host = host;
+            this.maxConnections = maxConnections;
+            this.connections = new Semaphore(maxConnections, true);
+            this.intervalNanos = intervalNanos;
+        }
+
+        /**
+         * 预约下一个请求时间片，在锁外等待到预约时间
+         */
+        void awaitRateSlot() throws InterruptedException {
+            if (intervalNanos <= 0) {
+                return;
+            }
+            long slot;
+            rateLock.lock();
+            try {
+                long now = System.nanoTime();
+                slot = Math.max(now, nextSlotNanos);
+                nextSlotNanos = slot + intervalNanos;
+            } finally {
+                rateLock.unlock();
+            }
+            long waitNanos = slot - System.nanoTime();
+            if (waitNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+        }
+
+        HostMetricsVO toMetrics() {
+            HostMetricsVO vo = new HostMetricsVO();
+            vo.setHost(host);
+            vo.setInFlight(maxConnections - connections.availablePermits());
+            vo.setQueueDepth(queued.get());
+            vo.setMaxQueueDepth(maxQueueDepth.get());
+            long requests = totalRequests.get();
+            vo.setTotalRequests(requests);
+            vo.setAvgWaitMillis(requests > 0 ? totalWaitNanos.get() / 1_000_000.0 / requests : 0.0);
+            return vo;
+        }
+    }
+}
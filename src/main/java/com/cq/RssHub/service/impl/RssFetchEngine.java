@@ -0,0 +1,132 @@
+package com.cq.RssHub.service.impl;
+
+import com.cq.RssHub.config.FetchProperties;
+import com.cq.RssHub.pojo.RssSource;
+import com.cq.RssHub.pojo.vo.FetchPassVO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * RSS并发抓取引擎
+ * 每个源在独立的虚拟线程中抓取，通过信号量限制全局并发数，同时进行的多轮抓取共享同一组许可，
+ * 等待主机限流配额的源不占用许可，
+ * 单轮抓取必须在截止时间内完成，超时的源会被取消并计入报告
+ */
+@Service
+public class RssFetchEngine {
+    private static final Logger logger = LoggerFactory.getLogger(RssFetchEngine.class);
+
+    @Autowired
+    private FetchProperties fetchProperties;
+
+    // 最近一轮抓取的报告
+    private volatile FetchPassVO lastPass;
+
+    // 全局抓取并发许可，首次抓取时按配置创建
+    private volatile Semaphore permits;
+
+    /**
+     * 并发抓取一批RSS源
+     * @param sources 待抓取的RSS源
+     * @param fetcher 单个源的抓取逻辑，返回新增文章数
+     * @return 本轮抓取报告
+     */
+    public FetchPassVO runPass(List<RssSource> sources, Function<RssSource, Integer> fetcher) {
+        FetchPassVO pass = new FetchPassVO();
+        pass.setStartTime(LocalDateTime.now());
+        pass.setTotalSources(sources.size());
+        long startNanos = System.nanoTime();
+
+        int succeeded = 0;
+        int failed = 0;
+        int timedOut = 0;
+        int articlesAdded = 0;
+
+        if (!sources.isEmpty()) {
+            Semaphore permits = permits();
+            List<Callable<Integer>> tasks = new ArrayList<>(sources.size());
+            for (RssSource source : sources) {
+                // 许可记录在抓取线程上，等待主机配额期间会暂时让出
+                tasks.add(() -> FetchPermit.run(permits, () -> fetcher.apply(source)));
+            }
+
+            Duration deadline = fetchProperties.getPassTimeout();
+            ExecutorService executor = Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("rss-fetch-", 0).factory());
+            try {
+                // invokeAll在截止时间到达后会取消所有未完成的任务
+                List<Future<Integer>> futures = executor.invokeAll(tasks, deadline.toMillis(), TimeUnit.MILLISECONDS);
+                for (int i = 0; i < futures.size(); i++) {
+                    Future<Integer> future = futures.get(i);
+                    try {
+                        Integer added = future.get();
+                        articlesAdded += added != null ? added : 0;
+                        succeeded++;
+                    } catch (CancellationException e) {
+                        timedOut++;
+                        logger.warn("RSS源 {} 未能在截止时间 {} 内完成抓取，已取消", sources.get(i).getName(), deadline);
+                    } catch (ExecutionException e) {
+                        failed++;
+                        logger.error("抓取RSS源失败: " + sources.get(i).getName(), e.getCause());
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.warn("抓取任务被中断");
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        pass.setEndTime(LocalDateTime.now());
+        pass.setSucceeded(succeeded);
+        pass.setFailed(failed);
+        pass.setTimedOut(timedOut);
+        pass.setArticlesAdded(articlesAdded);
+        pass.setElapsedMillis(elapsedMillis);
+        pass.setThroughput(sources.size() * 1000.0 / elapsedMillis);
+        lastPass = pass;
+
+        logger.info("本轮抓取完成: 源{}个, 成功{}, 失败{}, 超时{}, 新增文章{}篇, 耗时{}ms, 吞吐量{}源/秒",
+                pass.getTotalSources(), succeeded, failed, timedOut, articlesAdded, elapsedMillis,
+                String.format("%.2f", pass.getThroughput()));
+        return pass;
+    }
+
+    private Semaphore permits() {
+        Semaphore current = permits;
+        if (current == null) {
+            synchronized (this) {
+                if (permits == null) {
+                    permits = new Semaphore(Math.max(1, fetchProperties.getConcurrency()));
+                }
+                current = permits;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 获取最近一轮抓取的报告
+     */
+    public FetchPassVO getLastPass() {
+        return lastPass;
+    }
+}
@@ -1,7 +1,10 @@
 package com.cq.RssHub.service.impl;
 
+import com.cq.RssHub.config.FetchProperties;
 import com.cq.RssHub.pojo.Article;
 import com.cq.RssHub.pojo.RssSource;
+import com.cq.RssHub.utils.HashUtil;
+import com.cq.RssHub.utils.SingleFlight;
 import com.rometools.rome.feed.synd.SyndContent;
 import com.rometools.rome.feed.synd.SyndEntry;
 import com.rometools.rome.feed.synd.SyndFeed;
@@ -9,29 +12,27 @@ import com.rometools.rome.io.FeedException;
 import com.rometools.rome.io.SyndFeedInput;
 import com.rometools.rome.io.XmlReader;
 import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
 import org.jsoup.safety.Safelist;
-import org.jsoup.select.Elements;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import javax.xml.stream.XMLStreamException;
+
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
 /**
@@ -42,13 +43,26 @@ import java.util.stream.Collectors;
 public class RssParserService {
     private static final Logger logger = LoggerFactory.getLogger(RssParserService.class);
     
-    // 用于异步处理的线程池
-    private final ExecutorService executorService = Executors.newFixedThreadPool(10);
+    // 正在进行的下载，按规范化后的URL合并
+    private final SingleFlight<String, FeedDownloader.Download> downloads = new SingleFlight<>();
+    
+    // 带超时、压缩和长度限制的下载，按主机限制并发连接数和请求速率
+    @Autowired
+    private FeedDownloader feedDownloader;
+    
+    @Autowired
+    private StreamingFeedParser streamingFeedParser;
+    
+    @Autowired
+    private FetchProperties fetchProperties;
     
-    // HTTP客户端，可重用
-    private final HttpClient httpClient = HttpClient.newBuilder()
-        .followRedirects(HttpClient.Redirect.NORMAL)
-        .build();
+    // 异步解析使用后台抓取线程池，队列满时提交方直接收到RejectedExecutionException
+    @Autowired
+    private FetchExecutors fetchExecutors;
+    
+    // 单次解析完成封面图、摘要和作者提取
+    @Autowired
+    private ContentAnalyzer contentAnalyzer;
     
     /**
      * 解析RSS URL
@@ -60,21 +74,14 @@ public class RssParserService {
         logger.info("开始解析RSS源: {}", url);
         
         try {
-            HttpRequest request = HttpRequest.newBuilder()
-                .uri(new URI(url))
-                .header("User-Agent", "RssHub/1.0")
-                .GET()
-                .build();
-            
-            HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            FeedDownloader.Download download = feedDownloader.download(url);
             
             // 检查响应状态
-            if (response.statusCode() != 200) {
-                throw new IOException("HTTP错误: " + response.statusCode());
+            if (download.getStatusCode() != 200) {
+                throw new IOException("HTTP错误: " + download.getStatusCode());
             }
             
-            SyndFeedInput input = new SyndFeedInput();
-            SyndFeed feed = input.build(new XmlReader(response.body()));
+            SyndFeed feed = buildFeed(download.getBody());
             
             logger.info("成功解析RSS源: {}, 文章数: {}", url, feed.getEntries().size());
             return feed;
@@ -93,10 +100,109 @@ public class RssParserService {
         }
     }
     
+    /**
+     * 条件抓取RSS源内容
+     * 携带上次保存的ETag和Last-Modified发送条件请求，服务端返回304
+     * 或内容哈希与上次一致时返回null，调用方应直接跳过解析和入库。
+     * 收到200响应时会把新的校验信息写回source：内容有变化时由调用方在保存成功后持久化，
+     * 内容哈希未变化时调用方需单独保存，否则后续请求会一直携带旧的校验信息
+     * @param source RSS源
+     * @return 响应内容，未变化时为null
+     * @throws Exception 网络异常
+     */
+    public byte[] fetchFeedContent(RssSource source) throws Exception {
+        String etag = emptyToNull(source.getEtag());
+        String lastModified = emptyToNull(source.getLastModified());
+        
+        // 多个源使用同一URL时，同一时间只发起一次下载，其他源复用下载结果
+        SingleFlight.Flight<FeedDownloader.Download> flight = downloads.execute(normalizeFeedUrl(source.getUrl()),
+            () -> feedDownloader.download(source, etag, lastModified));
+        FeedDownloader.Download download = flight.getValue();
+        if (flight.isJoined()) {
+            source.setDownloadShared(true);
+            logger.info("RSS源 {} 复用了同一URL正在进行的下载", source.getUrl());
+            // 304是针对发起方的校验信息，校验信息不同时需要自己重新请求
+            if (download.getStatusCode() == 304 && !download.requestedWith(etag, lastModified)) {
+                download = feedDownloader.download(source, etag, lastModified);
+                source.setBytesTransferred(download.getBytesTransferred());
+            }
+        } else {
+            source.setBytesTransferred(download.getBytesTransferred());
+        }
+        
+        if (download.getStatusCode() == 304) {
+            logger.info("RSS源未变化(304): {}", source.getUrl());
+            return null;
+        }
+        if (download.getStatusCode() != 200) {
+            throw new IOException("HTTP错误: " + download.getStatusCode());
+        }
+        
+        byte[] content = download.getBody();
+        String contentHash = HashUtil.sha256Hex(content);
+        source.setEtag(download.getEtag());
+        source.setLastModified(download.getLastModified());
+        
+        // 部分服务端不支持条件请求，通过内容哈希判断是否变化
+        if (contentHash.equals(source.getContentHash())) {
+            logger.info("RSS源内容哈希未变化: {}", source.getUrl());
+            return null;
+        }
+        source.setContentHash(contentHash);
+        return content;
+    }
+    
+    /**
+     * 规范化RSS源URL，用于判断不同的源是否指向同一个地址
+     * scheme和主机名不区分大小写，去掉默认端口和锚点
+     */
+    public static String normalizeFeedUrl(String url) {
+        try {
+            URI uri = new URI(url.trim()).normalize();
+            if (uri.getScheme() == null || uri.getHost() == null) {
+                return url.trim();
+            }
+            String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+            int port = uri.getPort();
+            if (("http".equals(scheme) && port == 80) || ("https".equals(scheme) && port == 443)) {
+                port = -1;
+            }
+            StringBuilder normalized = new StringBuilder(scheme).append("://")
+                .append(uri.getHost().toLowerCase(Locale.ROOT));
+            if (port != -1) {
+                normalized.append(':').append(port);
+            }
+            String path = uri.getRawPath();
+            normalized.append(path == null || path.isEmpty() ? "/" : path);
+            if (uri.getRawQuery() != null) {
+                normalized.append('?').append(uri.getRawQuery());
+            }
+            return normalized.toString();
+        } catch (URISyntaxException e) {
+            return url.trim();
+        }
+    }
+    
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+    
+    /**
+     * 从已下载的内容解析RSS
+     * @param content RSS内容
+     * @return 解析后的SyndFeed对象
+     * @throws Exception 解析异常
+     */
+    public SyndFeed buildFeed(byte[] content) throws Exception {
+        SyndFeedInput input = new SyndFeedInput();
+        return input.build(new XmlReader(new ByteArrayInputStream(content)));
+    }
+    
     /**
      * 异步解析RSS URL
      * @param url RSS源URL
      * @return 包含解析结果的CompletableFuture
+     * @throws java.util.concurrent.RejectedExecutionException 后台抓取线程池已满时
      */
     public CompletableFuture<SyndFeed> parseFeedAsync(String url) {
         return CompletableFuture.supplyAsync(() -> {
@@ -106,7 +212,7 @@ public class RssParserService {
                 logger.error("异步解析RSS源失败: {}", url, e);
                 throw new RuntimeException("解析失败: " + e.getMessage(), e);
             }
-        }, executorService);
+        }, fetchExecutors.background());
     }
     
     /**
@@ -123,9 +229,6 @@ public class RssParserService {
         article.setLink(entry.getLink());
         article.setSourceId(source.getId());
         
-        // 设置作者信息（增强版）
-        setAuthorInfo(article, entry, source);
-        
         // 设置发布日期
         if (entry.getPublishedDate() != null) {
             article.setPublishDate(convertToLocalDateTime(entry.getPublishedDate()));
@@ -147,49 +250,47 @@ public class RssParserService {
         else if (entry.getDescription() != null) {
             content = entry.getDescription().getValue();
         }
-        
-        String coverImage = null;
+        String description = entry.getDescription() != null ? entry.getDescription().getValue() : null;
         
         // 首先尝试从entry的各种媒体和链接中寻找封面图
-        coverImage = extractFromEntryMedia(entry);
+        String coverImage = extractFromEntryMedia(entry);
         
-        // 如果没找到，再从内容中提取
+        // 确定需要分析的HTML：未找到封面图时分析完整内容，否则分析描述
+        String analyzedHtml = null;
+        boolean hasBody = true;
         if (coverImage == null && content != null && !content.isEmpty()) {
             logger.debug("尝试从文章内容中提取封面图，文章标题: {}", entry.getTitle());
-            
             // 保存原始HTML内容
             article.setContent(content);
-            
-            // 从内容中提取第一张图片作为封面图
-            coverImage = extractFirstImage(content);
-            
-            // 清理HTML，设置摘要
-            String summary = cleanHtml(content);
-            
-            // 限制长度
-            if (summary.length() > 500) {
-                summary = summary.substring(0, 497) + "...";
-            }
-            article.setSummary(summary);
-        } 
-        // 如果没有提供内容，但有单独的摘要
-        else if (entry.getDescription() != null) {
-            String description = entry.getDescription().getValue();
-            
-            // 如果封面图仍未找到，尝试从描述中提取
+            analyzedHtml = content;
+        } else if (entry.getDescription() != null) {
+            analyzedHtml = description;
+        } else {
+            hasBody = false;
+        }
+        
+        // 条目本身没有作者时需要从描述中识别，描述即被分析的内容时复用同一次解析
+        String entryAuthor = resolveEntryAuthor(entry);
+        boolean authorFromDescription = entryAuthor == null && description != null;
+        boolean reuseParse = authorFromDescription && description.equals(analyzedHtml);
+        
+        if (hasBody) {
+            // 一次解析同时得到封面图、摘要和作者
+            ContentAnalyzer.Result analysis = contentAnalyzer.analyze(analyzedHtml, coverImage == null, reuseParse);
             if (coverImage == null) {
-                coverImage = extractFirstImage(description);
+                coverImage = analysis.getCoverImage();
             }
-            
-            // 清理HTML，只保留文本
-            String summary = cleanHtml(description);
-            
-            // 限制长度
-            if (summary.length() > 500) {
-                summary = summary.substring(0, 497) + "...";
+            article.setSummary(analysis.getSummary());
+            if (reuseParse) {
+                entryAuthor = analysis.getAuthor();
             }
-            article.setSummary(summary);
         }
+        if (authorFromDescription && !reuseParse) {
+            entryAuthor = contentAnalyzer.extractAuthor(description);
+        }
+        
+        // 以上方法都无法获取到作者信息时，使用RSS源名称
+        article.setAuthor(entryAuthor != null && !entryAuthor.isEmpty() ? entryAuthor : source.getName());
         
         // 确保设置封面图，如果所有尝试都失败，则使用默认占位图
         if (coverImage == null || coverImage.isEmpty()) {
@@ -245,18 +346,16 @@ public class RssParserService {
     }
     
     /**
-     * 设置文章作者信息，优先级：
+     * 获取条目自带的作者信息，优先级：
      * 1. entry.getAuthor()
      * 2. entry.getAuthors()列表
      * 3. entry.getContributors()列表
-     * 4. 从内容中解析byline
-     * 5. RSS源名称作为兜底
+     * 都没有时返回null，由调用方从内容中解析byline或使用RSS源名称兜底
      */
-    private void setAuthorInfo(Article article, SyndEntry entry, RssSource source) {
+    private String resolveEntryAuthor(SyndEntry entry) {
         // 优先使用entry自带的author字段
         if (entry.getAuthor() != null && !entry.getAuthor().isEmpty()) {
-            article.setAuthor(entry.getAuthor());
-            return;
+            return entry.getAuthor();
         }
         
         // 其次使用authors列表
@@ -267,8 +366,7 @@ public class RssParserService {
                     .collect(Collectors.joining(", "));
             
             if (!authors.isEmpty()) {
-                article.setAuthor(authors);
-                return;
+                return authors;
             }
         }
         
@@ -280,71 +378,7 @@ public class RssParserService {
                     .collect(Collectors.joining(", "));
             
             if (!contributors.isEmpty()) {
-                article.setAuthor(contributors);
-                return;
-            }
-        }
-        
-        // 尝试从内容中提取作者信息
-        if (entry.getDescription() != null) {
-            String authorFromContent = extractAuthorFromContent(entry.getDescription().getValue());
-            if (authorFromContent != null && !authorFromContent.isEmpty()) {
-                article.setAuthor(authorFromContent);
-                return;
-            }
-        }
-        
-        // 以上方法都无法获取到作者信息时，使用RSS源名称
-        article.setAuthor(source.getName());
-    }
-    
-    /**
-     * 从内容中提取作者信息
-     * 本方法尝试查找常见的作者标记模式，如"By Author Name"，"作者：XXX"等
-     */
-    private String extractAuthorFromContent(String content) {
-        if (content == null || content.isEmpty()) {
-            return null;
-        }
-        
-        // 使用Jsoup解析HTML
-        Document doc = Jsoup.parse(content);
-        
-        // 常见的作者标记class或meta
-        String[] authorSelectors = {
-            "span.author", ".byline", ".author", "meta[name=author]", ".meta-author", 
-            "[rel=author]", ".ArticleAuthor", ".article-author", ".entry-author"
-        };
-        
-        for (String selector : authorSelectors) {
-            Elements elements = doc.select(selector);
-            if (!elements.isEmpty()) {
-                return elements.first().text().trim();
-            }
-        }
-        
-        // 尝试查找"By "或"作者："等常见模式
-        String text = doc.text();
-        String[] authorPatterns = {
-            "By ", "by ", "作者：", "作者:", "記者", "撰文", "Author: ", "Written by "
-        };
-        
-        for (String pattern : authorPatterns) {
-            int index = text.indexOf(pattern);
-            if (index >= 0) {
-                // 找到模式后，提取后面的作者名
-                String afterPattern = text.substring(index + pattern.length());
-                // 尝试获取到下一个句号或逗号为止
-                int endIndex = Math.min(
-                    afterPattern.indexOf('.') != -1 ? afterPattern.indexOf('.') : Integer.MAX_VALUE,
-                    afterPattern.indexOf(',') != -1 ? afterPattern.indexOf(',') : Integer.MAX_VALUE
-                );
-                
-                if (endIndex == Integer.MAX_VALUE) {
-                    endIndex = Math.min(50, afterPattern.length()); // 最多取50个字符
-                }
-                
-                return afterPattern.substring(0, endIndex).trim();
+                return contributors;
             }
         }
         
@@ -355,330 +389,95 @@ public class RssParserService {
      * 从HTML内容中提取第一张图片的URL
      */
     public String extractFirstImage(String htmlContent) {
-        if (htmlContent == null || htmlContent.isEmpty()) {
-            return null;
-        }
-        
-        try {
-            // 首先尝试使用正则表达式提取
-            String imgSrc = extractImgSrcByRegex(htmlContent);
-            if (imgSrc != null && !imgSrc.isEmpty()) {
-                logger.debug("通过正则表达式提取到图片: {}", imgSrc);
-                return imgSrc;
-            }
-            
-            // 然后尝试使用Jsoup提取
-            Document doc = Jsoup.parse(htmlContent);
-            
-            // 尝试各种提取策略
-            String imageUrl = tryExtractImage(doc);
-            
-            // 标准化URL
-            if (imageUrl != null) {
-                return normalizeImageUrl(imageUrl);
-            }
-            
-            return null;
-        } catch (Exception e) {
-            logger.error("提取图片时出错: {}", e.getMessage());
-            return null;
-        }
+        return contentAnalyzer.extractCoverImage(htmlContent);
     }
     
     /**
-     * 使用正则表达式提取img标签的src属性
+     * 获取一个占位图
      */
-    private String extractImgSrcByRegex(String html) {
-        if (html == null || html.isEmpty()) {
-            return null;
-        }
-        
-        try {
-            // 更强大的正则表达式，处理各种img标签格式
-            // 匹配: <img src="URL" ... /> 或 <img src='URL' ... /> 或 <img src=URL ... />
-            java.util.regex.Pattern pattern = java.util.regex.Pattern.compile(
-                "<img[^>]+src\\s*=\\s*['\"]?([^'\"\\s>]+)['\"]?[^>]*>",
-                java.util.regex.Pattern.CASE_INSENSITIVE
-            );
-            
-            java.util.regex.Matcher matcher = pattern.matcher(html);
-            
-            if (matcher.find()) {
-                String src = matcher.group(1).trim();
-                
-                // 过滤掉可能的SVG、图标等
-                if (!isSmallIcon(src)) {
-                    logger.debug("通过正则找到图片URL: {}", src);
-                    return src;
-                }
-            }
-            
-            // 尝试查找背景图片
-            pattern = java.util.regex.Pattern.compile(
-                "background-image\\s*:\\s*url\\(['\"]?([^'\"\\)]+)['\"]?\\)",
-                java.util.regex.Pattern.CASE_INSENSITIVE
-            );
-            
-            matcher = pattern.matcher(html);
-            if (matcher.find()) {
-                String src = matcher.group(1).trim();
-                logger.debug("找到背景图片URL: {}", src);
-                return src;
-            }
-            
-            return null;
-        } catch (Exception e) {
-            logger.error("正则提取图片URL时出错: {}", e.getMessage());
-            return null;
-        }
+    private String getPlaceholderImage() {
+        // 返回一个默认的占位图URL
+        return "https://via.placeholder.com/300x200?text=No+Image";
     }
     
     /**
-     * 尝试多种方式提取图片
+     * 从RSS源获取文章列表
+     * 源内容未变化（304或内容哈希一致）时返回空列表
+     * @param source RSS源
+     * @param maxArticles 最大文章数量，如果为null则获取全部
+     * @return 文章列表
+     * @throws Exception 解析异常
      */
-    private String tryExtractImage(Document doc) {
-        String imgUrl = null;
-        
-        // 尝试提取大尺寸图片 (优先提取宽高最大的图片)
-        imgUrl = extractLargestImage(doc);
-        if (imgUrl != null) {
-            return normalizeImageUrl(imgUrl);
-        }
-        
-        // 尝试提取第一个非小图标图片
-        Elements imgElements = doc.select("img");
-        for (Element img : imgElements) {
-            String src = img.attr("src");
-            // 增加对srcset属性的检查
-            if (src.isEmpty()) {
-                String srcset = img.attr("srcset");
-                if (!srcset.isEmpty()) {
-                    // 从srcset中提取第一个URL (格式通常是"url 1x, url 2x")
-                    src = srcset.split("\\s+")[0];
-                }
-            }
-            
-            if (!src.isEmpty() && !isSmallIcon(src)) {
-                logger.debug("找到非小图标图片: {}", src);
-                return normalizeImageUrl(src);
-            }
-        }
-        
-        // 尝试提取背景图片
-        Elements elementsWithBg = doc.select("[style*=background-image]");
-        for (Element el : elementsWithBg) {
-            String style = el.attr("style");
-            if (style.contains("background-image")) {
-                java.util.regex.Pattern urlPattern = java.util.regex.Pattern.compile("background-image:\\s*url\\(['\"]?(.*?)['\"]?\\)");
-                java.util.regex.Matcher matcher = urlPattern.matcher(style);
-                if (matcher.find()) {
-                    String bgUrl = matcher.group(1);
-                    if (!isSmallIcon(bgUrl)) {
-                        logger.debug("找到背景图片: {}", bgUrl);
-                        return normalizeImageUrl(bgUrl);
-                    }
-                }
-            }
-        }
-        
-        // 尝试提取Open Graph和Twitter Card图片
-        imgUrl = extractMetaImage(doc);
-        if (imgUrl != null) {
-            return normalizeImageUrl(imgUrl);
-        }
-        
-        // 尝试从文章主体内容提取图片
-        Elements articleElements = doc.select("article, .article, .content, .post, main");
-        if (!articleElements.isEmpty()) {
-            for (Element article : articleElements) {
-                Elements articleImages = article.select("img");
-                for (Element img : articleImages) {
-                    String src = img.attr("src");
-                    if (!src.isEmpty() && !isSmallIcon(src)) {
-                        logger.debug("从文章主体找到图片: {}", src);
-                        return normalizeImageUrl(src);
-                    }
-                }
-            }
+    public List<Article> fetchArticlesFromSource(RssSource source, Integer maxArticles) throws Exception {
+        // 内容未变化时跳过解析和转换
+        byte[] content = fetchFeedContent(source);
+        if (content == null) {
+            return new ArrayList<>();
         }
-        
-        return null;
+        return parseArticles(content, source, maxArticles, Collections.emptySet());
     }
     
     /**
-     * 尝试提取最大尺寸的图片
+     * 从已下载的RSS内容中解析文章
+     * 启用流式解析时逐条读取条目，流式解析不支持的内容会回退到Rome解析。
+     * RSS源通常按发布时间倒序，遇到已入库的条目或早于水位线的条目即停止，只转换新条目；
+     * 发现源的条目顺序不可靠时不再提前停止，逐条跳过已入库的链接，其余条目全部转换。
+     * 解析后把新的水位线和顺序是否可靠写回source，由调用方在保存成功后持久化
+     * @param content RSS内容
+     * @param source RSS源
+     * @param maxArticles 最大文章数量，如果为null则获取全部
+     * @param knownLinks 该源已入库的文章链接
+     * @return 文章列表
+     * @throws Exception 解析异常
      */
-    private String extractLargestImage(Document doc) {
-        Elements images = doc.select("img");
-        int maxSize = 0;
-        String largestImageUrl = null;
-        
-        for (Element img : images) {
-            String width = img.attr("width");
-            String height = img.attr("height");
-            String src = img.attr("src");
-            
-            // 跳过没有src的图片
-            if (src.isEmpty()) continue;
-            
-            // 尝试从width和height属性判断图片大小
-            int imgWidth = 0;
-            int imgHeight = 0;
-            
+    public List<Article> parseArticles(byte[] content, RssSource source, Integer maxArticles,
+                                       Set<String> knownLinks) throws Exception {
+        int limit = maxArticles != null && maxArticles > 0 ? maxArticles : Integer.MAX_VALUE;
+        
+        if (Boolean.TRUE.equals(fetchProperties.getStreamingParser())) {
+            IngestCursor cursor = new IngestCursor(source, knownLinks, limit);
             try {
-                if (!width.isEmpty()) imgWidth = Integer.parseInt(width.replaceAll("[^0-9]", ""));
-                if (!height.isEmpty()) imgHeight = Integer.parseInt(height.replaceAll("[^0-9]", ""));
-            } catch (NumberFormatException e) {
-                // 忽略无法解析的数值
-            }
-            
-            int size = imgWidth * imgHeight;
-            
-            // 如果无法从属性获取尺寸，检查样式
-            if (size == 0) {
-                String style = img.attr("style");
-                if (style.contains("width") || style.contains("height")) {
-                    java.util.regex.Pattern widthPattern = java.util.regex.Pattern.compile("width:\\s*(\\d+)px");
-                    java.util.regex.Pattern heightPattern = java.util.regex.Pattern.compile("height:\\s*(\\d+)px");
-                    
-                    java.util.regex.Matcher widthMatcher = widthPattern.matcher(style);
-                    java.util.regex.Matcher heightMatcher = heightPattern.matcher(style);
-                    
-                    if (widthMatcher.find()) {
-                        imgWidth = Integer.parseInt(widthMatcher.group(1));
-                    }
-                    
-                    if (heightMatcher.find()) {
-                        imgHeight = Integer.parseInt(heightMatcher.group(1));
-                    }
-                    
-                    size = imgWidth * imgHeight;
-                }
+                int read = streamingFeedParser.parse(new ByteArrayInputStream(content), cursor::accept);
+                logger.info("流式解析RSS源: {}, 读取条目数: {}, 新条目数: {}", source.getUrl(), read, cursor.articles.size());
+                cursor.advanceWatermark();
+                return cursor.articles;
+            } catch (XMLStreamException e) {
+                logger.warn("流式解析失败，回退到Rome解析: {}, 原因: {}", source.getUrl(), e.getMessage());
             }
-            
-            // 如果尺寸足够大且不是小图标
-            if (size > maxSize && !isSmallIcon(src)) {
-                maxSize = size;
-                largestImageUrl = src;
-            }
-        }
-        
-        if (largestImageUrl != null) {
-            logger.debug("找到最大尺寸图片: {}，尺寸: {}", largestImageUrl, maxSize);
-        }
-        
-        return largestImageUrl;
-    }
-    
-    /**
-     * 尝试提取<meta>标签中的图片URL
-     */
-    private String extractMetaImage(Document doc) {
-        // 尝试Open Graph图片
-        String ogImage = doc.select("meta[property=og:image]").attr("content");
-        if (!ogImage.isEmpty()) {
-            logger.debug("找到Open Graph图片: {}", ogImage);
-            return ogImage;
-        }
-        
-        // 尝试Twitter Card图片
-        String twitterImage = doc.select("meta[name=twitter:image]").attr("content");
-        if (!twitterImage.isEmpty()) {
-            logger.debug("找到Twitter Card图片: {}", twitterImage);
-            return twitterImage;
-        }
-        
-        // 尝试文章图片相关meta标签
-        String articleImage = doc.select("meta[property=article:image], meta[name=thumbnail]").attr("content");
-        if (!articleImage.isEmpty()) {
-            logger.debug("找到文章图片meta标签: {}", articleImage);
-            return articleImage;
         }
         
-        return null;
-    }
-    
-    /**
-     * 判断是否是小图标
-     */
-    private boolean isSmallIcon(String imgUrl) {
-        if (imgUrl == null) return true;
-        
-        // 宽松条件：只过滤明显的图标和1x1像素图
-        return imgUrl.contains("1x1.gif") || 
-               imgUrl.contains("spacer.gif") ||
-               imgUrl.contains("blank.gif") ||
-               imgUrl.contains("pixel.gif");
-    }
-    
-    /**
-     * 标准化图片URL
-     */
-    private String normalizeImageUrl(String imgUrl) {
-        if (imgUrl == null || imgUrl.isEmpty()) {
-            return null;
-        }
-        
-        try {
-            // 去除URL前后空白
-            imgUrl = imgUrl.trim();
-            
-            // 处理相对URL
-            if (imgUrl.startsWith("//")) {
-                return "https:" + imgUrl;
-            } else if (imgUrl.startsWith("/")) {
-                // 相对路径需要域名，此处返回null后可由调用者处理
-                return null;
+        SyndFeed feed = buildFeed(content);
+        IngestCursor cursor = new IngestCursor(source, knownLinks, limit);
+        for (SyndEntry entry : feed.getEntries()) {
+            if (!cursor.accept(entry)) {
+                break;
             }
-            
-            // 检查URL是否有效
-            if (!imgUrl.startsWith("http://") && !imgUrl.startsWith("https://") && !imgUrl.startsWith("data:")) {
-                // 尝试添加https前缀
-                imgUrl = "https://" + imgUrl;
-            }
-            
-            // 移除图片URL中的转义字符
-            imgUrl = imgUrl.replace("&amp;", "&");
-            
-            return imgUrl;
-        } catch (Exception e) {
-            logger.error("标准化图片URL时出错: {}", e.getMessage());
-            return null;
         }
+        cursor.advanceWatermark();
+        return cursor.articles;
     }
     
     /**
-     * 获取一个占位图
+     * 条目的唯一标识：guid（Atom为id），没有时使用链接
      */
-    private String getPlaceholderImage() {
-        // 返回一个默认的占位图URL
-        return "https://via.placeholder.com/300x200?text=No+Image";
+    private String entryGuid(SyndEntry entry) {
+        if (entry.getUri() != null && !entry.getUri().isEmpty()) {
+            return entry.getUri();
+        }
+        return entry.getLink();
     }
     
     /**
-     * 从RSS源获取文章列表
-     * @param source RSS源
-     * @param maxArticles 最大文章数量，如果为null则获取全部
-     * @return 文章列表
-     * @throws Exception 解析异常
+     * 条目的发布时间，没有时使用更新时间，都没有时返回null
      */
-    public List<Article> fetchArticlesFromSource(RssSource source, Integer maxArticles) throws Exception {
-        SyndFeed feed = parseFeed(source.getUrl());
-        List<Article> articles = new ArrayList<>();
-        
-        List<SyndEntry> entries = feed.getEntries();
-        
-        // 如果指定了最大文章数，则限制获取数量
-        if (maxArticles != null && maxArticles > 0 && maxArticles < entries.size()) {
-            entries = entries.subList(0, maxArticles);
+    private LocalDateTime entryTime(SyndEntry entry) {
+        if (entry.getPublishedDate() != null) {
+            return convertToLocalDateTime(entry.getPublishedDate());
         }
-        
-        for (SyndEntry entry : entries) {
-            Article article = convertToArticle(entry, source);
-            articles.add(article);
+        if (entry.getUpdatedDate() != null) {
+            return convertToLocalDateTime(entry.getUpdatedDate());
         }
-        
-        return articles;
+        return null;
     }
     
     /**
@@ -686,6 +485,7 @@ public class RssParserService {
      * @param sources RSS源列表
      * @param maxArticlesPerSource 每个源最大获取的文章数量
      * @return 所有文章列表的CompletableFuture
+     * @throws java.util.concurrent.RejectedExecutionException 后台抓取线程池已满时
      */
     public CompletableFuture<List<Article>> fetchArticlesFromSourcesAsync(List<RssSource> sources, Integer maxArticlesPerSource) {
         List<CompletableFuture<List<Article>>> futures = sources.stream()
@@ -696,7 +496,7 @@ public class RssParserService {
                     logger.error("获取源文章失败: {}", source.getUrl(), e);
                     return List.<Article>of();
                 }
-            }, executorService))
+            }, fetchExecutors.background()))
             .collect(Collectors.toList());
         
         return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
@@ -753,4 +553,93 @@ public class RssParserService {
         LocalDateTime cutoffDate = LocalDateTime.now().minusDays(days);
         return publishDate.isAfter(cutoffDate);
     }
+    
+    /**
+     * 单次解析中按水位线筛选条目的状态
+     */
+    private class IngestCursor {
+        private final RssSource source;
+        private final Set<String> knownLinks;
+        private final int limit;
+        private final String watermarkGuid;
+        private final LocalDateTime watermarkTime;
+        // 开始时是否按顺序提前停止
+        private final boolean orderedAtStart;
+        private boolean ordered;
+        private boolean outOfOrder;
+        private boolean stopped;
+        private LocalDateTime previousTime;
+        private LocalDateTime newestTime;
+        private String newestGuid;
+        private final List<Article> articles = new ArrayList<>();
+        
+        IngestCursor(RssSource source, Set<String> knownLinks, int limit) {
+            this.source = source;
+            this.knownLinks = knownLinks;
+            this.limit = limit;
+            this.watermarkGuid = source.getWatermarkGuid();
+            this.watermarkTime = source.getWatermarkTime();
+            this.orderedAtStart = !Boolean.FALSE.equals(source.getWatermarkOrdered());
+            this.ordered = orderedAtStart;
+        }
+        
+        /**
+         * 处理一个条目
+         * @return 是否继续读取后续条目
+         */
+        boolean accept(SyndEntry entry) {
+            String guid = entryGuid(entry);
+            String guidHash = guid != null ? HashUtil.sha256Hex(guid) : null;
+            LocalDateTime time = entryTime(entry);
+            
+            // 后面的条目比前面的新，说明不是按时间倒序，本次起不再提前停止
+            if (time != null) {
+                if (previousTime != null && time.isAfter(previousTime)) {
+                    outOfOrder = true;
+                    ordered = false;
+                }
+                previousTime = time;
+            }
+            
+            boolean known = (entry.getLink() != null && knownLinks.contains(entry.getLink()))
+                    || (guidHash != null && guidHash.equals(watermarkGuid));
+            if (ordered && (known || (watermarkTime != null && time != null && time.isBefore(watermarkTime)))) {
+                stopped = true;
+                return false;
+            }
+            if (known) {
+                return true;
+            }
+            
+            articles.add(convertToArticle(entry, source));
+            if (time != null && (newestTime == null || time.isAfter(newestTime))) {
+                newestTime = time;
+                newestGuid = guidHash;
+            }
+            if (articles.size() >= limit) {
+                stopped = true;
+                return false;
+            }
+            return true;
+        }
+        
+        /**
+         * 把本次解析得到的水位线和顺序判断写回source
+         */
+        void advanceWatermark() {
+            if (newestTime != null && (watermarkTime == null || newestTime.isAfter(watermarkTime))) {
+                source.setWatermarkGuid(newestGuid);
+                source.setWatermarkTime(newestTime);
+            }
+            if (outOfOrder) {
+                if (orderedAtStart) {
+                    logger.info("RSS源 {} 的条目不是按时间倒序，改为完整转换", source.getUrl());
+                }
+                source.setWatermarkOrdered(false);
+            } else if (!orderedAtStart && !stopped) {
+                // 完整读完且顺序正确，恢复按水位线提前停止
+                source.setWatermarkOrdered(true);
+            }
+        }
+    }
 }
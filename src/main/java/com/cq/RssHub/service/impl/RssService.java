@@ -6,16 +6,18 @@ import com.cq.RssHub.mapper.RssSourceMapper;
 import com.cq.RssHub.pojo.Article;
 import com.cq.RssHub.pojo.FetchTask;
 import com.cq.RssHub.pojo.RssSource;
+import com.cq.RssHub.service.SystemSettingService;
+import com.cq.RssHub.utils.SingleFlight;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -25,6 +27,9 @@ import java.util.stream.Collectors;
 public class RssService {
     private static final Logger logger = LoggerFactory.getLogger(RssService.class);
     
+    // 判断条目是否已入库时参考的最近文章数
+    private static final int KNOWN_LINKS_WINDOW = 200;
+    
     @Autowired
     private RssSourceMapper rssSourceMapper;
     
@@ -37,41 +42,79 @@ public class RssService {
     @Autowired
     private RssParserService rssParserService;
     
+    @Autowired
+    private RssFetchEngine rssFetchEngine;
+    
+    @Autowired
+    private ArticleBatchWriter articleBatchWriter;
+    
+    @Autowired
+    private FetchPersistService fetchPersistService;
+    
+    @Autowired
+    private SourceCircuitBreaker sourceCircuitBreaker;
+
+    @Autowired
+    private FeedArchive feedArchive;
+
+    @Autowired
+    private SystemSettingService systemSettingService;
+
+    @Autowired
+    private ArticleCountService articleCountService;
+    
+    // 正在进行的抓取，同一源的并发抓取复用同一次结果
+    private final SingleFlight<Integer, Integer> sourceFetches = new SingleFlight<>();
+    
     /**
      * 抓取所有活跃的RSS源
+     * 到期的源交由抓取引擎并发处理，单个慢源不会阻塞其他源。
+     * 定时抓取由FetchScheduler按各源的到期时间调度，这里只用于手动全量抓取
      */
-    @Scheduled(fixedDelayString = "${rss.fetch.interval:3600000}")
     public void fetchAllActiveRssSources() {
         logger.info("开始抓取RSS源...");
-        List<RssSource> activeSources = rssSourceMapper.findByFilters(null, null, "active");
-        
-        for (RssSource source : activeSources) {
-            try {
-                // 检查是否需要抓取，基于频率和上次抓取时间
-                if (shouldFetchSource(source)) {
-                    logger.info("抓取RSS源: {}", source.getName());
-                    fetchAndSaveArticles(source);
-                    
-                    // 更新上次抓取时间
-                    rssSourceMapper.updateLastFetchTime(source.getId());
-                }
-            } catch (Exception e) {
-                logger.error("抓取RSS源失败: " + source.getName(), e);
-                // 更新错误信息
-                source.setErrorMessage(e.getMessage());
-                source.setStatus("error");
-                rssSourceMapper.update(source);
-            }
+        List<RssSource> activeSources;
+        try {
+            activeSources = rssSourceMapper.findByFilters(null, null, "active");
+        } catch (Exception e) {
+            logger.error("查询活跃RSS源失败", e);
+            return;
         }
+        
+        // 检查是否需要抓取，基于频率和上次抓取时间
+        List<RssSource> dueSources = activeSources.stream()
+                .filter(this::shouldFetchSource)
+                .collect(Collectors.toList());
+        
+        rssFetchEngine.runPass(dueSources, this::fetchScheduledSource);
         logger.info("RSS源抓取完成");
     }
     
+    /**
+     * 定时任务中抓取单个RSS源
+     * @return 新抓取的文章数量
+     */
+    public int fetchScheduledSource(RssSource source) {
+        try {
+            logger.info("抓取RSS源: {}", source.getName());
+            SingleFlight.Flight<Integer> flight = fetchSource(source);
+            
+            // 更新上次抓取时间
+            rssSourceMapper.updateLastFetchTime(source.getId());
+            // 复用的抓取结果已由发起方计数
+            return flight.isJoined() ? 0 : flight.getValue();
+        } catch (Exception e) {
+            // 失败次数和重试时间已由熔断器记录
+            logger.error("抓取RSS源失败: " + source.getName(), e);
+            throw e;
+        }
+    }
+    
     /**
      * 立即抓取单个RSS源
      * @param sourceId RSS源ID
      * @return 新抓取的文章数量
      */
-    @Transactional
     public int fetchRssSourceNow(Integer sourceId) {
         // 创建并记录抓取任务
         FetchTask task = new FetchTask();
@@ -83,6 +126,22 @@ public class RssService {
         // 保存任务
         fetchTaskMapper.insert(task);
         
+        return runFetchTask(task);
+    }
+    
+    /**
+     * 执行已入队的抓取任务，任务状态依次更新为running、completed或failed
+     * @param task 已保存的抓取任务
+     * @return 新抓取的文章数量
+     */
+    public int runFetchTask(FetchTask task) {
+        Integer sourceId = task.getSourceId();
+        if (!"running".equals(task.getStatus())) {
+            task.setStatus("running");
+            task.setStartTime(LocalDateTime.now());
+            fetchTaskMapper.update(task);
+        }
+        
         try {
             // 获取RSS源信息
             RssSource source = rssSourceMapper.findById(sourceId);
@@ -94,19 +153,23 @@ public class RssService {
                 return 0;
             }
             
-            // 抓取并保存文章
-            List<Article> newArticles = fetchAndSaveArticles(source);
+            // 抓取并保存文章，该源正在抓取时复用其结果
+            SingleFlight.Flight<Integer> flight = fetchSource(source);
+            // 复用的抓取结果已由发起方计数，与定时抓取一致
+            int articlesAdded = flight.isJoined() ? 0 : flight.getValue();
             
             // 更新上次抓取时间
             rssSourceMapper.updateLastFetchTime(sourceId);
             
             // 更新任务状态
+            task.setJoined(flight.isJoined() || source.isDownloadShared());
+            task.setBytesTransferred(source.getBytesTransferred());
             task.setStatus("completed");
-            task.setArticlesAdded(newArticles.size());
+            task.setArticlesAdded(articlesAdded);
             task.setEndTime(LocalDateTime.now());
             fetchTaskMapper.update(task);
             
-            return newArticles.size();
+            return articlesAdded;
         } catch (Exception e) {
             logger.error("抓取RSS源失败: " + sourceId, e);
             
@@ -121,66 +184,96 @@ public class RssService {
     }
     
     /**
-     * 抓取并保存文章
+     * 抓取并保存文章，该源正在抓取时等待并复用其结果
      * @param rssSource RSS源
-     * @return 新保存的文章列表
+     * @return 实际新插入的文章数量
      */
-    @Transactional
-    public List<Article> fetchAndSaveArticles(RssSource rssSource) {
-        List<Article> savedArticles = new ArrayList<>();
-        
+    public int fetchAndSaveArticles(RssSource rssSource) {
+        return fetchSource(rssSource).getValue();
+    }
+    
+    /**
+     * 同一源同一时间只抓取一次，抓取期间到达的请求（如手动抓取与定时调度重叠）直接等待同一结果，
+     * 不会重复下载、解析，也不会并发执行去重查询。
+     * 抓取结果交给熔断器记录，连续失败的源按指数退避延后重试
+     */
+    private SingleFlight.Flight<Integer> fetchSource(RssSource rssSource) {
         try {
-            // 使用RssParserService抓取文章
-            List<Article> articles = rssParserService.fetchArticlesFromSource(rssSource, null);
-            
-            if (articles.isEmpty()) {
-                logger.info("RSS源 {} 没有新文章", rssSource.getName());
-                return savedArticles;
-            }
-            
-            // 添加日志记录每篇文章的封面图
-            for (Article article : articles) {
-                if (article.getCoverImage() != null) {
-                    logger.info("文章 [{}] 获取到封面图: {}", article.getTitle(), article.getCoverImage());
-                } else {
-                    logger.warn("文章 [{}] 没有封面图", article.getTitle());
+            return sourceFetches.execute(rssSource.getId(), () -> {
+                try {
+                    int inserted = doFetchAndSaveArticles(rssSource);
+                    sourceCircuitBreaker.recordSuccess(rssSource);
+                    return inserted;
+                } catch (Exception e) {
+                    sourceCircuitBreaker.recordFailure(rssSource, e);
+                    throw e;
                 }
+            });
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+    
+    /**
+     * 抓取并保存文章
+     * 下载、解析和去重查询都不在事务中，不会在网络I/O期间占用数据库连接，
+     * 最后由FetchPersistService在一个短事务中完成写入
+     * @param rssSource RSS源
+     * @return 实际新插入的文章数量，并发写入的重复链接被唯一索引忽略，不计入
+     * @throws Exception 下载、解析或写入失败
+     */
+    private int doFetchAndSaveArticles(RssSource rssSource) throws Exception {
+        // 下载阶段：使用RssParserService抓取内容，内容未变化时跳过解析
+        String etag = rssSource.getEtag();
+        String lastModified = rssSource.getLastModified();
+        byte[] content = rssParserService.fetchFeedContent(rssSource);
+        if (content == null) {
+            logger.info("RSS源 {} 内容未变化", rssSource.getName());
+            // 内容哈希未变化但服务端换了校验信息时单独保存，下次条件请求才能命中304
+            if (!Objects.equals(etag, rssSource.getEtag())
+                    || !Objects.equals(lastModified, rssSource.getLastModified())) {
+                rssSourceMapper.updateFetchValidators(rssSource);
             }
-            
-            // 过滤已存在的文章（通过链接判断）
-            List<String> links = articles.stream()
-                    .map(Article::getLink)
-                    .collect(Collectors.toList());
-            
-            List<String> existingLinks = articleMapper.findExistingLinks(links);
-            
-            List<Article> newArticles = articles.stream()
-                    .filter(article -> !existingLinks.contains(article.getLink()))
-                    .collect(Collectors.toList());
-            
-            // 保存新文章
-            for (Article article : newArticles) {
-                articleMapper.insert(article);
-                savedArticles.add(article);
-                logger.info("保存文章 [{}], 封面图: {}", article.getTitle(), article.getCoverImage());
+            return 0;
+        }
+        
+        // 归档原始内容，解析逻辑变化后可离线重新处理
+        feedArchive.archive(rssSource.getId(), rssSource.getContentHash(), content);
+        
+        // 解析到已入库的条目即停止，只转换新条目
+        Set<String> knownLinks = new HashSet<>(
+                articleMapper.findRecentLinksBySourceId(rssSource.getId(), KNOWN_LINKS_WINDOW));
+        List<Article> articles = rssParserService.parseArticles(content, rssSource, null, knownLinks);
+        
+        if (articles.isEmpty()) {
+            logger.info("RSS源 {} 没有新文章", rssSource.getName());
+            // 仍需保存本次的校验信息，下次抓取才能识别内容未变化
+            fetchPersistService.persist(rssSource, articles);
+            return 0;
+        }
+        
+        // 添加日志记录每篇文章的封面图
+        for (Article article : articles) {
+            if (article.getCoverImage() != null) {
+                logger.info("文章 [{}] 获取到封面图: {}", article.getTitle(), article.getCoverImage());
+            } else {
+                logger.warn("文章 [{}] 没有封面图", article.getTitle());
             }
-            
-            logger.info("从RSS源 {} 抓取了 {} 篇新文章", rssSource.getName(), savedArticles.size());
-            
-            // 更新RSS源状态
-            rssSource.setArticleCount(rssSource.getArticleCount() + savedArticles.size());
-            rssSource.setErrorMessage(null);
-            rssSource.setStatus("active");
-            rssSourceMapper.update(rssSource);
-            
-        } catch (Exception e) {
-            logger.error("处理RSS源内容失败: " + rssSource.getName(), e);
-            rssSource.setErrorMessage(e.getMessage());
-            rssSource.setStatus("error");
-            rssSourceMapper.update(rssSource);
         }
         
-        return savedArticles;
+        // 过滤已存在的文章（通过链接哈希判断）
+        List<Article> newArticles = articleBatchWriter.filterNew(articles);
+        
+        // 写入阶段：只在这里短暂占用连接和事务
+        int inserted = fetchPersistService.persist(rssSource, newArticles);
+        if (inserted > 0) {
+            articleCountService.invalidate(rssSource.getId(), rssSource.getCategoryId());
+        }
+        
+        logger.info("从RSS源 {} 抓取了 {} 篇新文章", rssSource.getName(), inserted);
+        return inserted;
     }
     
     /**
@@ -197,55 +290,10 @@ public class RssService {
         
         // 根据频率（分钟）计算是否需要更新
         long minutesSinceLastFetch = java.time.Duration.between(lastFetch, now).toMinutes();
-        return minutesSinceLastFetch >= source.getFrequency();
+        int frequency = source.getFrequency() != null
+                ? source.getFrequency()
+                : systemSettingService.getSnapshot().getDefaultFetchFrequency();
+        return minutesSinceLastFetch >= frequency;
     }
     
-    /**
-     * 重新提取已存在文章的封面图
-     * 可用于修复之前没有封面图的文章
-     * @param sourceId 指定源ID，如果为null则处理所有文章
-     * @return 更新文章数量
-     */
-    @Transactional
-    public int reprocessArticleCoverImages(Integer sourceId) {
-        logger.info("开始重新处理文章封面图，sourceId={}", sourceId);
-        int updatedCount = 0;
-        
-        try {
-            // 获取需要处理的文章列表
-            List<Article> articles;
-            if (sourceId != null) {
-                articles = articleMapper.findByFilters(null, sourceId, null, null, null, null, null);
-            } else {
-                // 获取所有封面图为空的文章
-                articles = articleMapper.findArticlesWithoutCoverImage();
-            }
-            
-            logger.info("找到{}篇需要处理封面图的文章", articles.size());
-            
-            for (Article article : articles) {
-                if (article.getContent() != null && !article.getContent().isEmpty()) {
-                    // 使用RssParserService提取封面图
-                    String coverImage = rssParserService.extractFirstImage(article.getContent());
-                    
-                    if (coverImage != null && !coverImage.isEmpty()) {
-                        logger.info("为文章[{}]提取到封面图: {}", article.getTitle(), coverImage);
-                        article.setCoverImage(coverImage);
-                        // 更新文章
-                        articleMapper.update(article);
-                        updatedCount++;
-                    } else {
-                        logger.warn("无法为文章[{}]提取有效封面图", article.getTitle());
-                    }
-                }
-            }
-            
-            logger.info("成功更新{}篇文章的封面图", updatedCount);
-        } catch (Exception e) {
-            logger.error("重新处理文章封面图时发生错误", e);
-            throw new RuntimeException("处理封面图失败", e);
-        }
-        
-        return updatedCount;
-    }
 } 
\ No newline at end of file
@@ -1,18 +1,24 @@
 package com.cq.RssHub.service.impl;
 
+import com.cq.RssHub.mapper.CategoryMapper;
 import com.cq.RssHub.mapper.RssSourceMapper;
 import com.cq.RssHub.pojo.RssSource;
 import com.cq.RssHub.pojo.vo.PageRssSourceVO;
 import com.cq.RssHub.pojo.vo.RssSourceVO;
 import com.cq.RssHub.service.RssSourceService;
+import com.cq.RssHub.service.SystemSettingService;
 import com.github.pagehelper.Page;
 import com.github.pagehelper.PageHelper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 
 @Service
 @Slf4j
@@ -21,6 +27,15 @@ public class RssSourceServiceImpl implements RssSourceService {
     @Autowired
     private RssSourceMapper rssSourceMapper;
 
+    @Autowired
+    private CategoryMapper categoryMapper;
+    
+    @Autowired
+    private FetchScheduler fetchScheduler;
+
+    @Autowired
+    private SystemSettingService systemSettingService;
+
     @Override
     public PageRssSourceVO getRssSources(Integer page, Integer pageSize, String keyword, Integer categoryId, String status) {
         log.info("获取RSS源列表: keyword={}, categoryId={}, status={}", keyword, categoryId, status);
@@ -54,12 +69,14 @@ public class RssSourceServiceImpl implements RssSourceService {
     }
 
     @Override
+    @Transactional
     public int createRssSource(RssSource rssSource) {
         log.info("创建RSS源: {}", rssSource.getName());
         
         // 设置默认值
         if (rssSource.getFrequency() == null) {
-            rssSource.setFrequency(60); // 默认60分钟
+            // 默认抓取频率取系统设置
+            rssSource.setFrequency(systemSettingService.getSnapshot().getDefaultFetchFrequency());
         }
         if (rssSource.getStatus() == null) {
             rssSource.setStatus("active");
@@ -70,10 +87,17 @@ public class RssSourceServiceImpl implements RssSourceService {
         
         // 创建时间和更新时间由数据库生成
         
-        return rssSourceMapper.insert(rssSource);
+        int rows = rssSourceMapper.insert(rssSource);
+        if (rssSource.getCategoryId() != null) {
+            categoryMapper.applySource(rssSource.getCategoryId(), rssSource.getId(), 1);
+        }
+        // 新源加入调度，立即到期；提交后再加入，调度线程才能查到这个源
+        afterCommit(() -> fetchScheduler.upsert(rssSource));
+        return rows;
     }
 
     @Override
+    @Transactional
     public int updateRssSource(RssSource rssSource) {
         log.info("更新RSS源: id={}, name={}", rssSource.getId(), rssSource.getName());
         
@@ -87,14 +111,50 @@ public class RssSourceServiceImpl implements RssSourceService {
         // 保留原始不应修改的字段
         rssSource.setLastFetchTime(existingSource.getLastFetchTime());
         rssSource.setArticleCount(existingSource.getArticleCount());
+        // 未指定频率时保持原频率
+        if (rssSource.getFrequency() == null) {
+            rssSource.setFrequency(existingSource.getFrequency());
+        }
         
-        return rssSourceMapper.update(rssSource);
+        // URL变化后旧的条件请求校验信息和增量抓取水位线都不再有效，
+        // 否则新地址中早于旧水位线的条目会被当作已入库而跳过
+        if (rssSource.getUrl() != null && !rssSource.getUrl().equals(existingSource.getUrl())) {
+            rssSource.setEtag(null);
+            rssSource.setLastModified(null);
+            rssSource.setContentHash(null);
+            rssSourceMapper.updateFetchValidators(rssSource);
+            rssSource.setWatermarkGuid(null);
+            rssSource.setWatermarkTime(null);
+            rssSource.setWatermarkOrdered(true);
+            rssSourceMapper.updateWatermark(rssSource);
+        }
+        
+        // 换分类时把RSS源和它的文章数从原分类移到新分类
+        boolean categoryChanged = !Objects.equals(rssSource.getCategoryId(), existingSource.getCategoryId());
+        if (categoryChanged && existingSource.getCategoryId() != null) {
+            categoryMapper.applySource(existingSource.getCategoryId(), rssSource.getId(), -1);
+        }
+        int rows = rssSourceMapper.update(rssSource);
+        if (categoryChanged && rssSource.getCategoryId() != null) {
+            categoryMapper.applySource(rssSource.getCategoryId(), rssSource.getId(), 1);
+        }
+        // 频率或状态可能变化，提交后重新计算到期时间
+        afterCommit(() -> fetchScheduler.upsert(rssSource));
+        return rows;
     }
 
     @Override
+    @Transactional
     public int deleteRssSource(Integer id) {
         log.info("删除RSS源: id={}", id);
-        return rssSourceMapper.deleteById(id);
+        // 文章随RSS源级联删除，先从分类中扣除该源和它的文章数
+        RssSource existingSource = rssSourceMapper.findById(id);
+        if (existingSource != null && existingSource.getCategoryId() != null) {
+            categoryMapper.applySource(existingSource.getCategoryId(), id, -1);
+        }
+        int rows = rssSourceMapper.deleteById(id);
+        afterCommit(() -> fetchScheduler.remove(id));
+        return rows;
     }
 
     @Override
@@ -102,4 +162,20 @@ public class RssSourceServiceImpl implements RssSourceService {
         log.info("更新RSS源最后抓取时间: id={}", id);
         return rssSourceMapper.updateLastFetchTime(id);
     }
+
+    /**
+     * 当前事务提交后再执行，不在事务中时立即执行
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
 }
@@ -0,0 +1,101 @@
+package com.cq.RssHub.service.impl;
+
+import com.cq.RssHub.config.FetchProperties;
+import com.cq.RssHub.mapper.RssSourceMapper;
+import com.cq.RssHub.pojo.RssSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * RSS源熔断器
+ * 连续失败未达到阈值时源仍按原频率抓取；达到阈值后源状态变为error（熔断），
+ * 在下次重试时间之前不再占用抓取资源，重试间隔随失败次数指数增长。
+ * 到达重试时间后调度器试探抓取一次（半开），成功即恢复为active
+ */
+@Component
+public class SourceCircuitBreaker {
+    private static final Logger logger = LoggerFactory.getLogger(SourceCircuitBreaker.class);
+
+    // 错误信息字段的最大长度
+    private static final int ERROR_MESSAGE_MAX_LENGTH = 500;
+
+    @Autowired
+    private RssSourceMapper rssSourceMapper;
+
+    @Autowired
+    private FetchProperties fetchProperties;
+
+    /**
+     * 记录一次成功的抓取，之前有失败记录时清除并恢复为活跃状态
+     */
+    public void recordSuccess(RssSource source) {
+        int failures = source.getConsecutiveFailures() != null ? source.getConsecutiveFailures() : 0;
+        if (failures == 0 && !"error".equals(source.getStatus())) {
+            return;
+        }
+        if ("error".equals(source.getStatus())) {
+            logger.info("RSS源 {} 试探抓取成功，恢复为活跃状态", source.getName());
+        }
+        source.setConsecutiveFailures(0);
+        source.setNextRetryTime(null);
+        source.setErrorMessage(null);
+        if ("error".equals(source.getStatus())) {
+            source.setStatus("active");
+        }
+        rssSourceMapper.resetFetchFailures(source.getId());
+    }
+
+    /**
+     * 记录一次失败的抓取，连续失败达到阈值时熔断并计算下次重试时间
+     */
+    public void recordFailure(RssSource source, Exception e) {
+        int failures = (source.getConsecutiveFailures() != null ? source.getConsecutiveFailures() : 0) + 1;
+        source.setConsecutiveFailures(failures);
+        source.setErrorMessage(truncate(e.getMessage()));
+
+        int threshold = Math.max(1, fetchProperties.getFailureThreshold());
+        // 停用的源（如手动抓取）只记录失败，不进入熔断，也就不会因此重新加入调度
+        if (failures >= threshold && !"inactive".equals(source.getStatus())) {
+            Duration backoff = backoff(failures - threshold);
+            source.setStatus("error");
+            source.setNextRetryTime(LocalDateTime.now().plus(backoff));
+            logger.warn("RSS源 {} 连续失败 {} 次，{}分钟后重试", source.getName(), failures, backoff.toMinutes());
+        }
+        rssSourceMapper.updateFetchFailure(source);
+    }
+
+    /**
+     * 源是否处于熔断中（还未到重试时间）
+     */
+    public static boolean isOpen(RssSource source) {
+        return "error".equals(source.getStatus())
+                && source.getNextRetryTime() != null
+                && source.getNextRetryTime().isAfter(LocalDateTime.now());
+    }
+
+    /**
+     * 熔断后第n次重试的等待时间：基础间隔 * 2^n，不超过上限
+     */
+    private Duration backoff(int retries) {
+        Duration base = fetchProperties.getRetryBackoff();
+        Duration max = fetchProperties.getMaxRetryBackoff();
+        // 超过30次翻倍必然超过上限，避免位移溢出
+        if (retries >= 30) {
+            return max;
+        }
+        Duration backoff = base.multipliedBy(1L << retries);
+        return backoff.compareTo(max) > 0 ? max : backoff;
+    }
+
+    private String truncate(String message) {
+        if (message == null || message.length() <= ERROR_MESSAGE_MAX_LENGTH) {
+            return message;
+        }
+        return message.substring(0, ERROR_MESSAGE_MAX_LENGTH);
+    }
+}
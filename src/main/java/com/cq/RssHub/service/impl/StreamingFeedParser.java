@@ -0,0 +1,366 @@
+package com.cq.RssHub.service.impl;
+
+import com.rometools.rome.feed.synd.SyndContent;
+import com.rometools.rome.feed.synd.SyndContentImpl;
+import com.rometools.rome.feed.synd.SyndEnclosure;
+import com.rometools.rome.feed.synd.SyndEnclosureImpl;
+import com.rometools.rome.feed.synd.SyndEntry;
+import com.rometools.rome.feed.synd.SyndEntryImpl;
+import com.rometools.rome.feed.synd.SyndPerson;
+import com.rometools.rome.feed.synd.SyndPersonImpl;
+import com.rometools.rome.io.impl.DateParser;
+import org.springframework.stereotype.Component;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+
+/**
+ * 基于StAX的流式RSS/Atom解析器
+ * 逐条读取条目，不构建完整的文档树，处理函数返回false时立即停止读取。
+ * 条目字段的映射规则与Rome保持一致，生成的SyndEntry可直接交给convertToArticle转换
+ */
+@Component
+public class StreamingFeedParser {
+
+    private static final String CONTENT_NS = "http://purl.org/rss/1.0/modules/content/";
+    private static final String DC_NS = "http://purl.org/dc/elements/1.1/";
+    private static final String ATOM_10_NS = "http://www.w3.org/2005/Atom";
+    private static final String ATOM_03_NS = "http://purl.org/atom/ns#";
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = createInputFactory();
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        // 禁用DTD和外部实体，防止XXE
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+
+    /**
+     * 流式解析RSS 2.0/RSS 1.0/Atom内容
+     * @param in RSS内容输入流
+     * @param handler 条目处理函数，返回false时停止读取后续条目
+     * @return 实际读取的条目数
+     * @throws XMLStreamException 内容不是合法的XML或不是支持的订阅格式
+     */
+    public int parse(InputStream in, Predicate<SyndEntry> handler) throws XMLStreamException {
+        XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(in);
+        try {
+            String root = null;
+            int count = 0;
+            while (reader.hasNext()) {
+                if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                    continue;
+                }
+                String name = reader.getLocalName();
+                if (root == null) {
+                    root = name;
+                    if (!"rss".equals(root) && !"feed".equals(root) && !"RDF".equals(root)) {
+                        throw new XMLStreamException("不支持的订阅格式: " + root);
+                    }
+                    continue;
+                }
+
+                SyndEntry entry;
+                if ("feed".equals(root) && "entry".equals(name)) {
+                    entry = readAtomEntry(reader);
+                } else if (!"feed".equals(root) && "item".equals(name)) {
+                    entry = readRssItem(reader);
+                } else {
+                    continue;
+                }
+                count++;
+                if (!handler.test(entry)) {
+                    break;
+                }
+            }
+            if (root == null) {
+                throw new XMLStreamException("RSS内容为空");
+            }
+            return count;
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * 读取RSS的item元素，规则同Rome的RSS转换器：
+     * dc:creator优先于author，pubDate缺失时使用dc:date，link缺失时使用永久链接形式的guid
+     */
+    private SyndEntry readRssItem(XMLStreamReader reader) throws XMLStreamException {
+        SyndEntryImpl entry = new SyndEntryImpl();
+        String link = null;
+        String guid = null;
+        boolean guidIsPermaLink = true;
+        String author = null;
+        String creator = null;
+        Date pubDate = null;
+        Date dcDate = null;
+        List<SyndContent> contents = new ArrayList<>();
+        List<SyndEnclosure> enclosures = new ArrayList<>();
+
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                break;
+            }
+            if (event != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+            String name = reader.getLocalName();
+            String ns = reader.getNamespaceURI();
+            if (CONTENT_NS.equals(ns) && "encoded".equals(name)) {
+                contents.add(createContent("html", readInnerXml(reader)));
+            } else if (DC_NS.equals(ns) && "creator".equals(name)) {
+                creator = readInnerXml(reader).trim();
+            } else if (DC_NS.equals(ns) && "date".equals(name)) {
+                dcDate = parseDate(readInnerXml(reader));
+            } else if (isDefaultNamespace(ns) && "title".equals(name)) {
+                entry.setTitle(readInnerXml(reader));
+            } else if (isDefaultNamespace(ns) && "link".equals(name)) {
+                link = readInnerXml(reader).trim();
+            } else if (isDefaultNamespace(ns) && "description".equals(name)) {
+                entry.setDescription(createContent("text/html", readInnerXml(reader)));
+            } else if (isDefaultNamespace(ns) && "author".equals(name)) {
+                author = readInnerXml(reader).trim();
+            } else if (isDefaultNamespace(ns) && "pubDate".equals(name)) {
+                pubDate = parseDate(readInnerXml(reader));
+            } else if (isDefaultNamespace(ns) && "guid".equals(name)) {
+                guidIsPermaLink = !"false".equalsIgnoreCase(reader.getAttributeValue(null, "isPermaLink"));
+                guid = readInnerXml(reader).trim();
+            } else if (isDefaultNamespace(ns) && "enclosure".equals(name)) {
+                SyndEnclosureImpl enclosure = new SyndEnclosureImpl();
+                enclosure.setUrl(reader.getAttributeValue(null, "url"));
+                enclosure.setType(reader.getAttributeValue(null, "type"));
+                enclosures.add(enclosure);
+                skipElement(reader);
+            } else {
+                skipElement(reader);
+            }
+        }
+
+        if (link == null || link.isEmpty()) {
+            link = guid != null && guidIsPermaLink ? guid : null;
+        }
+        entry.setLink(link);
+        entry.setUri(guid != null ? guid : link);
+        if (creator != null && !creator.isEmpty()) {
+            entry.setAuthor(creator);
+        } else if (author != null && !author.isEmpty()) {
+            entry.setAuthor(author);
+        }
+        entry.setPublishedDate(pubDate != null ? pubDate : dcDate);
+        entry.setContents(contents);
+        entry.setEnclosures(enclosures);
+        return entry;
+    }
+
+    /**
+     * 读取Atom的entry元素，规则同Rome的Atom转换器：
+     * 优先使用alternate链接，作者取author列表，summary作为描述，content作为内容
+     */
+    private SyndEntry readAtomEntry(XMLStreamReader reader) throws XMLStreamException {
+        SyndEntryImpl entry = new SyndEntryImpl();
+        String alternateLink = null;
+        String otherLink = null;
+        List<SyndPerson> authors = new ArrayList<>();
+        List<SyndPerson> contributors = new ArrayList<>();
+        List<SyndContent> contents = new ArrayList<>();
+        List<SyndEnclosure> enclosures = new ArrayList<>();
+
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                break;
+            }
+            if (event != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+            // 忽略扩展命名空间中的同名元素（如media:title）
+            if (!isAtomNamespace(reader.getNamespaceURI())) {
+                skipElement(reader);
+                continue;
+            }
+            switch (reader.getLocalName()) {
+                case "title" -> entry.setTitle(readInnerXml(reader));
+                case "id" -> entry.setUri(readInnerXml(reader).trim());
+                case "link" -> {
+                    String rel = reader.getAttributeValue(null, "rel");
+                    String href = reader.getAttributeValue(null, "href");
+                    if (rel == null || "alternate".equals(rel)) {
+                        if (alternateLink == null) {
+                            alternateLink = href;
+                        }
+                    } else if ("enclosure".equals(rel)) {
+                        SyndEnclosureImpl enclosure = new SyndEnclosureImpl();
+                        enclosure.setUrl(href);
+                        enclosure.setType(reader.getAttributeValue(null, "type"));
+                        enclosures.add(enclosure);
+                    } else if (otherLink == null) {
+                        otherLink = href;
+                    }
+                    skipElement(reader);
+                }
+                case "author" -> authors.add(readPerson(reader));
+                case "contributor" -> contributors.add(readPerson(reader));
+                case "published", "issued" -> entry.setPublishedDate(parseDate(readInnerXml(reader)));
+                case "updated", "modified" -> entry.setUpdatedDate(parseDate(readInnerXml(reader)));
+                case "summary" -> {
+                    String type = reader.getAttributeValue(null, "type");
+                    entry.setDescription(createContent(type, readInnerXml(reader)));
+                }
+                case "content" -> {
+                    String type = reader.getAttributeValue(null, "type");
+                    contents.add(createContent(type, readInnerXml(reader)));
+                }
+                default -> skipElement(reader);
+            }
+        }
+
+        entry.setLink(alternateLink != null ? alternateLink : otherLink);
+        entry.setAuthors(authors);
+        entry.setContributors(contributors);
+        entry.setContents(contents);
+        entry.setEnclosures(enclosures);
+        return entry;
+    }
+
+    /**
+     * 读取Atom的person结构（author/contributor）
+     */
+    private SyndPerson readPerson(XMLStreamReader reader) throws XMLStreamException {
+        SyndPersonImpl person = new SyndPersonImpl();
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                break;
+            }
+            if (event != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+            if (!isAtomNamespace(reader.getNamespaceURI())) {
+                skipElement(reader);
+                continue;
+            }
+            switch (reader.getLocalName()) {
+                case "name" -> person.setName(readInnerXml(reader).trim());
+                case "email" -> person.setEmail(readInnerXml(reader).trim());
+                case "uri" -> person.setUri(readInnerXml(reader).trim());
+                default -> skipElement(reader);
+            }
+        }
+        return person;
+    }
+
+    /**
+     * 读取当前元素的全部内容，读取完成后reader停在该元素的结束标签上。
+     * 纯文本（包括CDATA中的HTML）原样返回；内嵌的子元素（如Atom的xhtml内容）序列化为标记
+     */
+    private String readInnerXml(XMLStreamReader reader) throws XMLStreamException {
+        StringBuilder sb = new StringBuilder();
+        int depth = 0;
+        while (reader.hasNext()) {
+            int event = reader.next();
+            switch (event) {
+                case XMLStreamConstants.START_ELEMENT -> {
+                    depth++;
+                    sb.append('<').append(qualifiedName(reader.getPrefix(), reader.getLocalName()));
+                    for (int i = 0; i < reader.getAttributeCount(); i++) {
+                        sb.append(' ')
+                          .append(qualifiedName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i)))
+                          .append("=\"");
+                        escape(sb, reader.getAttributeValue(i));
+                        sb.append('"');
+                    }
+                    sb.append('>');
+                }
+                case XMLStreamConstants.END_ELEMENT -> {
+                    if (depth == 0) {
+                        return sb.toString();
+                    }
+                    depth--;
+                    sb.append("</").append(qualifiedName(reader.getPrefix(), reader.getLocalName())).append('>');
+                }
+                case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA, XMLStreamConstants.SPACE -> {
+                    if (depth == 0) {
+                        sb.append(reader.getText());
+                    } else {
+                        escape(sb, reader.getText());
+                    }
+                }
+                default -> {
+                    // 忽略注释和处理指令
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 跳过当前元素及其所有子元素
+     */
+    private void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 0;
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                if (depth == 0) {
+                    return;
+                }
+                depth--;
+            }
+        }
+    }
+
+    private boolean isDefaultNamespace(String ns) {
+        // RSS 2.0没有命名空间，RSS 1.0使用自己的默认命名空间
+        return ns == null || ns.isEmpty() || "http://purl.org/rss/1.0/".equals(ns);
+    }
+
+    private boolean isAtomNamespace(String ns) {
+        return ATOM_10_NS.equals(ns) || ATOM_03_NS.equals(ns);
+    }
+
+    private SyndContent createContent(String type, String value) {
+        SyndContent content = new SyndContentImpl();
+        content.setType(type);
+        content.setValue(value);
+        return content;
+    }
+
+    private Date parseDate(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        return DateParser.parseDate(text.trim(), Locale.US);
+    }
+
+    private String qualifiedName(String prefix, String localName) {
+        return prefix == null || prefix.isEmpty() ? localName : prefix + ":" + localName;
+    }
+
+    private void escape(StringBuilder sb, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&' -> sb.append("&amp;");
+                case '<' -> sb.append("&lt;");
+                case '>' -> sb.append("&gt;");
+                case '"' -> sb.append("&quot;");
+                default -> sb.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.cq.RssHub.service.impl;
+
+import com.cq.RssHub.mapper.SystemSettingMapper;
+import com.cq.RssHub.pojo.SettingsSnapshot;
+import com.cq.RssHub.service.SystemSettingService;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 系统设置服务
+ * 设置加载为不可变快照保存在内存中，抓取、调度和清理等组件直接读取快照，不访问数据库。
+ * 更新设置后本节点立即重新加载，并通过Redis频道通知其他节点重新加载；
+ * Redis不可用时各节点仍会定时从数据库刷新，最终一致
+ */
+@Service
+public class SystemSettingServiceImpl implements SystemSettingService, MessageListener {
+    private static final Logger logger = LoggerFactory.getLogger(SystemSettingServiceImpl.class);
+
+    // 设置变更通知频道，消息内容为发出通知的节点ID
+    static final String CHANNEL = "rss:settings:changed";
+
+    @Autowired
+    private SystemSettingMapper systemSettingMapper;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private RedisMessageListenerContainer redisMessageListenerContainer;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // 本节点ID，忽略自己发出的通知
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AtomicReference<SettingsSnapshot> snapshot = new AtomicReference<>(SettingsSnapshot.defaults());
+    private final AtomicLong versions = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    @Override
+    public SettingsSnapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    @Override
+    public Map<String, Object> getSettings() {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        snapshot.get().getValues().forEach((key, value) -> settings.put(key, value.matches("-?\\d{1,9}") ? Integer.valueOf(value) : value));
+        return settings;
+    }
+
+    @Override
+    public void updateSettings(Map<String, Object> settings) {
+        if (settings == null || settings.isEmpty()) {
+            return;
+        }
+        Map<String, String> values = new LinkedHashMap<>();
+        settings.forEach((key, value) -> values.put(key, validate(key, value)));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> values.forEach((key, value) -> {
+            if (systemSettingMapper.updateValue(key, value) == 0) {
+                throw new IllegalArgumentException("未知的设置项: " + key);
+            }
+        }));
+        logger.info("系统设置已更新: {}", values.keySet());
+
+        reload();
+        publish();
+    }
+
+    /**
+     * 定时从数据库刷新，启动时立即加载一次；错过变更通知（如Redis不可用）的节点也能最终加载到新设置。
+     * 同时检查变更通知的订阅，Redis恢复后重新订阅
+     */
+    @Scheduled(fixedDelayString = "${rss.settings.refresh-interval:5m}")
+    public void refresh() {
+        subscribe();
+        reload();
+    }
+
+    @Override
+    public boolean reload() {
+        try {
+            SettingsSnapshot next = SettingsSnapshot.of(systemSettingMapper.findAll(), versions.incrementAndGet());
+            snapshot.set(next);
+            logger.debug("系统设置已加载，版本 {}", next.getVersion());
+            return true;
+        } catch (Exception e) {
+            logger.warn("加载系统设置失败，继续使用版本 {} 的设置: {}", snapshot.get().getVersion(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 收到其他节点的变更通知时重新加载
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String sender = new String(message.getBody(), StandardCharsets.UTF_8);
+        if (!nodeId.equals(sender)) {
+            reload();
+        }
+    }
+
+    private void subscribe() {
+        if (redisMessageListenerContainer.isListening()) {
+            return;
+        }
+        try {
+            // 上次订阅失败时容器仍标记为已启动，先停止再重新启动
+            redisMessageListenerContainer.stop();
+            redisMessageListenerContainer.start();
+            logger.info("已订阅系统设置变更通知");
+        } catch (Exception e) {
+            redisMessageListenerContainer.stop();
+            logger.warn("订阅系统设置变更通知失败，将在下次刷新时重试: {}", e.getMessage());
+        }
+    }
+
+    private void publish() {
+        try {
+            stringRedisTemplate.convertAndSend(CHANNEL, nodeId);
+        } catch (Exception e) {
+            logger.warn("通知其他节点重新加载设置失败，其他节点将在定时刷新时加载: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 校验设置值，数值设置必须是有效的整数
+     */
+    private String validate(String key, Object value) {
+        if (value == null) {
+            throw new IllegalArgumentException("设置值不能为空: " + key);
+        }
+        String text = value.toString().trim();
+        switch (key) {
+            case SettingsSnapshot.DEFAULT_FETCH_FREQUENCY, SettingsSnapshot.CLEANUP_INTERVAL -> requireInt(key, text, 1);
+            case SettingsSnapshot.MAX_ARTICLE_AGE -> requireInt(key, text, 0);
+            default -> {
+            }
+        }
+        return text;
+    }
+
+    private void requireInt(String key, String text, int min) {
+        try {
+            if (Integer.parseInt(text) >= min) {
+                return;
+            }
+        } catch (NumberFormatException e) {
+            // 按无效值处理
+        }
+        throw new IllegalArgumentException("设置 " + key + " 必须是不小于" + min + "的整数");
+    }
+}
@@ -0,0 +1,40 @@
+package com.cq.RssHub.utils;
+
+import java.util.StringJoiner;
+
+public class FullTextQueryUtil {
+    // 布尔模式下有特殊含义的字符，用户输入中的这些字符按分隔符处理
+    private static final String OPERATORS = "+-<>()~*\"@";
+
+    /**
+     * 把用户输入的关键词转换为MySQL全文检索的布尔模式查询串
+     * 按空白拆分，每个词都必须出现。匹配范围与原来的LIKE子串匹配并不相同：
+     * 多字词按短语匹配，要求ngram分词后的各片段相邻且有序，接近子串匹配；
+     * 单字词短于ngram分词长度，按前缀匹配，只能命中以该字开头的分词片段，
+     * 即该字后面还紧跟其他字符的位置，该字在词尾或单独成词时匹配不到；
+     * 布尔模式的运算符字符被当作分隔符去掉，如"C++"变为单字"C"的前缀匹配，
+     * 会命中所有含有"C"开头片段的文章，范围远大于原词
+     * @param keyword 用户输入的关键词
+     * @return 查询串，关键词为空或只包含特殊字符时返回null
+     */
+    public static String toBooleanQuery(String keyword) {
+        if (keyword == null) {
+            return null;
+        }
+        StringBuilder cleaned = new StringBuilder(keyword.length());
+        keyword.codePoints().forEach(c -> cleaned.appendCodePoint(OPERATORS.indexOf(c) >= 0 ? ' ' : c));
+
+        StringJoiner query = new StringJoiner(" ");
+        for (String term : cleaned.toString().trim().split("\\s+")) {
+            if (term.isEmpty()) {
+                continue;
+            }
+            if (term.codePointCount(0, term.length()) == 1) {
+                query.add("+" + term + "*");
+            } else {
+                query.add("+\"" + term + "\"");
+            }
+        }
+        return query.length() > 0 ? query.toString() : null;
+    }
+}
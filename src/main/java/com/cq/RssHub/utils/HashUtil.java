@@ -0,0 +1,28 @@
+package com.cq.RssHub.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+public class HashUtil {
+    /**
+     * 计算数据的SHA-256摘要，返回小写十六进制字符串
+     */
+    public static String sha256Hex(byte[] data) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            // 所有JVM都必须支持SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 计算字符串（UTF-8编码）的SHA-256摘要，与MySQL的SHA2(str, 256)结果一致
+     */
+    public static String sha256Hex(String text) {
+        return sha256Hex(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,99 @@
+package com.cq.RssHub.utils;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 相同key的并发调用只执行一次
+ * 第一个调用方在自己的线程中执行，执行期间到达的其他调用方等待同一个CompletableFuture，
+ * 得到相同的结果或异常。执行结束后key即被移除，之后的调用会重新执行
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong joinCount = new AtomicLong();
+
+    /**
+     * 执行调用，相同key已有调用在进行时等待其结果
+     * @param key 调用的key
+     * @param call 实际执行的调用
+     * @return 调用结果及是否复用了其他调用方的结果
+     * @throws Exception 调用抛出的异常
+     */
+    public Flight<V> execute(K key, Callable<V> call) throws Exception {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            joinCount.incrementAndGet();
+            return new Flight<>(await(existing), true);
+        }
+
+        try {
+            V value = call.call();
+            created.complete(value);
+            return new Flight<>(value, false);
+        } catch (Throwable e) {
+            // 包括Error在内都要结束future，否则等待中的调用方会一直阻塞
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, created);
+        }
+    }
+
+    /**
+     * 正在进行的调用数
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * 复用其他调用方结果的次数
+     */
+    public long getJoinCount() {
+        return joinCount.get();
+    }
+
+    private V await(CompletableFuture<V> future) throws Exception {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 调用结果
+     */
+    public static class Flight<V> {
+        private final V value;
+        private final boolean joined;
+
+        Flight(V value, boolean joined) {
+            this.value = value;
+            this.joined = joined;
+        }
+
+        public V getValue() {
+            return value;
+        }
+
+        /**
+         * 是否复用了同一时间其他调用方的结果
+         */
+        public boolean isJoined() {
+            return joined;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+-- 文章按(publish_date, id)倒序的游标分页使用的组合索引，每页只沿索引读取一页的行，与翻到第几页无关
+-- 游标分页要求publish_date非空，历史数据中缺失的发布时间用入库时间补齐
+UPDATE article SET publish_date = create_time WHERE publish_date IS NULL;
+
+ALTER TABLE article
+    ADD INDEX idx_article_publish_id (publish_date, id),
+    ADD INDEX idx_article_source_publish_id (source_id, publish_date, id);
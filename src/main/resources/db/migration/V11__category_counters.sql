@@ -0,0 +1,13 @@
+-- 分类上冗余维护RSS源数和文章数，分类列表直接读取计数，不再关联rss_source和article表做COUNT(DISTINCT)
+-- 计数随文章增删和RSS源增删、换分类增量更新，每天由对账任务修正偏差
+ALTER TABLE category
+    ADD COLUMN source_count INT NOT NULL DEFAULT 0 COMMENT 'RSS源数',
+    ADD COLUMN article_count INT NOT NULL DEFAULT 0 COMMENT '文章数';
+
+-- 先按实际文章修正RSS源的文章数，再汇总到分类
+UPDATE rss_source rs
+SET rs.article_count = (SELECT COUNT(*) FROM article a WHERE a.source_id = rs.id);
+
+UPDATE category c
+SET c.source_count = (SELECT COUNT(*) FROM rss_source rs WHERE rs.category_id = c.id),
+    c.article_count = (SELECT COALESCE(SUM(rs.article_count), 0) FROM rss_source rs WHERE rs.category_id = c.id);
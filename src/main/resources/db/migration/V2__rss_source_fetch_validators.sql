@@ -0,0 +1,5 @@
+-- RSS源条件请求校验信息：抓取时携带If-None-Match/If-Modified-Since，内容未变化时跳过解析
+ALTER TABLE rss_source
+    ADD COLUMN etag VARCHAR(255) NULL COMMENT '上次响应的ETag',
+    ADD COLUMN last_modified VARCHAR(64) NULL COMMENT '上次响应的Last-Modified',
+    ADD COLUMN content_hash CHAR(64) NULL COMMENT '上次响应内容的SHA-256';
@@ -0,0 +1,16 @@
+-- 文章链接哈希：定长唯一键，入库时INSERT IGNORE去重，并发抓取也不会插入重复文章
+ALTER TABLE article
+    ADD COLUMN link_hash CHAR(64) NULL COMMENT '链接的SHA-256' AFTER link;
+
+UPDATE article SET link_hash = SHA2(link, 256);
+
+-- 清理已存在的重复文章，保留最早入库的一条
+DELETE a FROM article a
+    JOIN article b ON a.link_hash = b.link_hash AND a.id > b.id;
+DELETE f FROM article_favorite f
+    LEFT JOIN article a ON f.article_id = a.id
+    WHERE a.id IS NULL;
+
+ALTER TABLE article
+    MODIFY COLUMN link_hash CHAR(64) NOT NULL COMMENT '链接的SHA-256',
+    ADD UNIQUE KEY uk_article_link_hash (link_hash);
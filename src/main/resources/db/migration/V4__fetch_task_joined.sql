@@ -0,0 +1,3 @@
+-- 抓取任务是否复用了同一源或同一URL正在进行的抓取，而不是自己发起下载
+ALTER TABLE fetch_task
+    ADD COLUMN joined TINYINT(1) NOT NULL DEFAULT 0 COMMENT '是否复用了正在进行的抓取' AFTER error_message;
@@ -0,0 +1,4 @@
+-- RSS源熔断：记录连续失败次数，失败达到阈值后按指数退避计算下次重试时间
+ALTER TABLE rss_source
+    ADD COLUMN consecutive_failures INT NOT NULL DEFAULT 0 COMMENT '连续抓取失败次数',
+    ADD COLUMN next_retry_time DATETIME NULL COMMENT '熔断后的下次重试时间';
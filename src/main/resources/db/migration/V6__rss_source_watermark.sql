@@ -0,0 +1,5 @@
+-- 增量抓取水位线：解析到已入库的最新条目或更早的条目即停止，只转换新条目
+ALTER TABLE rss_source
+    ADD COLUMN watermark_guid CHAR(64) NULL COMMENT '最新已入库条目guid的SHA-256',
+    ADD COLUMN watermark_time DATETIME NULL COMMENT '最新已入库条目的发布时间',
+    ADD COLUMN watermark_ordered TINYINT(1) NOT NULL DEFAULT 1 COMMENT '条目是否按发布时间倒序';
@@ -0,0 +1,7 @@
+-- 单个RSS源可覆盖全局的连接超时和读取超时；抓取任务记录实际传输的字节数，便于找出体积大的源
+ALTER TABLE rss_source
+    ADD COLUMN connect_timeout INT NULL COMMENT '连接超时（秒），为空时使用全局配置',
+    ADD COLUMN read_timeout INT NULL COMMENT '读取超时（秒），为空时使用全局配置';
+
+ALTER TABLE fetch_task
+    ADD COLUMN bytes_transferred BIGINT NOT NULL DEFAULT 0 COMMENT '下载实际传输的字节数' AFTER joined;
@@ -0,0 +1,13 @@
+-- 后台批处理任务的进度，任务中断（停止、重启、失败）后从上次处理到的ID继续
+CREATE TABLE IF NOT EXISTS job_checkpoint (
+    job_name      VARCHAR(64)  NOT NULL COMMENT '任务名称',
+    status        VARCHAR(20)  NOT NULL COMMENT '任务状态：running、paused、completed、failed',
+    last_id       INT          NOT NULL DEFAULT 0 COMMENT '已处理到的记录ID',
+    end_id        INT          NOT NULL DEFAULT 0 COMMENT '本轮任务处理到的最大记录ID',
+    processed     INT          NOT NULL DEFAULT 0 COMMENT '已扫描的记录数',
+    updated       INT          NOT NULL DEFAULT 0 COMMENT '已更新的记录数',
+    error_message VARCHAR(500) NULL COMMENT '错误信息',
+    start_time    DATETIME     NULL COMMENT '本轮任务开始时间',
+    update_time   DATETIME     NULL COMMENT '更新时间',
+    PRIMARY KEY (job_name)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COMMENT = '后台任务进度表';
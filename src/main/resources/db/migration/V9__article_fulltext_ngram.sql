@@ -0,0 +1,5 @@
+-- 文章全文索引，替代 LIKE '%关键词%' 的全表扫描
+-- 使用ngram分词器按字切分，中文没有空格分词也能检索；分词长度由MySQL的ngram_token_size决定（默认2）。
+-- 文章写入时由InnoDB自动维护索引
+ALTER TABLE article
+    ADD FULLTEXT INDEX ft_article_text (title, summary, content) WITH PARSER ngram;
@@ -0,0 +1,152 @@
+package com.cq.RssHub.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.cq.RssHub.service.impl.ContentAnalyzer;
+import com.cq.RssHub.service.impl.CoverImageExtractor;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.safety.Safelist;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 文章内容分析基准测试
+ * 对比改造前（正则+Jsoup.parse提取封面图、Jsoup.clean生成摘要、再次Jsoup.parse识别作者）
+ * 与ContentAnalyzer单次解析的每条耗时、CPU时间和内存分配量。
+ * 样本取自db/article.sql中的文章正文，在IDE中直接运行main方法即可
+ */
+public class ContentAnalysisBenchmark {
+
+    private static final int WARMUP_ROUNDS = 100;
+    private static final int MEASURE_ROUNDS = 100;
+
+    private static final String[] AUTHOR_SELECTORS = {
+        "span.author", ".byline", ".author", "meta[name=author]", ".meta-author",
+        "[rel=author]", ".ArticleAuthor", ".article-author", ".entry-author"
+    };
+    private static final String[] AUTHOR_PATTERNS = {
+        "By ", "by ", "作者：", "作者:", "記者", "撰文", "Author: ", "Written by "
+    };
+
+    public static void main(String[] args) throws IOException {
+        // 未加载Spring配置时logback默认输出DEBUG日志，会干扰测量结果
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.INFO);
+
+        List<String> samples = loadSamples();
+        System.out.println("样本数: " + samples.size());
+
+        ContentAnalyzer analyzer = new ContentAnalyzer();
+        ReflectionTestUtils.setField(analyzer, "coverImageExtractor", new CoverImageExtractor());
+        Consumer<String> legacy = ContentAnalysisBenchmark::legacyPipeline;
+        Consumer<String> singlePass = html -> analyzer.analyze(html, true, true);
+
+        run(samples, legacy, WARMUP_ROUNDS);
+        run(samples, singlePass, WARMUP_ROUNDS);
+        report("改造前", run(samples, legacy, MEASURE_ROUNDS), samples.size() * MEASURE_ROUNDS);
+        report("单次解析", run(samples, singlePass, MEASURE_ROUNDS), samples.size() * MEASURE_ROUNDS);
+    }
+
+    /**
+     * 改造前convertToArticle对同一内容的处理：封面图、摘要、作者各解析一次
+     */
+    private static void legacyPipeline(String html) {
+        Matcher matcher = Pattern.compile("<img[^>]+src\\s*=\\s*['\"]?([^'\"\\s>]+)['\"]?[^>]*>",
+                Pattern.CASE_INSENSITIVE).matcher(html);
+        if (!matcher.find()) {
+            Jsoup.parse(html).select("img");
+        }
+        Jsoup.clean(html, Safelist.basic());
+        Document doc = Jsoup.parse(html);
+        for (String selector : AUTHOR_SELECTORS) {
+            if (!doc.select(selector).isEmpty()) {
+                return;
+            }
+        }
+        String text = doc.text();
+        for (String pattern : AUTHOR_PATTERNS) {
+            if (text.indexOf(pattern) >= 0) {
+                return;
+            }
+        }
+    }
+
+    private static long[] run(List<String> samples, Consumer<String> pipeline, int rounds) {
+        com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+
+        long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+        long cpuBefore = threadBean.getCurrentThreadCpuTime();
+        long wallBefore = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            for (String html : samples) {
+                pipeline.accept(html);
+            }
+        }
+        return new long[] {
+                System.nanoTime() - wallBefore,
+                threadBean.getCurrentThreadCpuTime() - cpuBefore,
+                threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore
+        };
+    }
+
+    private static void report(String name, long[] result, int entries) {
+        System.out.printf("%s: 每条耗时 %.1fµs, CPU时间 %.1fµs, 分配 %.1fKB%n", name,
+                result[0] / 1000.0 / entries, result[1] / 1000.0 / entries, result[2] / 1024.0 / entries);
+    }
+
+    /**
+     * 从article.sql的INSERT语句中取出content字段（每行第4个字符串字面量）
+     */
+    static List<String> loadSamples() throws IOException {
+        List<String> samples = new ArrayList<>();
+        try (InputStream in = ContentAnalysisBenchmark.class.getResourceAsStream("/db/article.sql")) {
+            if (in == null) {
+                throw new IOException("找不到db/article.sql");
+            }
+            for (String line : new String(in.readAllBytes(), StandardCharsets.UTF_8).split("\n")) {
+                if (!line.startsWith("INSERT")) {
+                    continue;
+                }
+                List<String> literals = readLiterals(line.substring(line.indexOf("VALUES")));
+                if (literals.size() >= 4) {
+                    samples.add(literals.get(3));
+                }
+            }
+        }
+        return samples;
+    }
+
+    private static List<String> readLiterals(String values) {
+        List<String> literals = new ArrayList<>();
+        StringBuilder current = null;
+        for (int i = 0; i < values.length(); i++) {
+            char c = values.charAt(i);
+            if (current == null) {
+                if (c == '\'') {
+                    current = new StringBuilder();
+                }
+            } else if (c == '\\' && i + 1 < values.length()) {
+                char next = values.charAt(++i);
+                current.append(next == 'n' ? '\n' : next == 'r' ? '\r' : next == 't' ? '\t' : next);
+            } else if (c == '\'') {
+                literals.add(current.toString());
+                current = null;
+            } else {
+                current.append(c);
+            }
+        }
+        return literals;
+    }
+}
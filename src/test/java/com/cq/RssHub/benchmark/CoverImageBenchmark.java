@@ -0,0 +1,138 @@
+package com.cq.RssHub.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.cq.RssHub.service.impl.CoverImageExtractor;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 封面图提取吞吐量基准测试
+ * 对比原先基于正则和Jsoup的提取方式与CoverImageExtractor的每秒处理条数，
+ * 并检查两者在db/article.sql样本上的提取结果是否一致，在IDE中直接运行main方法即可
+ */
+public class CoverImageBenchmark {
+
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int MEASURE_ROUNDS = 500;
+
+    public static void main(String[] args) throws IOException {
+        // 未加载Spring配置时logback默认输出DEBUG日志，会干扰测量结果
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.INFO);
+
+        List<String> samples = ContentAnalysisBenchmark.loadSamples();
+        // 去掉第一张图片，让样本同时覆盖需要完整扫描的分支
+        List<String> withoutFirstImage = samples.stream()
+                .map(html -> html.replaceFirst("(?i)<img[^>]*>", ""))
+                .toList();
+        samples = new java.util.ArrayList<>(samples);
+        samples.addAll(withoutFirstImage);
+        System.out.println("样本数: " + samples.size());
+
+        CoverImageExtractor extractor = new CoverImageExtractor();
+        int mismatches = 0;
+        for (String html : samples) {
+            String expected = legacyExtract(html);
+            String actual = extractor.extract(html);
+            if (!Objects.equals(expected, actual)) {
+                mismatches++;
+                System.out.println("结果不一致: " + expected + " -> " + actual);
+            }
+        }
+        System.out.println("结果不一致数: " + mismatches);
+
+        run(samples, CoverImageBenchmark::legacyExtract, WARMUP_ROUNDS);
+        run(samples, extractor::extract, WARMUP_ROUNDS);
+        report("改造前", run(samples, CoverImageBenchmark::legacyExtract, MEASURE_ROUNDS), samples.size() * MEASURE_ROUNDS);
+        report("字符扫描", run(samples, extractor::extract, MEASURE_ROUNDS), samples.size() * MEASURE_ROUNDS);
+    }
+
+    private static long run(List<String> samples, Function<String, String> extractor, int rounds) {
+        long start = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            for (String html : samples) {
+                extractor.apply(html);
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static void report(String name, long elapsedNanos, int entries) {
+        System.out.printf("%s: %.0f条/秒, 每条 %.1fµs%n", name,
+                entries * 1_000_000_000.0 / elapsedNanos, elapsedNanos / 1000.0 / entries);
+    }
+
+    /**
+     * 改造前的提取逻辑：先用正则匹配，失败后解析整个文档依次尝试各种策略
+     */
+    private static String legacyExtract(String html) {
+        Matcher matcher = Pattern.compile("<img[^>]+src\\s*=\\s*['\"]?([^'\"\\s>]+)['\"]?[^>]*>",
+                Pattern.CASE_INSENSITIVE).matcher(html);
+        if (matcher.find() && !isSmallIcon(matcher.group(1).trim())) {
+            return matcher.group(1).trim();
+        }
+        matcher = Pattern.compile("background-image\\s*:\\s*url\\(['\"]?([^'\"\\)]+)['\"]?\\)",
+                Pattern.CASE_INSENSITIVE).matcher(html);
+        if (matcher.find()) {
+            return matcher.group(1).trim();
+        }
+
+        Document doc = Jsoup.parse(html);
+        int maxSize = 0;
+        String largest = null;
+        for (Element img : doc.select("img")) {
+            String src = img.attr("src");
+            if (src.isEmpty()) continue;
+            int width = img.attr("width").isEmpty() ? 0 : Integer.parseInt(img.attr("width").replaceAll("[^0-9]", ""));
+            int height = img.attr("height").isEmpty() ? 0 : Integer.parseInt(img.attr("height").replaceAll("[^0-9]", ""));
+            if (width * height > maxSize && !isSmallIcon(src)) {
+                maxSize = width * height;
+                largest = src;
+            }
+        }
+        if (largest != null) {
+            return normalize(largest);
+        }
+        for (Element img : doc.select("img")) {
+            String src = img.attr("src");
+            if (src.isEmpty() && !img.attr("srcset").isEmpty()) {
+                src = img.attr("srcset").split("\\s+")[0];
+            }
+            if (!src.isEmpty() && !isSmallIcon(src)) {
+                return normalize(src);
+            }
+        }
+        String meta = doc.select("meta[property=og:image]").attr("content");
+        if (meta.isEmpty()) {
+            meta = doc.select("meta[name=twitter:image]").attr("content");
+        }
+        return meta.isEmpty() ? null : normalize(meta);
+    }
+
+    private static boolean isSmallIcon(String url) {
+        return url.contains("1x1.gif") || url.contains("spacer.gif")
+                || url.contains("blank.gif") || url.contains("pixel.gif");
+    }
+
+    private static String normalize(String url) {
+        url = url.trim();
+        if (url.startsWith("//")) {
+            return "https:" + url;
+        } else if (url.startsWith("/")) {
+            return null;
+        }
+        if (!url.startsWith("http://") && !url.startsWith("https://") && !url.startsWith("data:")) {
+            url = "https://" + url;
+        }
+        return url.replace("&amp;", "&");
+    }
+}
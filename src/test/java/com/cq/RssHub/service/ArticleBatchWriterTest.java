@@ -0,0 +1,111 @@
+package com.cq.RssHub.service;
+
+import com.cq.RssHub.config.FetchProperties;
+import com.cq.RssHub.mapper.ArticleMapper;
+import com.cq.RssHub.pojo.Article;
+import com.cq.RssHub.service.impl.ArticleBatchWriter;
+import com.cq.RssHub.utils.HashUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ArticleBatchWriterTest {
+
+    @Mock
+    private ArticleMapper articleMapper;
+
+    @InjectMocks
+    private ArticleBatchWriter articleBatchWriter;
+
+    private FetchProperties fetchProperties;
+
+    @BeforeEach
+    public void setup() {
+        fetchProperties = new FetchProperties();
+        ReflectionTestUtils.setField(articleBatchWriter, "fetchProperties", fetchProperties);
+    }
+
+    private List<Article> createArticles(int count) {
+        List<Article> articles = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Article article = new Article();
+            article.setLink("https://example.com/" + i);
+            articles.add(article);
+        }
+        return articles;
+    }
+
+    @Test
+    public void testWrite_SplitsIntoChunks() {
+        fetchProperties.setWriteBatchSize(100);
+        List<Integer> chunkSizes = new ArrayList<>();
+        when(articleMapper.batchInsert(anyList())).thenAnswer(invocation -> {
+            List<Article> chunk = invocation.getArgument(0);
+            chunkSizes.add(chunk.size());
+            return chunk.size();
+        });
+
+        int written = articleBatchWriter.write(createArticles(250));
+
+        // 250篇文章分3批写入，而不是逐条插入
+        assertEquals(250, written);
+        assertEquals(List.of(100, 100, 50), chunkSizes);
+        verify(articleMapper, never()).insert(any());
+    }
+
+    @Test
+    public void testWrite_EmptyList() {
+        assertEquals(0, articleBatchWriter.write(new ArrayList<>()));
+        verifyNoInteractions(articleMapper);
+    }
+
+    @Test
+    public void testFilterNew_SkipsExistingAndDuplicateLinks() {
+        List<Article> articles = createArticles(3);
+        Article duplicate = new Article();
+        duplicate.setLink("https://example.com/0");
+        articles.add(duplicate);
+        String existingHash = HashUtil.sha256Hex("https://example.com/1");
+        when(articleMapper.findExistingLinkHashes(anyList())).thenReturn(List.of(existingHash));
+
+        List<Article> newArticles = articleBatchWriter.filterNew(articles);
+
+        // 已入库的链接和同一批中重复的链接都被过滤
+        assertEquals(2, newArticles.size());
+        assertEquals("https://example.com/0", newArticles.get(0).getLink());
+        assertEquals("https://example.com/2", newArticles.get(1).getLink());
+        assertEquals(HashUtil.sha256Hex("https://example.com/2"), newArticles.get(1).getLinkHash());
+    }
+
+    @Test
+    public void testWrite_ResolvesIdsWhenRowsIgnored() {
+        List<Article> articles = createArticles(2);
+        // 第二篇已被并发的抓取写入，只插入了一行
+        when(articleMapper.batchInsert(anyList())).thenReturn(1);
+        Article first = new Article();
+        first.setId(10);
+        first.setLinkHash(HashUtil.sha256Hex("https://example.com/0"));
+        Article second = new Article();
+        second.setId(7);
+        second.setLinkHash(HashUtil.sha256Hex("https://example.com/1"));
+        when(articleMapper.findIdsByLinkHashes(anyList())).thenReturn(List.of(first, second));
+
+        int written = articleBatchWriter.write(articles);
+
+        assertEquals(1, written);
+        assertEquals(10, articles.get(0).getId());
+        assertEquals(7, articles.get(1).getId());
+    }
+}
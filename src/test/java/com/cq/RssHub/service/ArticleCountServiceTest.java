@@ -0,0 +1,120 @@
+package com.cq.RssHub.service;
+
+import com.cq.RssHub.config.CountProperties;
+import com.cq.RssHub.mapper.ArticleMapper;
+import com.cq.RssHub.mapper.RssSourceMapper;
+import com.cq.RssHub.service.impl.ArticleCountService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ArticleCountServiceTest {
+
+    @Mock
+    private ArticleMapper articleMapper;
+
+    @Mock
+    private RssSourceMapper rssSourceMapper;
+
+    @Spy
+    private CountProperties countProperties = new CountProperties();
+
+    @InjectMocks
+    private ArticleCountService articleCountService;
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Test
+    public void testCount_UnfilteredUsesSourceCounters() {
+        when(rssSourceMapper.sumArticleCount()).thenReturn(12345L);
+
+        assertEquals(12345L, articleCountService.count(null, null, null, null, null));
+
+        verify(articleMapper, never()).countByFilters(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    public void testCount_SourceOnlyUsesSourceCounter() {
+        when(rssSourceMapper.findArticleCount(3)).thenReturn(87);
+        when(rssSourceMapper.findArticleCount(4)).thenReturn(null);
+
+        assertEquals(87L, articleCountService.count(null, 3, null, null, null));
+        // 源不存在时为0
+        assertEquals(0L, articleCountService.count(null, 4, null, null, null));
+        verify(articleMapper, never()).countByFilters(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    public void testCount_FilteredResultIsCached() {
+        when(articleMapper.countByFilters("+\"云\"", null, 2, START, null)).thenReturn(40);
+
+        assertEquals(40L, articleCountService.count("+\"云\"", null, 2, START, null));
+        assertEquals(40L, articleCountService.count("+\"云\"", null, 2, START, null));
+
+        verify(articleMapper, times(1)).countByFilters(any(), any(), any(), any(), any());
+        assertEquals(1, articleCountService.size());
+    }
+
+    @Test
+    public void testCount_ExpiredEntryIsRecounted() {
+        countProperties.setCacheTtl(Duration.ZERO);
+        when(articleMapper.countByFilters(null, null, 2, null, null)).thenReturn(5, 6);
+
+        assertEquals(5L, articleCountService.count(null, null, 2, null, null));
+        assertEquals(6L, articleCountService.count(null, null, 2, null, null));
+    }
+
+    @Test
+    public void testInvalidate_MatchesSourceAndCategory() {
+        when(articleMapper.countByFilters(any(), any(), any(), any(), any())).thenReturn(1);
+        // 按源1、源2、分类7、分类8和只按时间筛选的缓存
+        articleCountService.count(null, 1, null, START, null);
+        articleCountService.count(null, 2, null, START, null);
+        articleCountService.count(null, null, 7, null, null);
+        articleCountService.count(null, null, 8, null, null);
+        articleCountService.count(null, null, null, START, null);
+
+        // 分类7下的源1有新文章
+        articleCountService.invalidate(1, 7);
+
+        // 源2和分类8的缓存保留
+        assertEquals(2, articleCountService.size());
+        articleCountService.count(null, 2, null, START, null);
+        articleCountService.count(null, null, 8, null, null);
+        verify(articleMapper, times(5)).countByFilters(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    public void testInvalidate_UnknownCategoryClearsAllCategories() {
+        when(articleMapper.countByFilters(any(), any(), any(), any(), any())).thenReturn(1);
+        articleCountService.count(null, null, 7, null, null);
+        articleCountService.count(null, 2, null, START, null);
+
+        articleCountService.invalidate(1, null);
+
+        assertEquals(1, articleCountService.size());
+    }
+
+    @Test
+    public void testStore_EvictsWhenFull() {
+        countProperties.setMaxEntries(2);
+        when(articleMapper.countByFilters(any(), any(), any(), any(), any())).thenReturn(1);
+
+        articleCountService.count(null, null, 1, null, null);
+        articleCountService.count(null, null, 2, null, null);
+        articleCountService.count(null, null, 3, null, null);
+
+        assertTrue(articleCountService.size() <= 2);
+    }
+}
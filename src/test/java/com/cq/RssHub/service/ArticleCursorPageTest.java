@@ -0,0 +1,95 @@
+package com.cq.RssHub.service;
+
+import com.cq.RssHub.mapper.ArticleMapper;
+import com.cq.RssHub.pojo.vo.ArticleSummaryVO;
+import com.cq.RssHub.pojo.vo.CursorPageArticleVO;
+import com.cq.RssHub.service.impl.ArticleServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ArticleCursorPageTest {
+
+    @Mock
+    private ArticleMapper articleMapper;
+
+    @InjectMocks
+    private ArticleServiceImpl articleService;
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    @Test
+    public void testFirstPage_ReturnsCursorOfLastItem() {
+        // 多取一篇，说明还有下一页
+        when(articleMapper.findPageAfter(isNull(), isNull(), eq(3), isNull(), isNull(), isNull(), eq(3)))
+                .thenReturn(articles(10, 3));
+
+        CursorPageArticleVO page = articleService.getArticlesByCursor(null, 3, null, null, null, 2);
+
+        assertEquals(List.of(10, 9), page.getItems().stream().map(ArticleSummaryVO::getId).toList());
+        assertNotNull(page.getNextCursor());
+    }
+
+    @Test
+    public void testNextPage_ContinuesAfterCursor() {
+        when(articleMapper.findPageAfter(isNull(), isNull(), any(), any(), any(), any(), anyInt()))
+                .thenReturn(articles(10, 3));
+        String cursor = articleService.getArticlesByCursor(null, null, null, null, null, 2).getNextCursor();
+        when(articleMapper.findPageAfter(notNull(), notNull(), any(), any(), any(), any(), anyInt()))
+                .thenReturn(articles(8, 1));
+
+        CursorPageArticleVO page = articleService.getArticlesByCursor(cursor, null, null, null, null, 2);
+
+        // 上一页最后一篇是ID 9，从它之后继续
+        verify(articleMapper).findPageAfter(BASE.minusMinutes(1), 9, null, null, null, null, 3);
+        assertEquals(List.of(8), page.getItems().stream().map(ArticleSummaryVO::getId).toList());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    public void testLimit_IsCapped() {
+        when(articleMapper.findPageAfter(any(), any(), any(), any(), any(), any(), anyInt())).thenReturn(List.of());
+
+        articleService.getArticlesByCursor(null, null, null, null, null, 10000);
+
+        verify(articleMapper).findPageAfter(null, null, null, null, null, null, 101);
+    }
+
+    @Test
+    public void testInvalidCursor_Rejected() {
+        String malformed = Base64.getUrlEncoder().encodeToString("not-a-cursor".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> articleService.getArticlesByCursor("%%%", null, null, null, null, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> articleService.getArticlesByCursor(malformed, null, null, null, null, 10));
+        verifyNoInteractions(articleMapper);
+    }
+
+    /**
+     * 从startId开始按ID递减的若干篇文章，发布时间也依次递减一分钟
+     */
+    private static List<ArticleSummaryVO> articles(int startId, int count) {
+        List<ArticleSummaryVO> articles = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ArticleSummaryVO article = new ArticleSummaryVO();
+            article.setId(startId - i);
+            article.setPublishDate(BASE.minusMinutes(i));
+            articles.add(article);
+        }
+        return articles;
+    }
+}
@@ -3,6 +3,7 @@ package com.cq.RssHub.service;
 import com.cq.RssHub.mapper.ArticleMapper;
 import com.cq.RssHub.pojo.Article;
 import com.cq.RssHub.pojo.ArticleFavorite;
+import com.cq.RssHub.pojo.vo.ArticleSummaryVO;
 import com.cq.RssHub.service.impl.ArticleRecommendServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -36,7 +37,7 @@ public class ArticleRecommendServiceTest {
     @InjectMocks
     private ArticleRecommendServiceImpl articleRecommendService;
 
-    private List<Article> mockArticles;
+    private List<ArticleSummaryVO> mockArticles;
     private List<ArticleFavorite> mockFavorites;
 
     @BeforeEach
@@ -46,19 +47,19 @@ public class ArticleRecommendServiceTest {
         // 准备模拟文章数据
         mockArticles = new ArrayList<>();
         for (int i = 1; i <= 5; i++) {
-            Article article = new Article();
+            ArticleSummaryVO article = new ArticleSummaryVO();
             article.setId(i);
             article.setTitle("测试文章" + i + "关于科技与人工智能");
-            article.setContent("这是一篇关于科技与人工智能的测试文章" + i + "，探讨了各种技术的应用。");
+            article.setSummary("这是一篇关于科技与人工智能的测试文章" + i + "，探讨了各种技术的应用。");
             article.setPublishDate(LocalDateTime.now().minusDays(i));
             mockArticles.add(article);
         }
         
         // 添加一篇关于不同主题的文章
-        Article diffArticle = new Article();
+        ArticleSummaryVO diffArticle = new ArticleSummaryVO();
         diffArticle.setId(6);
         diffArticle.setTitle("测试文章6关于旅游与美食");
-        diffArticle.setContent("这是一篇关于旅游与美食的测试文章，介绍了各种美食和旅游景点。");
+        diffArticle.setSummary("这是一篇关于旅游与美食的测试文章，介绍了各种美食和旅游景点。");
         diffArticle.setPublishDate(LocalDateTime.now().minusDays(6));
         mockArticles.add(diffArticle);
         
@@ -84,7 +85,7 @@ public class ArticleRecommendServiceTest {
         when(articleMapper.findLatestArticles(anyInt())).thenReturn(mockArticles);
         
         // 调用被测试方法
-        List<Article> results = articleRecommendService.getPersonalizedRecommendations(1, 3);
+        List<ArticleSummaryVO> results = articleRecommendService.getPersonalizedRecommendations(1, 3);
         
         // 验证结果
         assertNotNull(results);
@@ -94,14 +95,30 @@ public class ArticleRecommendServiceTest {
         verify(articleMapper, times(1)).findLatestArticles(3);
     }
 
+    @Test
+    public void testGetPersonalizedRecommendations_UsesCandidateSummaries() {
+        // 收藏了文章1-3，候选中的4、5与收藏主题相同
+        when(articleFavoriteService.getRecentFavorites(1, 10)).thenReturn(mockFavorites);
+        when(articleMapper.findLatestArticles(100)).thenReturn(mockArticles);
+
+        List<ArticleSummaryVO> results = articleRecommendService.getPersonalizedRecommendations(1, 2);
+
+        assertEquals(List.of(4, 5), results.stream().map(ArticleSummaryVO::getId).sorted().toList());
+        // 推荐结果直接取自候选列表，不再逐篇查询文章详情
+        verify(articleMapper, never()).findById(anyInt());
+    }
+
     @Test
     public void testGetSimilarArticles_Success() {
         // 模拟文章查询行为
-        when(articleMapper.findById(1)).thenReturn(mockArticles.get(0));
+        Article article = new Article();
+        article.setId(1);
+        article.setTitle(mockArticles.get(0).getTitle());
+        when(articleMapper.findById(1)).thenReturn(article);
         when(articleMapper.findLatestArticles(anyInt())).thenReturn(mockArticles);
         
         // 调用被测试方法
-        List<Article> results = articleRecommendService.getSimilarArticles(1, 3);
+        List<ArticleSummaryVO> results = articleRecommendService.getSimilarArticles(1, 3);
         
         // 验证结果
         assertNotNull(results);
@@ -109,14 +126,14 @@ public class ArticleRecommendServiceTest {
         assertEquals(3, results.size());
         
         // 验证相似文章不包含原文章
-        for (Article article : results) {
-            assertNotEquals(1, article.getId().intValue());
+        for (ArticleSummaryVO result : results) {
+            assertNotEquals(1, result.getId().intValue());
         }
         
         // 科技主题文章应该优先于旅游主题文章
         boolean foundDiffTopic = false;
-        for (Article article : results) {
-            if (article.getId() == 6) {
+        for (ArticleSummaryVO result : results) {
+            if (result.getId() == 6) {
                 foundDiffTopic = true;
                 break;
             }
@@ -134,7 +151,7 @@ public class ArticleRecommendServiceTest {
         when(articleMapper.findById(100)).thenReturn(null);
         
         // 调用被测试方法
-        List<Article> results = articleRecommendService.getSimilarArticles(100, 3);
+        List<ArticleSummaryVO> results = articleRecommendService.getSimilarArticles(100, 3);
         
         // 验证结果
         assertNotNull(results);
@@ -151,7 +168,7 @@ public class ArticleRecommendServiceTest {
         when(articleMapper.findLatestArticles(3)).thenReturn(mockArticles.subList(0, 3));
         
         // 调用被测试方法
-        List<Article> results = articleRecommendService.getHotRecommendations(3);
+        List<ArticleSummaryVO> results = articleRecommendService.getHotRecommendations(3);
         
         // 验证结果
         assertNotNull(results);
@@ -0,0 +1,183 @@
+package com.cq.RssHub.service;
+
+import com.cq.RssHub.config.RetentionProperties;
+import com.cq.RssHub.mapper.ArticleFavoriteMapper;
+import com.cq.RssHub.mapper.ArticleMapper;
+import com.cq.RssHub.mapper.JobCheckpointMapper;
+import com.cq.RssHub.mapper.RssSourceMapper;
+import com.cq.RssHub.pojo.Article;
+import com.cq.RssHub.pojo.JobCheckpoint;
+import com.cq.RssHub.pojo.SettingsSnapshot;
+import com.cq.RssHub.pojo.SystemSetting;
+import com.cq.RssHub.pojo.vo.RetentionRunVO;
+import com.cq.RssHub.service.impl.ArticleCountService;
+import com.cq.RssHub.service.impl.ArticleRetentionJob;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ArticleRetentionJobTest {
+
+    @Mock
+    private ArticleMapper articleMapper;
+
+    @Mock
+    private ArticleFavoriteMapper articleFavoriteMapper;
+
+    @Mock
+    private RssSourceMapper rssSourceMapper;
+
+    @Mock
+    private SystemSettingService systemSettingService;
+
+    @Mock
+    private JobCheckpointMapper jobCheckpointMapper;
+
+    @Mock
+    private ArticleCountService articleCountService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private RetentionProperties retentionProperties = new RetentionProperties();
+
+    @InjectMocks
+    private ArticleRetentionJob articleRetentionJob;
+
+    @BeforeEach
+    public void setup() {
+        retentionProperties.setBatchSize(2);
+        retentionProperties.setBatchPause(Duration.ZERO);
+        articleRetentionJob.init();
+    }
+
+    @Test
+    public void testPurge_DeletesInBatches() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(30);
+        when(articleMapper.findExpired(cutoff, 0, 2)).thenReturn(List.of(article(3, 1), article(8, 2)));
+        when(articleMapper.findExpired(cutoff, 8, 2)).thenReturn(List.of(article(9, 1)));
+        when(articleMapper.lockExpiredByIds(List.of(3, 8), cutoff)).thenReturn(List.of(article(3, 1), article(8, 2)));
+        when(articleMapper.lockExpiredByIds(List.of(9), cutoff)).thenReturn(List.of(article(9, 1)));
+        when(articleMapper.deleteExpiredByIds(anyList(), eq(cutoff)))
+                .thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+        when(articleFavoriteMapper.deleteByArticleIds(List.of(3, 8))).thenReturn(1);
+
+        RetentionRunVO run = articleRetentionJob.purge(cutoff);
+
+        assertEquals("completed", run.getStatus());
+        assertEquals(3, run.getArticlesDeleted());
+        assertEquals(1, run.getFavoritesDeleted());
+        assertEquals(2, run.getBatches());
+        // 第二批不足一批，不再继续查询
+        verify(articleMapper, times(2)).findExpired(any(), anyInt(), anyInt());
+        // 收藏记录先于文章删除
+        var order = inOrder(articleFavoriteMapper, articleMapper);
+        order.verify(articleFavoriteMapper).deleteByArticleIds(List.of(3, 8));
+        order.verify(articleMapper).deleteExpiredByIds(List.of(3, 8), cutoff);
+        // 每批按源扣减文章数
+        verify(rssSourceMapper, times(2)).incrementArticleCount(1, -1);
+        verify(rssSourceMapper).incrementArticleCount(2, -1);
+        // 每批一个事务
+        verify(transactionManager, times(2)).commit(any());
+        // 删除了文章，缓存的总数失效
+        verify(articleCountService).invalidateAll();
+        assertEquals(List.of(run), articleRetentionJob.getRecentRuns());
+    }
+
+    @Test
+    public void testPurge_SkipsArticlesChangedAfterSelection() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(30);
+        when(articleMapper.findExpired(cutoff, 0, 2)).thenReturn(List.of(article(3, 1), article(8, 2)));
+        when(articleMapper.findExpired(cutoff, 8, 2)).thenReturn(List.of());
+        // 文章8在查询后被加星标，锁定时重新检查条件后排除
+        when(articleMapper.lockExpiredByIds(List.of(3, 8), cutoff)).thenReturn(List.of(article(3, 1)));
+        when(articleMapper.deleteExpiredByIds(List.of(3), cutoff)).thenReturn(1);
+
+        RetentionRunVO run = articleRetentionJob.purge(cutoff);
+
+        assertEquals("completed", run.getStatus());
+        assertEquals(1, run.getArticlesDeleted());
+        // 分页继续越过被排除的文章
+        verify(articleMapper).findExpired(cutoff, 8, 2);
+        // 只删除仍然过期的文章及其收藏，只扣减它所在源的文章数
+        verify(articleFavoriteMapper).deleteByArticleIds(List.of(3));
+        verify(rssSourceMapper).incrementArticleCount(1, -1);
+        verify(rssSourceMapper, never()).incrementArticleCount(eq(2), anyInt());
+    }
+
+    @Test
+    public void testScheduledPurge_UsesSystemSettings() {
+        when(systemSettingService.getSnapshot()).thenReturn(settings("7", "24"));
+        JobCheckpoint last = new JobCheckpoint();
+        last.setStatus("completed");
+        last.setStartTime(LocalDateTime.now().minusHours(25));
+        when(jobCheckpointMapper.findByName("article_retention")).thenReturn(last);
+        when(articleMapper.findExpired(any(), anyInt(), anyInt())).thenReturn(List.of());
+
+        articleRetentionJob.scheduledPurge();
+
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(articleMapper).findExpired(cutoff.capture(), eq(0), eq(2));
+        long days = Duration.between(cutoff.getValue(), LocalDateTime.now()).toDays();
+        assertEquals(7, days);
+        assertEquals("completed", articleRetentionJob.getRecentRuns().get(0).getStatus());
+    }
+
+    @Test
+    public void testScheduledPurge_SkipsBeforeInterval() {
+        when(systemSettingService.getSnapshot()).thenReturn(settings("30", "24"));
+        JobCheckpoint last = new JobCheckpoint();
+        last.setStatus("completed");
+        last.setStartTime(LocalDateTime.now().minusHours(2));
+        when(jobCheckpointMapper.findByName("article_retention")).thenReturn(last);
+
+        articleRetentionJob.scheduledPurge();
+
+        verify(articleMapper, never()).findExpired(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    public void testScheduledPurge_DisabledByZeroAge() {
+        when(systemSettingService.getSnapshot()).thenReturn(settings("0", "24"));
+
+        articleRetentionJob.scheduledPurge();
+
+        verify(articleMapper, never()).findExpired(any(), anyInt(), anyInt());
+        verify(jobCheckpointMapper, never()).save(any());
+    }
+
+    private static Article article(int id, int sourceId) {
+        Article article = new Article();
+        article.setId(id);
+        article.setSourceId(sourceId);
+        return article;
+    }
+
+    private static SettingsSnapshot settings(String maxArticleAge, String cleanupInterval) {
+        return SettingsSnapshot.of(List.of(setting(SettingsSnapshot.MAX_ARTICLE_AGE, maxArticleAge),
+                setting(SettingsSnapshot.CLEANUP_INTERVAL, cleanupInterval)), 1);
+    }
+
+    private static SystemSetting setting(String key, String value) {
+        SystemSetting setting = new SystemSetting();
+        setting.setSettingKey(key);
+        setting.setSettingValue(value);
+        return setting;
+    }
+}
@@ -0,0 +1,95 @@
+package com.cq.RssHub.service;
+
+import com.cq.RssHub.mapper.ArticleMapper;
+import com.cq.RssHub.service.impl.ArticleCountService;
+import com.cq.RssHub.service.impl.ArticleServiceImpl;
+import com.cq.RssHub.utils.FullTextQueryUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ArticleSearchTest {
+
+    @Mock
+    private ArticleMapper articleMapper;
+
+    @Mock
+    private ArticleCountService articleCountService;
+
+    @InjectMocks
+    private ArticleServiceImpl articleService;
+
+    @Test
+    public void testToBooleanQuery_TermsArePhrases() {
+        assertEquals("+\"人工智能\"", FullTextQueryUtil.toBooleanQuery("人工智能"));
+        // 多个词都必须出现
+        assertEquals("+\"Spring\" +\"Boot\"", FullTextQueryUtil.toBooleanQuery("  Spring   Boot "));
+    }
+
+    @Test
+    public void testToBooleanQuery_SingleCharacterUsesPrefix() {
+        // 单字短于ngram分词长度，按前缀匹配
+        assertEquals("+云*", FullTextQueryUtil.toBooleanQuery("云"));
+        assertEquals("+\"云计算\" +A*", FullTextQueryUtil.toBooleanQuery("云计算 A"));
+    }
+
+    @Test
+    public void testToBooleanQuery_StripsOperators() {
+        assertEquals("+C* +\"foo\"", FullTextQueryUtil.toBooleanQuery("-\"C++\" (foo*)"));
+        assertEquals("+\"abc\" +\"def\"", FullTextQueryUtil.toBooleanQuery("abc+def"));
+        assertNull(FullTextQueryUtil.toBooleanQuery("+-*\"()"));
+        assertNull(FullTextQueryUtil.toBooleanQuery("   "));
+        assertNull(FullTextQueryUtil.toBooleanQuery(null));
+    }
+
+    @Test
+    public void testToBooleanQuery_SingleCharacterIsPrefixNotSubstring() {
+        // 单字只匹配以它开头的ngram片段，"云"出现在"白云"词尾时匹配不到，不同于LIKE '%云%'
+        assertEquals("+云*", FullTextQueryUtil.toBooleanQuery("云"));
+        // 英文单字同理，"R*"命中"RSS"、"React"等所有含R开头片段的文本
+        assertEquals("+R*", FullTextQueryUtil.toBooleanQuery("R"));
+    }
+
+    @Test
+    public void testToBooleanQuery_OperatorCharactersWidenTerm() {
+        // 运算符被去掉后"C++"只剩单字前缀，匹配范围远大于原词
+        assertEquals("+C*", FullTextQueryUtil.toBooleanQuery("C++"));
+        // 只有运算符之外的部分参与匹配，"@user"按"user"短语匹配
+        assertEquals("+\"user\"", FullTextQueryUtil.toBooleanQuery("@user"));
+        // 不在运算符之列的字符保留在短语中
+        assertEquals("+\"C#\"", FullTextQueryUtil.toBooleanQuery("C#"));
+    }
+
+    @Test
+    public void testSearchArticleIds_PassesFiltersAndCapsLimit() {
+        when(articleMapper.searchIds(anyString(), any(), any(), any(), any(), anyInt())).thenReturn(List.of(5, 3, 9));
+
+        List<Integer> ids = articleService.searchArticleIds("机器学习", 2, 7, null, null, 5000);
+
+        assertEquals(List.of(5, 3, 9), ids);
+        verify(articleMapper).searchIds("+\"机器学习\"", 2, 7, null, null, 1000);
+    }
+
+    @Test
+    public void testSearchArticleIds_EmptyKeywordSkipsQuery() {
+        assertTrue(articleService.searchArticleIds("  ", null, null, null, null, 10).isEmpty());
+
+        verifyNoInteractions(articleMapper);
+    }
+
+    @Test
+    public void testGetArticlesCount_UsesFullTextQuery() {
+        when(articleCountService.count("+\"区块链\"", null, 3, null, null)).thenReturn(42L);
+
+        assertEquals(42, articleService.getArticlesCount("区块链", null, 3, null, null));
+    }
+}
@@ -0,0 +1,72 @@
+package com.cq.RssHub.service;
+
+import com.cq.RssHub.pojo.vo.ExecutorMetricsVO;
+import com.cq.RssHub.service.impl.Bulkhead;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BulkheadTest {
+
+    @Test
+    public void testExecute_RejectsWhenThreadsAndQueueFull() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("test", 1, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            bulkhead.execute(() -> {
+                started.countDown();
+                awaitQuietly(release);
+            });
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            bulkhead.execute(() -> awaitQuietly(release));
+
+            // 拒绝直接抛给提交方，而不是由提交线程执行
+            assertThrows(RejectedExecutionException.class,
+                    () -> CompletableFuture.runAsync(() -> fail("不应执行"), bulkhead));
+
+            ExecutorMetricsVO metrics = bulkhead.getMetrics();
+            assertEquals("test", metrics.getName());
+            assertEquals(1, metrics.getActiveThreads());
+            assertEquals(1, metrics.getQueueDepth());
+            assertEquals(1L, metrics.getRejectedTasks());
+        } finally {
+            release.countDown();
+            bulkhead.shutdown(Duration.ofSeconds(5));
+        }
+    }
+
+    @Test
+    public void testShutdown_WaitsForSubmittedTasks() {
+        Bulkhead bulkhead = new Bulkhead("test", 1, 2);
+        AtomicBoolean finished = new AtomicBoolean();
+        bulkhead.execute(() -> {
+            try {
+                Thread.sleep(100);
+                finished.set(true);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        bulkhead.shutdown(Duration.ofSeconds(5));
+
+        assertTrue(finished.get());
+        assertThrows(RejectedExecutionException.class, () -> bulkhead.execute(() -> { }));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
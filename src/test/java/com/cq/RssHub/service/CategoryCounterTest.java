@@ -0,0 +1,178 @@
+package com.cq.RssHub.service;
+
+import com.cq.RssHub.mapper.ArticleFavoriteMapper;
+import com.cq.RssHub.mapper.ArticleMapper;
+import com.cq.RssHub.mapper.CategoryMapper;
+import com.cq.RssHub.mapper.RssSourceMapper;
+import com.cq.RssHub.pojo.Article;
+import com.cq.RssHub.pojo.RssSource;
+import com.cq.RssHub.service.impl.ArticleBatchWriter;
+import com.cq.RssHub.service.impl.ArticleCountService;
+import com.cq.RssHub.service.impl.ArticleServiceImpl;
+import com.cq.RssHub.service.impl.FetchScheduler;
+import com.cq.RssHub.service.impl.RssSourceServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * RSS源和文章增删时对RSS源、分类计数的增量维护
+ */
+@ExtendWith(MockitoExtension.class)
+public class CategoryCounterTest {
+
+    @Mock
+    private RssSourceMapper rssSourceMapper;
+
+    @Mock
+    private CategoryMapper categoryMapper;
+
+    @Mock
+    private ArticleMapper articleMapper;
+
+    @Mock
+    private ArticleFavoriteMapper articleFavoriteMapper;
+
+    @Mock
+    private ArticleCountService articleCountService;
+
+    @Mock
+    private ArticleBatchWriter articleBatchWriter;
+
+    @Mock
+    private FetchScheduler fetchScheduler;
+
+    @Mock
+    private SystemSettingService systemSettingService;
+
+    @InjectMocks
+    private RssSourceServiceImpl rssSourceService;
+
+    @InjectMocks
+    private ArticleServiceImpl articleService;
+
+    @Test
+    public void testCreateSource_AddsToCategory() {
+        RssSource source = source(5, 2);
+        source.setFrequency(60);
+
+        rssSourceService.createRssSource(source);
+
+        verify(categoryMapper).applySource(2, 5, 1);
+    }
+
+    @Test
+    public void testUpdateSource_MovesCountsBetweenCategories() {
+        when(rssSourceMapper.findById(5)).thenReturn(source(5, 2));
+
+        rssSourceService.updateRssSource(source(5, 3));
+
+        // 在修改RSS源分类前后分别移出和计入，带上该源的文章数
+        var order = inOrder(categoryMapper, rssSourceMapper);
+        order.verify(categoryMapper).applySource(2, 5, -1);
+        order.verify(rssSourceMapper).update(any());
+        order.verify(categoryMapper).applySource(3, 5, 1);
+    }
+
+    @Test
+    public void testUpdateSource_SameCategoryLeavesCounts() {
+        when(rssSourceMapper.findById(5)).thenReturn(source(5, 2));
+
+        rssSourceService.updateRssSource(source(5, 2));
+
+        verifyNoInteractions(categoryMapper);
+    }
+
+    @Test
+    public void testDeleteSource_RemovesFromCategory() {
+        when(rssSourceMapper.findById(5)).thenReturn(source(5, 2));
+
+        rssSourceService.deleteRssSource(5);
+
+        // 文章级联删除前先扣减分类计数
+        var order = inOrder(categoryMapper, rssSourceMapper);
+        order.verify(categoryMapper).applySource(2, 5, -1);
+        order.verify(rssSourceMapper).deleteById(5);
+    }
+
+    @Test
+    public void testCreateArticle_IncrementsSource() {
+        Article article = new Article();
+        article.setSourceId(4);
+        article.setLink("https://example.com/a");
+
+        articleService.createArticle(article);
+
+        verify(rssSourceMapper).incrementArticleCount(4, 1);
+    }
+
+    @Test
+    public void testDeleteArticles_DecrementsEachSource() {
+        when(articleMapper.findSourceIds(List.of(1, 2, 3, 99)))
+                .thenReturn(List.of(article(1, 4), article(2, 4), article(3, 6)));
+
+        assertTrue(articleService.deleteArticles(List.of(1, 2, 3, 99)));
+
+        // 只删除实际存在的文章，收藏记录先于文章删除
+        var order = inOrder(articleFavoriteMapper, articleMapper);
+        order.verify(articleFavoriteMapper).deleteByArticleIds(List.of(1, 2, 3));
+        order.verify(articleMapper).deleteByIds(List.of(1, 2, 3));
+        verify(rssSourceMapper).incrementArticleCount(4, -2);
+        verify(rssSourceMapper).incrementArticleCount(6, -1);
+        verify(articleCountService).invalidateAll();
+    }
+
+    @Test
+    public void testDeleteArticle_MissingArticleChangesNothing() {
+        when(articleMapper.findSourceIds(List.of(7))).thenReturn(List.of());
+
+        articleService.deleteArticle(7);
+
+        verify(articleMapper, never()).deleteByIds(anyList());
+        verify(articleFavoriteMapper, never()).deleteByArticleIds(anyList());
+        verify(rssSourceMapper, never()).incrementArticleCount(anyInt(), anyInt());
+    }
+
+    @Test
+    public void testSaveArticles_IncrementsEachSourceByInsertedRows() {
+        List<Article> articles = List.of(article(0, 4), article(0, 4), article(0, 6));
+        when(articleBatchWriter.filterNew(articles)).thenReturn(articles);
+        // 源4的两篇中有一篇被并发写入忽略
+        when(articleBatchWriter.write(anyList())).thenAnswer(invocation -> {
+            List<Article> batch = invocation.getArgument(0);
+            return batch.get(0).getSourceId() == 4 ? 1 : batch.size();
+        });
+
+        articleService.saveArticles(articles);
+
+        verify(rssSourceMapper).incrementArticleCount(4, 1);
+        verify(rssSourceMapper).incrementArticleCount(6, 1);
+        verify(articleCountService).invalidate(4, null);
+        verify(articleCountService).invalidate(6, null);
+    }
+
+    private static RssSource source(int id, Integer categoryId) {
+        RssSource source = new RssSource();
+        source.setId(id);
+        source.setName("源" + id);
+        source.setUrl("https://example.com/feed/" + id);
+        source.setCategoryId(categoryId);
+        source.setArticleCount(10);
+        return source;
+    }
+
+    private static Article article(int id, int sourceId) {
+        Article article = new Article();
+        article.setId(id);
+        article.setSourceId(sourceId);
+        return article;
+    }
+}
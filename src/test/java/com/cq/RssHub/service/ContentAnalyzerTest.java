@@ -0,0 +1,66 @@
+package com.cq.RssHub.service;
+
+import com.cq.RssHub.service.impl.ContentAnalyzer;
+import com.cq.RssHub.service.impl.CoverImageExtractor;
+import org.jsoup.Jsoup;
+import org.jsoup.safety.Safelist;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContentAnalyzerTest {
+
+    private ContentAnalyzer contentAnalyzer;
+
+    @BeforeEach
+    public void setup() {
+        contentAnalyzer = new ContentAnalyzer();
+        ReflectionTestUtils.setField(contentAnalyzer, "coverImageExtractor", new CoverImageExtractor());
+    }
+
+    @Test
+    public void testAnalyze_ProducesAllFieldsFromOneParse() {
+        String html = "<p class='byline'>张三</p><p>正文<script>alert(1)</script></p>"
+                + "<img src='https://example.com/cover.jpg' width='600' height='400'/>";
+
+        ContentAnalyzer.Result result = contentAnalyzer.analyze(html, true, true);
+
+        assertEquals("https://example.com/cover.jpg", result.getCoverImage());
+        // 摘要与Jsoup.clean的结果一致
+        assertEquals(Jsoup.clean(html, Safelist.basic()), result.getSummary());
+        assertEquals("张三", result.getAuthor());
+        assertEquals(Jsoup.parse(html).text(), result.getText());
+    }
+
+    @Test
+    public void testAnalyze_FallsBackToDocumentStrategies() {
+        // 只有srcset，正则无法命中时使用解析后的文档提取
+        String html = "<div><img srcset='//cdn.example.com/a.jpg 1x, //cdn.example.com/b.jpg 2x'/></div>";
+
+        ContentAnalyzer.Result result = contentAnalyzer.analyze(html, true, false);
+
+        assertEquals("https://cdn.example.com/a.jpg", result.getCoverImage());
+        assertNull(result.getAuthor());
+    }
+
+    @Test
+    public void testAnalyze_TruncatesLongSummary() {
+        String html = "<p>" + "内容".repeat(400) + "</p>";
+
+        ContentAnalyzer.Result result = contentAnalyzer.analyze(html, false, false);
+
+        assertEquals(500, result.getSummary().length());
+        assertTrue(result.getSummary().endsWith("..."));
+        assertNull(result.getCoverImage());
+    }
+
+    @Test
+    public void testAnalyze_NullContent() {
+        ContentAnalyzer.Result result = contentAnalyzer.analyze(null, true, true);
+
+        assertEquals("", result.getSummary());
+        assertNull(result.getCoverImage());
+    }
+}
@@ -0,0 +1,71 @@
+package com.cq.RssHub.service;
+
+import com.cq.RssHub.mapper.CategoryMapper;
+import com.cq.RssHub.mapper.RssSourceMapper;
+import com.cq.RssHub.service.impl.ArticleCountService;
+import com.cq.RssHub.service.impl.CounterReconcileJob;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CounterReconcileJobTest {
+
+    @Mock
+    private RssSourceMapper rssSourceMapper;
+
+    @Mock
+    private CategoryMapper categoryMapper;
+
+    @Mock
+    private ArticleCountService articleCountService;
+
+    @InjectMocks
+    private CounterReconcileJob counterReconcileJob;
+
+    @Test
+    public void testReconcile_RecountsDriftedSourcesThenCategories() {
+        when(rssSourceMapper.findDriftedArticleCounts()).thenReturn(List.of(3, 8));
+
+        assertEquals(2, counterReconcileJob.reconcile());
+
+        // 先修正RSS源，再按RSS源汇总分类
+        var order = inOrder(rssSourceMapper, categoryMapper);
+        order.verify(rssSourceMapper).recountArticles(3);
+        order.verify(rssSourceMapper).recountArticles(8);
+        order.verify(categoryMapper).recountAll();
+        verify(articleCountService).invalidateAll();
+    }
+
+    @Test
+    public void testReconcile_NoDriftKeepsCountCache() {
+        when(rssSourceMapper.findDriftedArticleCounts()).thenReturn(List.of());
+
+        assertEquals(0, counterReconcileJob.reconcile());
+
+        verify(rssSourceMapper, never()).recountArticles(anyInt());
+        // 分类的RSS源数不依赖文章表，仍然重新汇总
+        verify(categoryMapper).recountAll();
+        verifyNoInteractions(articleCountService);
+    }
+
+    @Test
+    public void testScheduledReconcile_ToleratesDatabaseFailure() {
+        when(rssSourceMapper.findDriftedArticleCounts()).thenThrow(new RuntimeException("数据库不可用"));
+
+        assertDoesNotThrow(() -> counterReconcileJob.scheduledReconcile());
+
+        // 失败后可以再次执行
+        reset(rssSourceMapper);
+        when(rssSourceMapper.findDriftedArticleCounts()).thenReturn(List.of(1));
+        assertEquals(1, counterReconcileJob.reconcile());
+    }
+}
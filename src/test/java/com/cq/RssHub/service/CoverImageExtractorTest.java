@@ -0,0 +1,64 @@
+package com.cq.RssHub.service;
+
+import com.cq.RssHub.service.impl.CoverImageExtractor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CoverImageExtractorTest {
+
+    private CoverImageExtractor coverImageExtractor;
+
+    @BeforeEach
+    public void setup() {
+        coverImageExtractor = new CoverImageExtractor();
+    }
+
+    @Test
+    public void testExtract_FirstImage() {
+        String html = "<p>内容</p><IMG alt='a > b' SRC=\"http://test.com/a.jpg\"><img src='http://test.com/b.jpg'>";
+
+        assertEquals("http://test.com/a.jpg", coverImageExtractor.extract(html));
+    }
+
+    @Test
+    public void testExtract_SkipsIconAndPrefersBackground() {
+        String html = "<img src='http://test.com/spacer.gif'>"
+                + "<div style=\"BACKGROUND-IMAGE: url('http://test.com/bg.jpg')\"></div>"
+                + "<img src='http://test.com/c.jpg' width='800' height='600'>";
+
+        assertEquals("http://test.com/bg.jpg", coverImageExtractor.extract(html));
+    }
+
+    @Test
+    public void testExtract_LargestImageAfterIcon() {
+        String html = "<img src='http://test.com/pixel.gif'>"
+                + "<img src='//cdn.test.com/small.jpg' width='100' height='100'>"
+                + "<img src='//cdn.test.com/large.jpg' style='width: 800px; height: 600px'>";
+
+        assertEquals("https://cdn.test.com/large.jpg", coverImageExtractor.extract(html));
+    }
+
+    @Test
+    public void testExtract_SrcsetAndMetaFallback() {
+        assertEquals("https://cdn.test.com/a.jpg",
+                coverImageExtractor.extract("<img srcset='cdn.test.com/a.jpg 1x, cdn.test.com/b.jpg 2x'>"));
+        assertEquals("https://test.com/og.jpg?a=1&b=2", coverImageExtractor.extract(
+                "<meta name='twitter:image' content='https://test.com/tw.jpg'>"
+                        + "<meta property='og:image' content='https://test.com/og.jpg?a=1&amp;b=2'>"));
+    }
+
+    @Test
+    public void testExtract_NoImage() {
+        assertNull(coverImageExtractor.extract("<p>没有图片 a < b</p><!-- <img src='x.jpg'> -->"));
+        assertNull(coverImageExtractor.extract(null));
+    }
+
+    @Test
+    public void testIsSmallIcon() {
+        assertTrue(coverImageExtractor.isSmallIcon("http://test.com/img/1x1.gif?t=1"));
+        assertFalse(coverImageExtractor.isSmallIcon("http://test.com/animation.gif"));
+        assertFalse(coverImageExtractor.isSmallIcon("http://test.com/pixel.jpg"));
+    }
+}
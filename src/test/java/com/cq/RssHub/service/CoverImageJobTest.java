@@ -0,0 +1,199 @@
+package com.cq.RssHub.service;
+
+import com.cq.RssHub.mapper.ArticleMapper;
+import com.cq.RssHub.mapper.JobCheckpointMapper;
+import com.cq.RssHub.pojo.Article;
+import com.cq.RssHub.pojo.JobCheckpoint;
+import com.cq.RssHub.service.impl.CoverImageJob;
+import com.cq.RssHub.service.impl.RssParserService;
+import org.apache.ibatis.cursor.Cursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CoverImageJobTest {
+
+    @Mock
+    private ArticleMapper articleMapper;
+
+    @Mock
+    private JobCheckpointMapper jobCheckpointMapper;
+
+    @Mock
+    private RssParserService rssParserService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private CoverImageJob coverImageJob;
+
+    private final List<Article> articles = new ArrayList<>();
+    // 每次更新写入的封面图
+    private final Map<Integer, String> updatedCovers = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    public void setup() {
+        coverImageJob.init();
+        // 测试用的"提取"：内容就是封面图地址，空白表示提取不到
+        lenient().when(rssParserService.extractFirstImage(anyString()))
+                .thenAnswer(invocation -> ((String) invocation.getArgument(0)).isBlank() ? null : invocation.getArgument(0));
+        lenient().when(articleMapper.scanForCoverImage(anyInt(), anyInt(), any(), anyBoolean(), anyInt()))
+                .thenAnswer(invocation -> {
+                    int afterId = invocation.getArgument(0);
+                    int toId = invocation.getArgument(1);
+                    Integer sourceId = invocation.getArgument(2);
+                    int limit = invocation.getArgument(4);
+                    return new ListCursor<>(articles.stream()
+                            .filter(article -> article.getId() > afterId && article.getId() <= toId)
+                            .filter(article -> sourceId == null || sourceId.equals(article.getSourceId()))
+                            .limit(limit)
+                            .toList());
+                });
+        lenient().when(articleMapper.updateCoverImages(anyList())).thenAnswer(invocation -> {
+            List<Article> batch = invocation.getArgument(0);
+            batch.forEach(article -> updatedCovers.put(article.getId(), article.getCoverImage()));
+            return batch.size();
+        });
+    }
+
+    @Test
+    public void testStart_ProcessesAllChunksAndCompletes() throws Exception {
+        // 1200篇文章，分3段读取；偶数ID能提取到封面图
+        for (int id = 1; id <= 1200; id++) {
+            articles.add(article(id, 1, id % 2 == 0 ? "https://img/" + id : " ", null));
+        }
+        when(articleMapper.findMaxId()).thenReturn(1200);
+        List<String> statuses = recordSavedStatuses();
+
+        coverImageJob.start(false);
+
+        verify(jobCheckpointMapper, timeout(5000).atLeast(5)).save(any());
+        waitForStatus(statuses, "completed");
+        assertEquals(List.of("running", "running", "running", "running", "completed"), statuses);
+        assertEquals(600, updatedCovers.size());
+        assertEquals("https://img/2", updatedCovers.get(2));
+        // 每段最多500篇（500、500、200），每个更新事务最多100篇（250、250、100篇更新分为3、3、1批）
+        verify(articleMapper, times(3)).scanForCoverImage(anyInt(), eq(1200), isNull(), eq(true), eq(500));
+        verify(articleMapper, times(7)).updateCoverImages(argThat(batch -> batch.size() <= 100));
+    }
+
+    @Test
+    public void testStart_ResumesFromCheckpoint() throws Exception {
+        articles.add(article(5, 1, "https://img/5", null));
+        articles.add(article(15, 1, "https://img/15", null));
+        JobCheckpoint paused = new JobCheckpoint();
+        paused.setJobName("cover_image");
+        paused.setStatus("paused");
+        paused.setLastId(10);
+        paused.setEndId(20);
+        paused.setProcessed(1);
+        paused.setUpdated(1);
+        when(jobCheckpointMapper.findByName("cover_image")).thenReturn(paused);
+        List<String> statuses = recordSavedStatuses();
+
+        assertEquals("running", coverImageJob.start(false).getStatus());
+
+        waitForStatus(statuses, "completed");
+        // 只处理上次进度之后的文章
+        verify(articleMapper).scanForCoverImage(eq(10), eq(20), isNull(), eq(true), anyInt());
+        verify(articleMapper, never()).findMaxId();
+        assertEquals(Map.of(15, "https://img/15"), updatedCovers);
+        assertEquals(2, paused.getProcessed());
+        assertEquals(2, paused.getUpdated());
+    }
+
+    @Test
+    public void testReprocessSource_SkipsUnchangedCovers() throws Exception {
+        articles.add(article(1, 1, "https://img/1", "https://img/1"));
+        articles.add(article(2, 1, "https://img/2", null));
+        articles.add(article(3, 2, "https://img/3", null));
+        when(articleMapper.findMaxId()).thenReturn(3);
+
+        int updated = coverImageJob.reprocessSource(1);
+
+        assertEquals(1, updated);
+        assertEquals(Map.of(2, "https://img/2"), updatedCovers);
+        verify(articleMapper).scanForCoverImage(0, 3, 1, false, 500);
+        // 单独处理某个源时不记录进度
+        verify(jobCheckpointMapper, never()).save(any());
+    }
+
+    private List<String> recordSavedStatuses() {
+        List<String> statuses = new CopyOnWriteArrayList<>();
+        when(jobCheckpointMapper.save(any())).thenAnswer(invocation -> {
+            statuses.add(((JobCheckpoint) invocation.getArgument(0)).getStatus());
+            return 1;
+        });
+        return statuses;
+    }
+
+    private void waitForStatus(List<String> statuses, String status) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!statuses.contains(status) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(statuses.contains(status), "任务状态未变为" + status + ": " + statuses);
+    }
+
+    private static Article article(int id, int sourceId, String content, String coverImage) {
+        Article article = new Article();
+        article.setId(id);
+        article.setSourceId(sourceId);
+        article.setContent(content);
+        article.setCoverImage(coverImage);
+        return article;
+    }
+
+    /**
+     * 基于列表的游标
+     */
+    private static class ListCursor<T> implements Cursor<T> {
+        private final List<T> items;
+
+        ListCursor(List<T> items) {
+            this.items = items;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public boolean isConsumed() {
+            return false;
+        }
+
+        @Override
+        public int getCurrentIndex() {
+            return -1;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return Collections.unmodifiableList(items).iterator();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
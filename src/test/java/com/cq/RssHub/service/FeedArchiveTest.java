@@ -0,0 +1,149 @@
+package com.cq.RssHub.service;
+
+import com.cq.RssHub.config.FetchProperties;
+import com.cq.RssHub.service.impl.FeedArchive;
+import com.cq.RssHub.utils.HashUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FeedArchiveTest {
+
+    @TempDir
+    Path dir;
+
+    private FeedArchive feedArchive;
+    private FetchProperties fetchProperties;
+
+    @BeforeEach
+    public void setup() {
+        fetchProperties = new FetchProperties();
+        fetchProperties.setArchiveDir(dir.toString());
+        feedArchive = new FeedArchive();
+        ReflectionTestUtils.setField(feedArchive, "fetchProperties", fetchProperties);
+    }
+
+    @Test
+    public void testArchiveAndRead() throws IOException {
+        byte[] content = feed("a");
+        feedArchive.archive(1, HashUtil.sha256Hex(content), content);
+
+        List<FeedArchive.Snapshot> snapshots = feedArchive.listSnapshots(1);
+        assertEquals(1, snapshots.size());
+        assertArrayEquals(content, feedArchive.read(snapshots.get(0)));
+        assertEquals(List.of(1), feedArchive.listSourceIds());
+    }
+
+    @Test
+    public void testSameContentStoredOnce() throws IOException {
+        // 两个源抓到相同的内容，只保存一份
+        byte[] content = feed("a");
+        String hash = HashUtil.sha256Hex(content);
+        feedArchive.archive(1, hash, content);
+        feedArchive.archive(2, hash, content);
+
+        assertEquals(1, countObjects());
+        assertEquals(hash, feedArchive.listSnapshots(2).get(0).getContentHash());
+    }
+
+    @Test
+    public void testKeepsNewestSnapshots() throws IOException {
+        fetchProperties.setArchiveMaxSnapshots(2);
+        for (String version : List.of("a", "b", "c")) {
+            byte[] content = feed(version);
+            feedArchive.archive(1, HashUtil.sha256Hex(content), content);
+            sleepPastMillisecond();
+        }
+
+        List<FeedArchive.Snapshot> snapshots = feedArchive.listSnapshots(1);
+        assertEquals(2, snapshots.size());
+        // 从新到旧
+        assertArrayEquals(feed("c"), feedArchive.read(snapshots.get(0)));
+        assertArrayEquals(feed("b"), feedArchive.read(snapshots.get(1)));
+    }
+
+    @Test
+    public void testExpiredSnapshotsPruned() throws IOException {
+        byte[] old = feed("old");
+        String oldHash = HashUtil.sha256Hex(old);
+        feedArchive.archive(1, oldHash, old);
+        // 把快照改成40天前的，并让内容超过清理的保护期
+        Path refs = dir.resolve("refs").resolve("1");
+        try (Stream<Path> files = Files.list(refs)) {
+            Path ref = files.findFirst().orElseThrow();
+            long expired = Instant.now().minus(Duration.ofDays(40)).toEpochMilli();
+            Files.move(ref, refs.resolve(expired + "-" + oldHash));
+        }
+        Path object = dir.resolve("objects").resolve(oldHash.substring(0, 2)).resolve(oldHash + ".gz");
+        Files.setLastModifiedTime(object, FileTime.from(Instant.now().minus(Duration.ofDays(40))));
+
+        byte[] current = feed("new");
+        feedArchive.archive(1, HashUtil.sha256Hex(current), current);
+        feedArchive.prune();
+
+        List<FeedArchive.Snapshot> snapshots = feedArchive.listSnapshots(1);
+        assertEquals(1, snapshots.size());
+        assertArrayEquals(current, feedArchive.read(snapshots.get(0)));
+        // 不再被引用的旧内容被删除
+        assertFalse(Files.exists(object));
+        assertEquals(1, countObjects());
+    }
+
+    @Test
+    public void testReusedContentSurvivesPrune() throws IOException {
+        byte[] content = feed("a");
+        String hash = HashUtil.sha256Hex(content);
+        feedArchive.archive(1, hash, content);
+        Path object = dir.resolve("objects").resolve(hash.substring(0, 2)).resolve(hash + ".gz");
+        Files.setLastModifiedTime(object, FileTime.from(Instant.now().minus(Duration.ofDays(40))));
+
+        // 内容未变化的源再次归档，复用旧内容
+        feedArchive.archive(2, hash, content);
+
+        // 修改时间被刷新，清理在统计引用后才看到这次写入也不会删除内容
+        assertTrue(Files.getLastModifiedTime(object).toInstant().isAfter(Instant.now().minus(Duration.ofMinutes(1))));
+        ReflectionTestUtils.invokeMethod(feedArchive, "sweep", new HashSet<String>());
+        assertArrayEquals(content, feedArchive.read(feedArchive.listSnapshots(2).get(0)));
+    }
+
+    @Test
+    public void testDisabled() throws IOException {
+        fetchProperties.setArchiveEnabled(false);
+        byte[] content = feed("a");
+        feedArchive.archive(1, HashUtil.sha256Hex(content), content);
+
+        assertTrue(feedArchive.listSnapshots(1).isEmpty());
+    }
+
+    private long countObjects() throws IOException {
+        try (Stream<Path> files = Files.walk(dir.resolve("objects"))) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+
+    private static byte[] feed(String version) {
+        return ("<rss><channel><title>" + version + "</title></channel></rss>").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void sleepPastMillisecond() {
+        try {
+            Thread.sleep(2);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
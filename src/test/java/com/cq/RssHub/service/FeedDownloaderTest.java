@@ -0,0 +1,183 @@
+package com.cq.RssHub.service;
+
+import com.cq.RssHub.config.FetchProperties;
+import com.cq.RssHub.pojo.RssSource;
+import com.cq.RssHub.pojo.vo.HostMetricsVO;
+import com.cq.RssHub.service.impl.FeedDownloader;
+import com.cq.RssHub.service.impl.HostRequestLimiter;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FeedDownloaderTest {
+
+    private static final byte[] FEED = "<rss><channel><title>测试</title></channel></rss>".repeat(50)
+            .getBytes(StandardCharsets.UTF_8);
+
+    private HttpServer server;
+    private FeedDownloader feedDownloader;
+    private FetchProperties fetchProperties;
+    private HostRequestLimiter hostRequestLimiter;
+    private String baseUrl;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/gzip", exchange -> {
+            byte[] body = gzip(FEED);
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/deflate", exchange -> {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            try (DeflaterOutputStream out = new DeflaterOutputStream(buffer)) {
+                out.write(FEED);
+            }
+            exchange.getResponseHeaders().add("Content-Encoding", "deflate");
+            exchange.sendResponseHeaders(200, buffer.size());
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(buffer.toByteArray());
+            }
+        });
+        server.createContext("/huge", exchange -> {
+            // 不声明长度，分块发送
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                byte[] chunk = new byte[8192];
+                for (int i = 0; i < 64; i++) {
+                    out.write(chunk);
+                }
+            } catch (IOException e) {
+                // 客户端中止下载
+            }
+        });
+        server.createContext("/slow", exchange -> {
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write("<rss>".getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                Thread.sleep(3000);
+            } catch (IOException | InterruptedException e) {
+                // 客户端超时断开
+            }
+        });
+        server.createContext("/moved", exchange -> {
+            // 跳转到同一服务的另一个主机名
+            exchange.getResponseHeaders().add("Location",
+                    "http://localhost:" + server.getAddress().getPort() + "/gzip");
+            exchange.sendResponseHeaders(301, -1);
+            exchange.close();
+        });
+        server.createContext("/loop", exchange -> {
+            exchange.getResponseHeaders().add("Location", "/loop");
+            exchange.sendResponseHeaders(302, -1);
+            exchange.close();
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        fetchProperties = new FetchProperties();
+        hostRequestLimiter = new HostRequestLimiter();
+        ReflectionTestUtils.setField(hostRequestLimiter, "fetchProperties", fetchProperties);
+        feedDownloader = new FeedDownloader();
+        ReflectionTestUtils.setField(feedDownloader, "hostRequestLimiter", hostRequestLimiter);
+        ReflectionTestUtils.setField(feedDownloader, "fetchProperties", fetchProperties);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testDownload_DecompressesGzipAndCountsWireBytes() throws Exception {
+        FeedDownloader.Download download = feedDownloader.download(baseUrl + "/gzip");
+
+        assertEquals(200, download.getStatusCode());
+        assertArrayEquals(FEED, download.getBody());
+        // 传输的是压缩后的字节
+        assertEquals(gzip(FEED).length, download.getBytesTransferred());
+        assertTrue(download.getBytesTransferred() < FEED.length);
+    }
+
+    @Test
+    public void testDownload_DecompressesDeflate() throws Exception {
+        FeedDownloader.Download download = feedDownloader.download(baseUrl + "/deflate");
+
+        assertArrayEquals(FEED, download.getBody());
+    }
+
+    @Test
+    public void testDownload_AbortsWhenBodyTooLarge() {
+        fetchProperties.setMaxBodySize(DataSize.ofKilobytes(64));
+
+        IOException e = assertThrows(IOException.class, () -> feedDownloader.download(baseUrl + "/huge"));
+        assertTrue(e.getMessage().contains("最大长度"));
+    }
+
+    @Test
+    public void testDownload_AbortsDecompressedBodyTooLarge() {
+        // 压缩后很小，解压后超过限制
+        fetchProperties.setMaxBodySize(DataSize.ofBytes(FEED.length - 1));
+
+        assertThrows(IOException.class, () -> feedDownloader.download(baseUrl + "/gzip"));
+    }
+
+    @Test
+    public void testDownload_UsesSourceReadTimeout() {
+        fetchProperties.setReadTimeout(Duration.ofSeconds(30));
+        RssSource source = new RssSource();
+        source.setUrl(baseUrl + "/slow");
+        source.setReadTimeout(1);
+
+        long start = System.nanoTime();
+        assertThrows(HttpTimeoutException.class, () -> feedDownloader.download(source, null, null));
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 2500);
+    }
+
+    @Test
+    public void testDownload_RedirectHopsGoThroughHostLimiter() throws Exception {
+        FeedDownloader.Download download = feedDownloader.download(baseUrl + "/moved");
+
+        assertEquals(200, download.getStatusCode());
+        assertArrayEquals(FEED, download.getBody());
+        // 原主机和跳转后的主机各计一次请求
+        Map<String, Long> requests = hostRequestLimiter.getHostMetrics().stream()
+                .collect(Collectors.toMap(HostMetricsVO::getHost, HostMetricsVO::getTotalRequests));
+        assertEquals(Map.of("127.0.0.1", 1L, "localhost", 1L), requests);
+    }
+
+    @Test
+    public void testDownload_StopsAfterTooManyRedirects() {
+        IOException e = assertThrows(IOException.class, () -> feedDownloader.download(baseUrl + "/loop"));
+        assertTrue(e.getMessage().contains("重定向次数过多"));
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(data);
+        }
+        return buffer.toByteArray();
+    }
+}
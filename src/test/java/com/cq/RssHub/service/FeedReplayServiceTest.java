@@ -0,0 +1,148 @@
+package com.cq.RssHub.service;
+
+import com.cq.RssHub.config.FetchProperties;
+import com.cq.RssHub.mapper.RssSourceMapper;
+import com.cq.RssHub.pojo.Article;
+import com.cq.RssHub.pojo.RssSource;
+import com.cq.RssHub.pojo.vo.ReplayResultVO;
+import com.cq.RssHub.service.impl.ArticleBatchWriter;
+import com.cq.RssHub.service.impl.FeedArchive;
+import com.cq.RssHub.service.impl.ArticleCountService;
+import com.cq.RssHub.service.impl.FeedReplayService;
+import com.cq.RssHub.service.impl.RssParserService;
+import com.cq.RssHub.utils.HashUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class FeedReplayServiceTest {
+
+    @TempDir
+    Path dir;
+
+    @Mock
+    private RssParserService rssParserService;
+
+    @Mock
+    private ArticleBatchWriter articleBatchWriter;
+
+    @Mock
+    private RssSourceMapper rssSourceMapper;
+
+    @Mock
+    private ArticleCountService articleCountService;
+
+    private FeedArchive feedArchive;
+    private FeedReplayService feedReplayService;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        FetchProperties fetchProperties = new FetchProperties();
+        fetchProperties.setArchiveDir(dir.toString());
+        feedArchive = new FeedArchive();
+        ReflectionTestUtils.setField(feedArchive, "fetchProperties", fetchProperties);
+
+        feedReplayService = new FeedReplayService();
+        ReflectionTestUtils.setField(feedReplayService, "feedArchive", feedArchive);
+        ReflectionTestUtils.setField(feedReplayService, "rssParserService", rssParserService);
+        ReflectionTestUtils.setField(feedReplayService, "articleBatchWriter", articleBatchWriter);
+        ReflectionTestUtils.setField(feedReplayService, "rssSourceMapper", rssSourceMapper);
+        ReflectionTestUtils.setField(feedReplayService, "articleCountService", articleCountService);
+
+        // 测试用的"解析"：内容是以逗号分隔的链接
+        when(rssParserService.parseArticles(any(), any(), isNull(), anySet())).thenAnswer(invocation -> {
+            String content = new String((byte[]) invocation.getArgument(0), StandardCharsets.UTF_8);
+            RssSource source = invocation.getArgument(1);
+            List<Article> articles = new ArrayList<>();
+            for (String link : content.split(",")) {
+                Article article = new Article();
+                article.setLink(link);
+                article.setSourceId(source.getId());
+                articles.add(article);
+            }
+            return articles;
+        });
+    }
+
+    @Test
+    public void testReplayAllSnapshots_DedupesAndOnlyCounts() throws Exception {
+        RssSource source = source(1);
+        when(rssSourceMapper.findById(1)).thenReturn(source);
+        archive(1, "a,b");
+        archive(1, "b,c");
+        // 数据库中已有a
+        when(articleBatchWriter.filterNew(anyList())).thenAnswer(invocation -> {
+            List<Article> articles = invocation.getArgument(0);
+            return articles.stream().filter(article -> !"a".equals(article.getLink())).toList();
+        });
+
+        ReplayResultVO result = feedReplayService.replay(null, false, false);
+
+        assertEquals(1, result.getSourceCount());
+        assertEquals(2, result.getSnapshotCount());
+        assertEquals(3, result.getEntriesParsed());
+        assertEquals(2, result.getNewArticles());
+        assertEquals(0, result.getInsertedArticles());
+        verify(articleBatchWriter, never()).write(anyList());
+
+        // 解析使用不带水位线的源副本，不修改真实的源
+        ArgumentCaptor<RssSource> captor = ArgumentCaptor.forClass(RssSource.class);
+        verify(rssParserService, times(2)).parseArticles(any(), captor.capture(), isNull(), anySet());
+        for (RssSource parsed : captor.getAllValues()) {
+            assertNotSame(source, parsed);
+            assertNull(parsed.getWatermarkGuid());
+            assertFalse(parsed.getWatermarkOrdered());
+        }
+        assertEquals("guid", source.getWatermarkGuid());
+    }
+
+    @Test
+    public void testReplayLatestOnly_AppliesNewArticles() throws Exception {
+        when(rssSourceMapper.findById(1)).thenReturn(source(1));
+        when(rssSourceMapper.findById(2)).thenReturn(source(2));
+        archive(1, "a,b");
+        archive(1, "b,c");
+        archive(2, "x");
+        when(articleBatchWriter.filterNew(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(articleBatchWriter.write(anyList())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+
+        ReplayResultVO result = feedReplayService.replay(List.of(1, 2), true, true);
+
+        assertEquals(2, result.getSourceCount());
+        assertEquals(2, result.getSnapshotCount());
+        assertEquals(3, result.getInsertedArticles());
+        verify(rssSourceMapper).incrementArticleCount(1, 2);
+        verify(rssSourceMapper).incrementArticleCount(2, 1);
+    }
+
+    private void archive(int sourceId, String links) throws InterruptedException {
+        byte[] content = links.getBytes(StandardCharsets.UTF_8);
+        feedArchive.archive(sourceId, HashUtil.sha256Hex(content), content);
+        // 快照按毫秒时间戳排序
+        Thread.sleep(2);
+    }
+
+    private static RssSource source(int id) {
+        RssSource source = new RssSource();
+        source.setId(id);
+        source.setName("源" + id);
+        source.setUrl("https://example.com/" + id);
+        source.setWatermarkGuid("guid");
+        return source;
+    }
+}
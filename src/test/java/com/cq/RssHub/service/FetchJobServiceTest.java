@@ -0,0 +1,113 @@
+package com.cq.RssHub.service;
+
+import com.cq.RssHub.config.FetchProperties;
+import com.cq.RssHub.mapper.FetchTaskMapper;
+import com.cq.RssHub.mapper.RssSourceMapper;
+import com.cq.RssHub.pojo.FetchTask;
+import com.cq.RssHub.pojo.RssSource;
+import com.cq.RssHub.service.impl.CoverImageJob;
+import com.cq.RssHub.service.impl.FetchExecutors;
+import com.cq.RssHub.service.impl.FetchJobService;
+import com.cq.RssHub.service.impl.RssService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class FetchJobServiceTest {
+
+    @Mock
+    private RssService rssService;
+
+    @Mock
+    private RssSourceMapper rssSourceMapper;
+
+    @Mock
+    private FetchTaskMapper fetchTaskMapper;
+
+    @Mock
+    private CoverImageJob coverImageJob;
+
+    @Spy
+    private FetchExecutors fetchExecutors = new FetchExecutors();
+
+    @InjectMocks
+    private FetchJobService fetchJobService;
+
+    @BeforeEach
+    public void setUp() {
+        FetchProperties fetchProperties = new FetchProperties();
+        fetchProperties.setTaskThreads(1);
+        fetchProperties.setTaskQueueCapacity(1);
+        ReflectionTestUtils.setField(fetchExecutors, "fetchProperties", fetchProperties);
+        fetchExecutors.init();
+        lenient().when(rssSourceMapper.findById(anyInt())).thenReturn(new RssSource());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        fetchExecutors.shutdown();
+    }
+
+    @Test
+    public void testSubmit_ReturnsPendingTaskAndRunsInBackground() throws Exception {
+        CountDownLatch done = new CountDownLatch(1);
+        when(rssService.runFetchTask(any(FetchTask.class))).thenAnswer(invocation -> {
+            done.countDown();
+            return 3;
+        });
+
+        FetchTask task = fetchJobService.submit(1);
+
+        assertNotNull(task);
+        verify(fetchTaskMapper).insert(task);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testSubmit_SourceNotFound() {
+        when(rssSourceMapper.findById(99)).thenReturn(null);
+
+        assertNull(fetchJobService.submit(99));
+        verify(fetchTaskMapper, never()).insert(any());
+    }
+
+    @Test
+    public void testSubmitAll_RejectsWhenQueueFull() throws Exception {
+        // 一个任务占住线程，一个任务占满队列，第三个任务被拒绝
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(rssService.runFetchTask(any(FetchTask.class))).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return 0;
+        });
+
+        FetchTask first = fetchJobService.submit(1);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        List<FetchTask> tasks = fetchJobService.submitAll(List.of(2, 3));
+        release.countDown();
+
+        assertEquals("pending", first.getStatus());
+        assertEquals(2, tasks.size());
+        assertEquals("pending", tasks.get(0).getStatus());
+        assertEquals("failed", tasks.get(1).getStatus());
+        verify(fetchTaskMapper).update(tasks.get(1));
+        assertEquals(1, fetchExecutors.interactive().getRejectedCount());
+    }
+}
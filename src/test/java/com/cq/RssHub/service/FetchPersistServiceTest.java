@@ -0,0 +1,74 @@
+package com.cq.RssHub.service;
+
+import com.cq.RssHub.mapper.RssSourceMapper;
+import com.cq.RssHub.pojo.Article;
+import com.cq.RssHub.pojo.RssSource;
+import com.cq.RssHub.service.impl.ArticleBatchWriter;
+import com.cq.RssHub.service.impl.FetchPersistService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class FetchPersistServiceTest {
+
+    @Mock
+    private ArticleBatchWriter articleBatchWriter;
+
+    @Mock
+    private RssSourceMapper rssSourceMapper;
+
+    @InjectMocks
+    private FetchPersistService fetchPersistService;
+
+    @Test
+    public void testPersist_WritesArticlesAndUpdatesSource() {
+        RssSource source = new RssSource();
+        source.setId(1);
+        source.setArticleCount(5);
+        source.setStatus("error");
+        source.setErrorMessage("超时");
+        when(articleBatchWriter.write(anyList())).thenReturn(2);
+
+        int inserted = fetchPersistService.persist(source, List.of(new Article(), new Article()));
+
+        assertEquals(2, inserted);
+        assertEquals(7, source.getArticleCount());
+        assertEquals("active", source.getStatus());
+        assertNull(source.getErrorMessage());
+        // 文章数原子累加，不随RSS源整体更新覆盖
+        verify(rssSourceMapper).incrementArticleCount(1, 2);
+        verify(rssSourceMapper).updateFetchStatus(1);
+        // 不整行写回，抓取期间对分类、频率和状态的修改不会被覆盖
+        verify(rssSourceMapper, never()).update(any());
+        verify(rssSourceMapper).updateFetchValidators(source);
+        verify(rssSourceMapper).updateWatermark(source);
+
+        // 记录写入事务的连接占用时长
+        assertEquals(1, fetchPersistService.getWriteCount());
+        assertTrue(fetchPersistService.getAvgWriteMillis() >= 0);
+    }
+
+    @Test
+    public void testPersist_NoNewArticlesSkipsIncrement() {
+        RssSource source = new RssSource();
+        source.setId(1);
+        source.setArticleCount(5);
+        when(articleBatchWriter.write(anyList())).thenReturn(0);
+
+        fetchPersistService.persist(source, List.of());
+
+        verify(rssSourceMapper, never()).incrementArticleCount(anyInt(), anyInt());
+        verify(rssSourceMapper).updateFetchStatus(1);
+    }
+}
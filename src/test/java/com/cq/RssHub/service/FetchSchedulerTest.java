@@ -0,0 +1,196 @@
+package com.cq.RssHub.service;
+
+import com.cq.RssHub.config.FetchProperties;
+import com.cq.RssHub.mapper.RssSourceMapper;
+import com.cq.RssHub.pojo.RssSource;
+import com.cq.RssHub.service.impl.FetchScheduler;
+import com.cq.RssHub.service.impl.RssFetchEngine;
+import com.cq.RssHub.service.impl.RssService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+public class FetchSchedulerTest {
+
+    private FetchScheduler fetchScheduler;
+    private FetchProperties fetchProperties;
+
+    @BeforeEach
+    public void setup() {
+        fetchProperties = new FetchProperties();
+        fetchScheduler = new FetchScheduler();
+        ReflectionTestUtils.setField(fetchScheduler, "fetchProperties", fetchProperties);
+    }
+
+    private RssSource createSource(int id, int frequency, LocalDateTime lastFetchTime) {
+        RssSource source = new RssSource();
+        source.setId(id);
+        source.setFrequency(frequency);
+        source.setLastFetchTime(lastFetchTime);
+        return source;
+    }
+
+    @Test
+    public void testTakeDue_ReturnsOnlyDueSources() throws Exception {
+        fetchProperties.setJitterRatio(0.0);
+        fetchScheduler.upsert(createSource(1, 60, LocalDateTime.now().minusHours(2)));
+        fetchScheduler.upsert(createSource(2, 60, LocalDateTime.now()));
+        fetchScheduler.upsert(createSource(3, 30, LocalDateTime.now().minusMinutes(31)));
+
+        List<FetchScheduler.ScheduledSource> due = fetchScheduler.takeDue();
+
+        // 源2还未到期，不会被取出
+        assertEquals(2, due.size());
+        assertEquals(1, due.get(0).getSourceId());
+        assertEquals(3, due.get(1).getSourceId());
+        assertEquals(3, fetchScheduler.size());
+    }
+
+    @Test
+    public void testUpsertAndRemove_DiscardStaleEntries() throws Exception {
+        fetchProperties.setJitterRatio(0.0);
+        fetchScheduler.upsert(createSource(1, 60, LocalDateTime.now().minusHours(2)));
+        fetchScheduler.upsert(createSource(2, 60, LocalDateTime.now().minusHours(2)));
+        // 源1被更新两次，源2被删除
+        fetchScheduler.upsert(createSource(1, 60, LocalDateTime.now().minusHours(3)));
+        fetchScheduler.remove(2);
+
+        List<FetchScheduler.ScheduledSource> due = fetchScheduler.takeDue();
+
+        assertEquals(1, due.size());
+        assertEquals(1, due.get(0).getSourceId());
+        assertEquals(1, fetchScheduler.size());
+    }
+
+    @Test
+    public void testUpsert_AddsJitterWithinRatio() throws Exception {
+        fetchProperties.setJitterRatio(0.1);
+        long before = System.currentTimeMillis();
+        for (int i = 1; i <= 50; i++) {
+            fetchScheduler.upsert(createSource(i, 1, null));
+        }
+
+        // 从未抓取的源立即到期，抖动不超过频率的10%（6秒）
+        List<FetchScheduler.ScheduledSource> entries = fetchScheduler.takeDue();
+        long maxJitter = TimeUnit.SECONDS.toMillis(6);
+        for (FetchScheduler.ScheduledSource entry : entries) {
+            assertTrue(entry.getDueAtMillis() >= before);
+            assertTrue(entry.getDueAtMillis() <= System.currentTimeMillis() + maxJitter);
+        }
+        // 相同频率的源到期时间被打散，不会全部同时到期
+        assertTrue(entries.size() < 50, "抖动后不应全部同时到期");
+    }
+
+    @Test
+    public void testUpsert_OpenBreakerWaitsForRetryTime() throws Exception {
+        fetchProperties.setJitterRatio(0.0);
+        RssSource open = createSource(1, 5, LocalDateTime.now().minusHours(2));
+        open.setStatus("error");
+        open.setNextRetryTime(LocalDateTime.now().plusMinutes(30));
+        // 重试时间已过的源可以试探抓取
+        RssSource halfOpen = createSource(2, 5, LocalDateTime.now().minusHours(2));
+        halfOpen.setStatus("error");
+        halfOpen.setNextRetryTime(LocalDateTime.now().minusMinutes(1));
+        fetchScheduler.upsert(open);
+        fetchScheduler.upsert(halfOpen);
+
+        List<FetchScheduler.ScheduledSource> due = fetchScheduler.takeDue();
+
+        // 源1按频率早已到期，但熔断中要等到重试时间
+        assertEquals(1, due.size());
+        assertEquals(2, due.get(0).getSourceId());
+        assertEquals(2, fetchScheduler.size());
+    }
+
+    @Test
+    public void testUpsert_MissingFrequencyKeepsCurrentEntry() throws Exception {
+        fetchProperties.setJitterRatio(0.0);
+        fetchScheduler.upsert(createSource(1, 30, LocalDateTime.now().minusHours(2)));
+
+        RssSource update = createSource(1, 60, LocalDateTime.now().minusHours(2));
+        update.setFrequency(null);
+        fetchScheduler.upsert(update);
+
+        // 沿用调度中原有的频率，不回退到默认值
+        assertEquals(30, fetchScheduler.takeDue().get(0).getFrequency());
+    }
+
+    @Test
+    public void testDispatch_ReschedulesSourcesCancelledWhileQueued() throws Exception {
+        fetchProperties.setJitterRatio(0.0);
+        fetchProperties.setConcurrency(1);
+        fetchProperties.setPassTimeout(Duration.ofMillis(200));
+        RssFetchEngine rssFetchEngine = new RssFetchEngine();
+        ReflectionTestUtils.setField(rssFetchEngine, "fetchProperties", fetchProperties);
+        RssSourceMapper rssSourceMapper = mock(RssSourceMapper.class);
+        RssService rssService = mock(RssService.class);
+        ReflectionTestUtils.setField(fetchScheduler, "rssFetchEngine", rssFetchEngine);
+        ReflectionTestUtils.setField(fetchScheduler, "rssSourceMapper", rssSourceMapper);
+        ReflectionTestUtils.setField(fetchScheduler, "rssService", rssService);
+        for (int id = 1; id <= 3; id++) {
+            RssSource source = createSource(id, 60, LocalDateTime.now().minusHours(2));
+            source.setStatus("active");
+            when(rssSourceMapper.findById(id)).thenReturn(source);
+            fetchScheduler.upsert(source);
+        }
+        // 第一个源一直抓取到超时，其余两个源在等待并发许可时被取消
+        when(rssService.fetchScheduledSource(any())).thenAnswer(invocation -> {
+            Thread.sleep(5000);
+            return 0;
+        });
+
+        List<FetchScheduler.ScheduledSource> due = fetchScheduler.takeDue();
+        assertEquals(3, due.size());
+        ReflectionTestUtils.invokeMethod(fetchScheduler, "dispatch", due);
+
+        // 抓取在后台进行，等待本轮超时后三个源都按频率重新入堆
+        DelayQueue<?> queue = (DelayQueue<?>) ReflectionTestUtils.getField(fetchScheduler, "queue");
+        long deadline = System.currentTimeMillis() + 5000;
+        while (queue.size() < 3 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(3, queue.size());
+        assertEquals(3, fetchScheduler.size());
+        for (Object entry : queue) {
+            assertTrue(((FetchScheduler.ScheduledSource) entry).getDueAtMillis() > System.currentTimeMillis());
+        }
+        // 至少有一个源在取消前没拿到许可，从未执行抓取
+        verify(rssService, atMost(2)).fetchScheduledSource(any());
+    }
+
+    @Test
+    public void testDispatch_DoesNotWaitForPass() throws Exception {
+        fetchProperties.setJitterRatio(0.0);
+        RssFetchEngine rssFetchEngine = mock(RssFetchEngine.class);
+        RssSourceMapper rssSourceMapper = mock(RssSourceMapper.class);
+        ReflectionTestUtils.setField(fetchScheduler, "rssFetchEngine", rssFetchEngine);
+        ReflectionTestUtils.setField(fetchScheduler, "rssSourceMapper", rssSourceMapper);
+        RssSource source = createSource(1, 60, LocalDateTime.now().minusHours(2));
+        source.setStatus("active");
+        when(rssSourceMapper.findById(1)).thenReturn(source);
+        fetchScheduler.upsert(source);
+        CountDownLatch release = new CountDownLatch(1);
+        when(rssFetchEngine.runPass(anyList(), any())).thenAnswer(invocation -> {
+            release.await();
+            return null;
+        });
+
+        // 抓取阻塞时调度线程照常返回，继续等待下一个到期的源
+        assertTimeoutPreemptively(Duration.ofSeconds(2),
+                () -> ReflectionTestUtils.invokeMethod(fetchScheduler, "dispatch", fetchScheduler.takeDue()));
+        release.countDown();
+        fetchScheduler.stop();
+    }
+}
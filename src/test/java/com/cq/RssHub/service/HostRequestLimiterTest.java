@@ -0,0 +1,92 @@
+package com.cq.RssHub.service;
+
+import com.cq.RssHub.config.FetchProperties;
+import com.cq.RssHub.pojo.vo.HostMetricsVO;
+import com.cq.RssHub.service.impl.HostRequestLimiter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HostRequestLimiterTest {
+
+    private HostRequestLimiter hostRequestLimiter;
+    private FetchProperties fetchProperties;
+
+    @BeforeEach
+    public void setup() {
+        fetchProperties = new FetchProperties();
+        hostRequestLimiter = new HostRequestLimiter();
+        ReflectionTestUtils.setField(hostRequestLimiter, "fetchProperties", fetchProperties);
+    }
+
+    @Test
+    public void testExecute_LimitsConnectionsPerHost() throws Exception {
+        fetchProperties.setPerHostConnections(2);
+        fetchProperties.setPerHostRate(0.0);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        List<Future<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(executor.submit(() -> hostRequestLimiter.execute(URI.create("https://a.example.com/feed"), () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(30);
+                running.decrementAndGet();
+                return "ok";
+            })));
+        }
+        for (Future<String> future : futures) {
+            assertEquals("ok", future.get());
+        }
+        executor.shutdown();
+
+        // 同一主机的并发请求不超过上限
+        assertTrue(maxRunning.get() <= 2, "并发数超过上限: " + maxRunning.get());
+        HostMetricsVO metrics = hostRequestLimiter.getHostMetrics().get(0);
+        assertEquals("a.example.com", metrics.getHost());
+        assertEquals(8, metrics.getTotalRequests());
+        assertEquals(0, metrics.getInFlight());
+        assertEquals(0, metrics.getQueueDepth());
+        assertTrue(metrics.getMaxQueueDepth() > 0);
+    }
+
+    @Test
+    public void testExecute_SpacesRequestsByRate() throws Exception {
+        fetchProperties.setPerHostRate(20.0);
+        URI uri = URI.create("https://b.example.com/feed");
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            hostRequestLimiter.execute(uri, () -> "ok");
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // 每秒20个请求，5个请求至少间隔4个时间片（200ms）
+        assertTrue(elapsedMillis >= 190, "请求间隔过短: " + elapsedMillis + "ms");
+    }
+
+    @Test
+    public void testExecute_HostsAreIndependent() throws Exception {
+        fetchProperties.setPerHostRate(1.0);
+
+        long start = System.nanoTime();
+        hostRequestLimiter.execute(URI.create("https://c.example.com/feed"), () -> "ok");
+        hostRequestLimiter.execute(URI.create("https://d.example.com/feed"), () -> "ok");
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // 不同主机各自计算速率，不会互相等待
+        assertTrue(elapsedMillis < 500, "不同主机之间不应互相限流: " + elapsedMillis + "ms");
+        assertEquals(2, hostRequestLimiter.getHostMetrics().size());
+    }
+}
@@ -0,0 +1,163 @@
+package com.cq.RssHub.service;
+
+import com.cq.RssHub.config.FetchProperties;
+import com.cq.RssHub.mapper.CategoryMapper;
+import com.cq.RssHub.mapper.RssSourceMapper;
+import com.cq.RssHub.pojo.Article;
+import com.cq.RssHub.pojo.RssSource;
+import com.cq.RssHub.service.impl.ContentAnalyzer;
+import com.cq.RssHub.service.impl.CoverImageExtractor;
+import com.cq.RssHub.service.impl.FetchScheduler;
+import com.cq.RssHub.service.impl.RssParserService;
+import com.cq.RssHub.service.impl.RssSourceServiceImpl;
+import com.cq.RssHub.service.impl.StreamingFeedParser;
+import com.cq.RssHub.utils.HashUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 按水位线增量解析的测试，流式解析和Rome解析两条路径结果应一致
+ */
+public class IncrementalIngestTest {
+
+    private RssParserService rssParserService;
+    private FetchProperties fetchProperties;
+    private RssSource source;
+
+    @BeforeEach
+    public void setup() {
+        fetchProperties = new FetchProperties();
+        ContentAnalyzer contentAnalyzer = new ContentAnalyzer();
+        ReflectionTestUtils.setField(contentAnalyzer, "coverImageExtractor", new CoverImageExtractor());
+        rssParserService = new RssParserService();
+        ReflectionTestUtils.setField(rssParserService, "fetchProperties", fetchProperties);
+        ReflectionTestUtils.setField(rssParserService, "streamingFeedParser", new StreamingFeedParser());
+        ReflectionTestUtils.setField(rssParserService, "contentAnalyzer", contentAnalyzer);
+        source = new RssSource();
+        source.setId(1);
+        source.setUrl("https://example.com/feed");
+    }
+
+    private static byte[] feed(String... items) {
+        StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?><rss version=\"2.0\"><channel><title>测试</title>");
+        for (String item : items) {
+            String[] parts = item.split("\\|");
+            xml.append("<item><title>").append(parts[0]).append("</title><guid>https://example.com/")
+                    .append(parts[0]).append("</guid><link>https://example.com/").append(parts[0])
+                    .append("</link><pubDate>").append(parts[1]).append("</pubDate></item>");
+        }
+        return xml.append("</channel></rss>").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static LocalDateTime localTime(int day) {
+        return LocalDateTime.of(2025, 1, day, 8, 0).atOffset(ZoneOffset.UTC)
+                .atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    public void testParseArticles_StopsAtWatermark(boolean streaming) throws Exception {
+        fetchProperties.setStreamingParser(streaming);
+        source.setWatermarkTime(localTime(5));
+        source.setWatermarkGuid(HashUtil.sha256Hex("https://example.com/b"));
+
+        List<Article> articles = rssParserService.parseArticles(feed(
+                "c|Tue, 07 Jan 2025 08:00:00 GMT",
+                "d|Mon, 06 Jan 2025 08:00:00 GMT",
+                "b|Sun, 05 Jan 2025 08:00:00 GMT",
+                "a|Sat, 04 Jan 2025 08:00:00 GMT"), source, null, Set.of());
+
+        // 只转换水位线之前的新条目
+        assertEquals(2, articles.size());
+        assertEquals("c", articles.get(0).getTitle());
+        assertEquals(localTime(7), source.getWatermarkTime());
+        assertEquals(HashUtil.sha256Hex("https://example.com/c"), source.getWatermarkGuid());
+        assertTrue(source.getWatermarkOrdered());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    public void testParseArticles_UnorderedFeedFallsBackToFullConversion(boolean streaming) throws Exception {
+        fetchProperties.setStreamingParser(streaming);
+
+        List<Article> articles = rssParserService.parseArticles(feed(
+                "c|Tue, 07 Jan 2025 08:00:00 GMT",
+                "d|Mon, 06 Jan 2025 08:00:00 GMT",
+                "e|Wed, 08 Jan 2025 08:00:00 GMT",
+                "b|Sun, 05 Jan 2025 08:00:00 GMT",
+                "a|Sat, 04 Jan 2025 08:00:00 GMT"), source, null, Set.of("https://example.com/b"));
+
+        // 发现顺序错乱后遇到已入库的b不再停止，只跳过它，继续转换a
+        assertEquals(List.of("c", "d", "e", "a"), articles.stream().map(Article::getTitle).toList());
+        assertFalse(source.getWatermarkOrdered());
+        // 水位线取最新的条目，而不是第一个条目
+        assertEquals(localTime(8), source.getWatermarkTime());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    public void testParseArticles_UnorderedSourceDoesNotStopEarly(boolean streaming) throws Exception {
+        fetchProperties.setStreamingParser(streaming);
+        source.setWatermarkTime(localTime(6));
+        source.setWatermarkOrdered(false);
+
+        List<Article> articles = rssParserService.parseArticles(feed(
+                "c|Tue, 07 Jan 2025 08:00:00 GMT",
+                "a|Sat, 04 Jan 2025 08:00:00 GMT",
+                "b|Fri, 03 Jan 2025 08:00:00 GMT"), source, null, Set.of("https://example.com/b"));
+
+        assertEquals(2, articles.size());
+        // 完整读完且本次顺序正确，恢复按水位线停止
+        assertTrue(source.getWatermarkOrdered());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    public void testUrlChange_ResetsWatermark(boolean streaming) throws Exception {
+        fetchProperties.setStreamingParser(streaming);
+        source.setWatermarkTime(localTime(5));
+        source.setWatermarkGuid(HashUtil.sha256Hex("https://example.com/b"));
+        RssSourceMapper rssSourceMapper = mock(RssSourceMapper.class);
+        when(rssSourceMapper.findById(1)).thenReturn(source);
+        RssSourceServiceImpl rssSourceService = new RssSourceServiceImpl();
+        ReflectionTestUtils.setField(rssSourceService, "rssSourceMapper", rssSourceMapper);
+        ReflectionTestUtils.setField(rssSourceService, "categoryMapper", mock(CategoryMapper.class));
+        ReflectionTestUtils.setField(rssSourceService, "fetchScheduler", mock(FetchScheduler.class));
+
+        // 客户端提交的对象带着旧地址的水位线
+        RssSource update = new RssSource();
+        update.setId(1);
+        update.setUrl("https://other.example.com/feed");
+        update.setFrequency(60);
+        update.setWatermarkTime(source.getWatermarkTime());
+        update.setWatermarkGuid(source.getWatermarkGuid());
+        rssSourceService.updateRssSource(update);
+
+        ArgumentCaptor<RssSource> saved = ArgumentCaptor.forClass(RssSource.class);
+        verify(rssSourceMapper).updateWatermark(saved.capture());
+        RssSource stored = new RssSource();
+        stored.setId(1);
+        stored.setWatermarkTime(saved.getValue().getWatermarkTime());
+        stored.setWatermarkGuid(saved.getValue().getWatermarkGuid());
+        stored.setWatermarkOrdered(saved.getValue().getWatermarkOrdered());
+
+        // 新地址中早于旧水位线的条目全部转换
+        List<Article> articles = rssParserService.parseArticles(feed(
+                "y|Sat, 04 Jan 2025 08:00:00 GMT",
+                "x|Fri, 03 Jan 2025 08:00:00 GMT"), stored, null, Set.of());
+        assertEquals(List.of("y", "x"), articles.stream().map(Article::getTitle).toList());
+    }
+}
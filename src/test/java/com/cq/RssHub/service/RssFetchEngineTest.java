@@ -0,0 +1,172 @@
+package com.cq.RssHub.service;
+
+import com.cq.RssHub.config.FetchProperties;
+import com.cq.RssHub.pojo.RssSource;
+import com.cq.RssHub.pojo.vo.FetchPassVO;
+import com.cq.RssHub.service.impl.HostRequestLimiter;
+import com.cq.RssHub.service.impl.RssFetchEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RssFetchEngineTest {
+
+    private RssFetchEngine rssFetchEngine;
+    private FetchProperties fetchProperties;
+
+    @BeforeEach
+    public void setup() {
+        fetchProperties = new FetchProperties();
+        rssFetchEngine = new RssFetchEngine();
+        ReflectionTestUtils.setField(rssFetchEngine, "fetchProperties", fetchProperties);
+    }
+
+    private List<RssSource> createSources(int count) {
+        List<RssSource> sources = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            RssSource source = new RssSource();
+            source.setId(i);
+            source.setName("源" + i);
+            sources.add(source);
+        }
+        return sources;
+    }
+
+    @Test
+    public void testRunPass_RespectsConcurrencyLimit() {
+        fetchProperties.setConcurrency(3);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        FetchPassVO pass = rssFetchEngine.runPass(createSources(12), source -> {
+            int current = running.incrementAndGet();
+            maxRunning.accumulateAndGet(current, Math::max);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+            }
+            return 2;
+        });
+
+        // 并发数不应超过配置的上限
+        assertTrue(maxRunning.get() <= 3, "并发数超过上限: " + maxRunning.get());
+        assertEquals(12, pass.getTotalSources());
+        assertEquals(12, pass.getSucceeded());
+        assertEquals(24, pass.getArticlesAdded());
+        assertTrue(pass.getThroughput() > 0);
+        assertSame(pass, rssFetchEngine.getLastPass());
+    }
+
+    @Test
+    public void testRunPass_CancelsSourcesAfterDeadline() {
+        fetchProperties.setPassTimeout(Duration.ofMillis(200));
+
+        FetchPassVO pass = rssFetchEngine.runPass(createSources(3), source -> {
+            if (source.getId() == 2) {
+                // 模拟一个卡住的慢源
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return 1;
+        });
+
+        // 慢源被取消，其他源正常完成
+        assertEquals(2, pass.getSucceeded());
+        assertEquals(1, pass.getTimedOut());
+        assertTrue(pass.getElapsedMillis() < 5_000);
+    }
+
+    @Test
+    public void testRunPass_CountsFailures() {
+        FetchPassVO pass = rssFetchEngine.runPass(createSources(2), source -> {
+            if (source.getId() == 1) {
+                throw new RuntimeException("网络错误");
+            }
+            return 5;
+        });
+
+        assertEquals(1, pass.getSucceeded());
+        assertEquals(1, pass.getFailed());
+        assertEquals(5, pass.getArticlesAdded());
+    }
+
+    @Test
+    public void testRunPass_OverlappingPassesShareConcurrencyLimit() throws Exception {
+        fetchProperties.setConcurrency(2);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        Function<RssSource, Integer> fetcher = source -> {
+            int current = running.incrementAndGet();
+            maxRunning.accumulateAndGet(current, Math::max);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+            }
+            return 1;
+        };
+
+        // 调度器的两批抓取同时进行
+        Thread other = Thread.ofVirtual().start(() -> rssFetchEngine.runPass(createSources(6), fetcher));
+        rssFetchEngine.runPass(createSources(6), fetcher);
+        other.join();
+
+        assertTrue(maxRunning.get() <= 2, "并发数超过上限: " + maxRunning.get());
+    }
+
+    @Test
+    public void testRunPass_ThrottledHostDoesNotBlockOtherHosts() {
+        fetchProperties.setConcurrency(2);
+        fetchProperties.setPerHostConnections(1);
+        fetchProperties.setPerHostRate(0.0);
+        HostRequestLimiter hostRequestLimiter = new HostRequestLimiter();
+        ReflectionTestUtils.setField(hostRequestLimiter, "fetchProperties", fetchProperties);
+
+        // 前6个源在同一个慢主机上排队，后2个源在另一个主机上
+        List<RssSource> sources = createSources(8);
+        Map<Integer, Long> finishedMillis = new ConcurrentHashMap<>();
+        long start = System.nanoTime();
+        FetchPassVO pass = rssFetchEngine.runPass(sources, source -> {
+            boolean slow = source.getId() <= 6;
+            URI uri = URI.create(slow ? "http://slow.example/feed" : "http://fast.example/feed");
+            try {
+                hostRequestLimiter.execute(uri, () -> {
+                    if (slow) {
+                        Thread.sleep(100);
+                    }
+                    return null;
+                });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            finishedMillis.put(source.getId(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return 1;
+        });
+
+        assertEquals(8, pass.getSucceeded());
+        // 慢主机串行执行需要约600ms，在其连接上排队的源不应占住全局许可
+        assertTrue(finishedMillis.values().stream().mapToLong(Long::longValue).max().orElse(0) >= 500);
+        assertTrue(finishedMillis.get(7) < 300, "其他主机被阻塞: " + finishedMillis.get(7) + "ms");
+        assertTrue(finishedMillis.get(8) < 300, "其他主机被阻塞: " + finishedMillis.get(8) + "ms");
+    }
+}
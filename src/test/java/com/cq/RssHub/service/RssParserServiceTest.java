@@ -1,19 +1,28 @@
 package com.cq.RssHub.service;
 
+import com.cq.RssHub.config.FetchProperties;
 import com.cq.RssHub.pojo.Article;
 import com.cq.RssHub.pojo.RssSource;
+import com.cq.RssHub.service.impl.ContentAnalyzer;
+import com.cq.RssHub.service.impl.CoverImageExtractor;
+import com.cq.RssHub.service.impl.FeedDownloader;
+import com.cq.RssHub.service.impl.FetchExecutors;
 import com.cq.RssHub.service.impl.RssParserService;
+import com.cq.RssHub.utils.HashUtil;
 import com.rometools.rome.feed.synd.*;
 import com.rometools.rome.io.FeedException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
@@ -33,6 +42,12 @@ public class RssParserServiceTest {
     @InjectMocks
     private RssParserService rssParserService;
 
+    @Mock
+    private FeedDownloader feedDownloader;
+
+    @Spy
+    private ContentAnalyzer contentAnalyzer = new ContentAnalyzer();
+
     private SyndFeed mockFeed;
     private SyndEntry mockEntry;
     private RssSource mockSource;
@@ -40,6 +55,11 @@ public class RssParserServiceTest {
     @BeforeEach
     public void setup() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(contentAnalyzer, "coverImageExtractor", new CoverImageExtractor());
+        FetchExecutors fetchExecutors = new FetchExecutors();
+        ReflectionTestUtils.setField(fetchExecutors, "fetchProperties", new FetchProperties());
+        fetchExecutors.init();
+        ReflectionTestUtils.setField(rssParserService, "fetchExecutors", fetchExecutors);
         
         // 创建模拟Feed
         mockFeed = new SyndFeedImpl();
@@ -82,6 +102,26 @@ public class RssParserServiceTest {
         mockSource.setUrl("http://test.feed.com");
     }
 
+    @Test
+    public void testFetchFeedContent_SameBodyNewEtag_UpdatesValidators() throws Exception {
+        byte[] body = "<rss><channel><title>测试</title></channel></rss>".getBytes(StandardCharsets.UTF_8);
+        mockSource.setEtag("\"v1\"");
+        mockSource.setLastModified("Mon, 05 Jan 2026 00:00:00 GMT");
+        mockSource.setContentHash(HashUtil.sha256Hex(body));
+        FeedDownloader.Download download = mock(FeedDownloader.Download.class);
+        when(download.getStatusCode()).thenReturn(200);
+        when(download.getBody()).thenReturn(body);
+        when(download.getEtag()).thenReturn("\"v2\"");
+        when(download.getLastModified()).thenReturn("Tue, 06 Jan 2026 00:00:00 GMT");
+        when(feedDownloader.download(mockSource, "\"v1\"", "Mon, 05 Jan 2026 00:00:00 GMT")).thenReturn(download);
+
+        // 内容未变化，但新的校验信息要写回source供调用方保存
+        assertNull(rssParserService.fetchFeedContent(mockSource));
+        assertEquals("\"v2\"", mockSource.getEtag());
+        assertEquals("Tue, 06 Jan 2026 00:00:00 GMT", mockSource.getLastModified());
+        assertEquals(HashUtil.sha256Hex(body), mockSource.getContentHash());
+    }
+
     @Test
     public void testConvertToArticle_Success() {
         // 调用被测试方法
@@ -0,0 +1,166 @@
+package com.cq.RssHub.service;
+
+import com.cq.RssHub.mapper.ArticleMapper;
+import com.cq.RssHub.mapper.FetchTaskMapper;
+import com.cq.RssHub.mapper.RssSourceMapper;
+import com.cq.RssHub.pojo.Article;
+import com.cq.RssHub.pojo.FetchTask;
+import com.cq.RssHub.pojo.RssSource;
+import com.cq.RssHub.service.impl.ArticleBatchWriter;
+import com.cq.RssHub.service.impl.ArticleCountService;
+import com.cq.RssHub.service.impl.FeedArchive;
+import com.cq.RssHub.service.impl.FetchPersistService;
+import com.cq.RssHub.service.impl.RssParserService;
+import com.cq.RssHub.service.impl.RssService;
+import com.cq.RssHub.service.impl.SourceCircuitBreaker;
+import com.cq.RssHub.utils.SingleFlight;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RssServiceTest {
+
+    @Mock
+    private RssSourceMapper rssSourceMapper;
+
+    @Mock
+    private ArticleMapper articleMapper;
+
+    @Mock
+    private FetchTaskMapper fetchTaskMapper;
+
+    @Mock
+    private RssParserService rssParserService;
+
+    @Mock
+    private ArticleBatchWriter articleBatchWriter;
+
+    @Mock
+    private FetchPersistService fetchPersistService;
+
+    @Mock
+    private SourceCircuitBreaker sourceCircuitBreaker;
+
+    @Mock
+    private FeedArchive feedArchive;
+
+    @Mock
+    private ArticleCountService articleCountService;
+
+    @InjectMocks
+    private RssService rssService;
+
+    @Test
+    public void testRunFetchTask_JoinedFlightAddsNoArticles() throws Exception {
+        RssSource source = source();
+        when(rssSourceMapper.findById(1)).thenReturn(source);
+        List<Article> articles = List.of(new Article(), new Article());
+        when(rssParserService.parseArticles(any(), any(), any(), any())).thenReturn(articles);
+        when(articleBatchWriter.filterNew(articles)).thenReturn(articles);
+        when(fetchPersistService.persist(any(), anyList())).thenReturn(2);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(rssParserService.fetchFeedContent(any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return new byte[]{1};
+        });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // 定时抓取正在进行时，手动抓取复用它的结果
+            Future<Integer> scheduled = executor.submit(() -> rssService.fetchScheduledSource(source));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            SingleFlight<?, ?> flights = (SingleFlight<?, ?>) ReflectionTestUtils.getField(rssService, "sourceFetches");
+            Thread releaser = Thread.ofVirtual().start(() -> {
+                while (flights.getJoinCount() == 0) {
+                    Thread.onSpinWait();
+                }
+                release.countDown();
+            });
+            FetchTask task = new FetchTask();
+            task.setSourceId(1);
+            task.setStatus("running");
+
+            int added = rssService.runFetchTask(task);
+            releaser.join();
+
+            // 新文章只由发起抓取的一方计数
+            assertEquals(2, scheduled.get(5, TimeUnit.SECONDS));
+            assertEquals(0, added);
+            assertEquals(0, task.getArticlesAdded());
+            assertTrue(task.getJoined());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testRunFetchTask_CountsOnlyRowsActuallyInserted() throws Exception {
+        RssSource source = source();
+        when(rssSourceMapper.findById(1)).thenReturn(source);
+        when(rssParserService.fetchFeedContent(any())).thenReturn(new byte[]{1});
+        List<Article> articles = List.of(new Article(), new Article(), new Article());
+        when(rssParserService.parseArticles(any(), any(), any(), any())).thenReturn(articles);
+        when(articleBatchWriter.filterNew(articles)).thenReturn(articles);
+        // 其中一篇已被并发写入，INSERT IGNORE只插入了两行
+        when(fetchPersistService.persist(any(), anyList())).thenReturn(2);
+        FetchTask task = new FetchTask();
+        task.setSourceId(1);
+        task.setStatus("running");
+
+        assertEquals(2, rssService.runFetchTask(task));
+        assertEquals(2, task.getArticlesAdded());
+    }
+
+    @Test
+    public void testFetch_UnchangedContentWithNewEtag_SavesValidators() throws Exception {
+        RssSource source = source();
+        source.setEtag("\"v1\"");
+        source.setContentHash("hash");
+        // 200响应体与上次相同，只是ETag变了
+        when(rssParserService.fetchFeedContent(source)).thenAnswer(invocation -> {
+            source.setEtag("\"v2\"");
+            return null;
+        });
+
+        assertEquals(0, rssService.fetchScheduledSource(source));
+
+        verify(rssSourceMapper).updateFetchValidators(argThat(s -> "\"v2\"".equals(s.getEtag())
+                && "hash".equals(s.getContentHash())));
+        verify(fetchPersistService, never()).persist(any(), anyList());
+    }
+
+    @Test
+    public void testFetch_NotModified_DoesNotWriteValidators() throws Exception {
+        RssSource source = source();
+        source.setEtag("\"v1\"");
+        when(rssParserService.fetchFeedContent(source)).thenReturn(null);
+
+        assertEquals(0, rssService.fetchScheduledSource(source));
+
+        verify(rssSourceMapper, never()).updateFetchValidators(any());
+    }
+
+    private static RssSource source() {
+        RssSource source = new RssSource();
+        source.setId(1);
+        source.setName("源1");
+        return source;
+    }
+}
@@ -0,0 +1,123 @@
+package com.cq.RssHub.service;
+
+import com.cq.RssHub.mapper.CategoryMapper;
+import com.cq.RssHub.mapper.RssSourceMapper;
+import com.cq.RssHub.pojo.RssSource;
+import com.cq.RssHub.pojo.SettingsSnapshot;
+import com.cq.RssHub.pojo.SystemSetting;
+import com.cq.RssHub.service.impl.FetchScheduler;
+import com.cq.RssHub.service.impl.RssSourceServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RssSourceServiceTest {
+
+    @Mock
+    private RssSourceMapper rssSourceMapper;
+
+    @Mock
+    private CategoryMapper categoryMapper;
+
+    @Mock
+    private FetchScheduler fetchScheduler;
+
+    @Mock
+    private SystemSettingService systemSettingService;
+
+    @InjectMocks
+    private RssSourceServiceImpl rssSourceService;
+
+    @AfterEach
+    public void cleanup() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testCreate_SchedulesAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        RssSource source = new RssSource();
+        source.setId(5);
+        source.setFrequency(30);
+
+        rssSourceService.createRssSource(source);
+
+        // 提交前调度线程查不到新源，不能加入调度
+        verify(fetchScheduler, never()).upsert(any());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(fetchScheduler).upsert(source);
+    }
+
+    @Test
+    public void testDelete_RollbackKeepsSchedule() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        rssSourceService.deleteRssSource(5);
+
+        // 事务回滚时不执行提交回调，源仍在调度中
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        verify(fetchScheduler, never()).remove(any());
+    }
+
+    @Test
+    public void testUpdate_WithoutTransactionSchedulesImmediately() {
+        RssSource existing = new RssSource();
+        existing.setId(5);
+        existing.setFrequency(30);
+        when(rssSourceMapper.findById(5)).thenReturn(existing);
+        RssSource update = new RssSource();
+        update.setId(5);
+        update.setFrequency(15);
+
+        rssSourceService.updateRssSource(update);
+
+        verify(fetchScheduler).upsert(update);
+    }
+
+    @Test
+    public void testCreate_UsesDefaultFrequencyWhenOmitted() {
+        when(systemSettingService.getSnapshot()).thenReturn(SettingsSnapshot.of(
+                List.of(setting("defaultFetchFrequency", "15")), 1));
+        RssSource source = new RssSource();
+
+        rssSourceService.createRssSource(source);
+
+        assertEquals(15, source.getFrequency());
+    }
+
+    @Test
+    public void testUpdate_KeepsFrequencyWhenOmitted() {
+        RssSource existing = new RssSource();
+        existing.setId(5);
+        existing.setFrequency(30);
+        when(rssSourceMapper.findById(5)).thenReturn(existing);
+        RssSource update = new RssSource();
+        update.setId(5);
+
+        rssSourceService.updateRssSource(update);
+
+        assertEquals(30, update.getFrequency());
+    }
+
+    private static SystemSetting setting(String key, String value) {
+        SystemSetting setting = new SystemSetting();
+        setting.setSettingKey(key);
+        setting.setSettingValue(value);
+        return setting;
+    }
+}
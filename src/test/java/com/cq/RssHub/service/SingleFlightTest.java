@@ -0,0 +1,112 @@
+package com.cq.RssHub.service;
+
+import com.cq.RssHub.service.impl.RssParserService;
+import com.cq.RssHub.utils.SingleFlight;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTest {
+
+    @Test
+    public void testExecute_ConcurrentCallsShareOneExecution() throws Exception {
+        SingleFlight<Integer, String> flights = new SingleFlight<>();
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<SingleFlight.Flight<String>> leader = executor.submit(() -> flights.execute(1, () -> {
+                calls.incrementAndGet();
+                started.countDown();
+                release.await();
+                return "feed";
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<SingleFlight.Flight<String>> follower = executor.submit(() -> flights.execute(1, () -> {
+                calls.incrementAndGet();
+                return "again";
+            }));
+
+            // 等待第二个调用方挂到进行中的调用上
+            while (flights.getJoinCount() == 0) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            assertFalse(leader.get(5, TimeUnit.SECONDS).isJoined());
+            assertTrue(follower.get(5, TimeUnit.SECONDS).isJoined());
+            assertEquals("feed", follower.get().getValue());
+            assertEquals(1, calls.get());
+            assertEquals(0, flights.inFlightCount());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testExecute_ExceptionIsNotCached() throws Exception {
+        SingleFlight<String, String> flights = new SingleFlight<>();
+
+        assertThrows(IOException.class, () -> flights.execute("a", () -> {
+            throw new IOException("网络错误");
+        }));
+
+        // 调用结束后key已移除，下一次重新执行
+        SingleFlight.Flight<String> flight = flights.execute("a", () -> "ok");
+        assertEquals("ok", flight.getValue());
+        assertFalse(flight.isJoined());
+    }
+
+    @Test
+    public void testExecute_ErrorReleasesWaitingCallers() throws Exception {
+        SingleFlight<Integer, String> flights = new SingleFlight<>();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<SingleFlight.Flight<String>> leader = executor.submit(() -> flights.execute(1, () -> {
+                started.countDown();
+                release.await();
+                // 模拟解析畸形内容时的栈溢出
+                throw new StackOverflowError();
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<SingleFlight.Flight<String>> follower = executor.submit(() -> flights.execute(1, () -> "again"));
+            while (flights.getJoinCount() == 0) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            // 等待的调用方得到同一个Error，而不是永远阻塞
+            ExecutionException leaderError = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(StackOverflowError.class, leaderError.getCause());
+            ExecutionException followerError = assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(StackOverflowError.class, followerError.getCause());
+            assertEquals(0, flights.inFlightCount());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testNormalizeFeedUrl() {
+        assertEquals("https://example.com/feed?x=1",
+                RssParserService.normalizeFeedUrl(" HTTPS://Example.COM:443/feed?x=1#top "));
+        assertEquals("http://example.com/",
+                RssParserService.normalizeFeedUrl("http://example.com"));
+        assertEquals("http://example.com:8080/a/feed",
+                RssParserService.normalizeFeedUrl("http://example.com:8080/a/./feed"));
+    }
+}
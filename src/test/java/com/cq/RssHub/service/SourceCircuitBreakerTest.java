@@ -0,0 +1,136 @@
+package com.cq.RssHub.service;
+
+import com.cq.RssHub.config.FetchProperties;
+import com.cq.RssHub.mapper.RssSourceMapper;
+import com.cq.RssHub.pojo.RssSource;
+import com.cq.RssHub.service.impl.SourceCircuitBreaker;
+import org.apache.ibatis.annotations.Update;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SourceCircuitBreakerTest {
+
+    @Mock
+    private RssSourceMapper rssSourceMapper;
+
+    @Spy
+    private FetchProperties fetchProperties = new FetchProperties();
+
+    @InjectMocks
+    private SourceCircuitBreaker sourceCircuitBreaker;
+
+    private RssSource source;
+
+    @BeforeEach
+    public void setup() {
+        fetchProperties.setFailureThreshold(3);
+        fetchProperties.setRetryBackoff(Duration.ofMinutes(5));
+        fetchProperties.setMaxRetryBackoff(Duration.ofMinutes(30));
+        source = new RssSource();
+        source.setId(1);
+        source.setName("测试源");
+    }
+
+    @Test
+    public void testRecordFailure_OpensAfterThresholdWithExponentialBackoff() {
+        IOException error = new IOException("连接超时");
+
+        // 未达到阈值时仍保持活跃，按原频率抓取
+        sourceCircuitBreaker.recordFailure(source, error);
+        sourceCircuitBreaker.recordFailure(source, error);
+        assertEquals("active", source.getStatus());
+        assertNull(source.getNextRetryTime());
+        assertEquals("连接超时", source.getErrorMessage());
+
+        // 第3次失败熔断，5分钟后重试
+        sourceCircuitBreaker.recordFailure(source, error);
+        assertEquals("error", source.getStatus());
+        assertRetryAfter(Duration.ofMinutes(5));
+        assertTrue(SourceCircuitBreaker.isOpen(source));
+
+        // 试探失败后间隔翻倍，直到上限
+        sourceCircuitBreaker.recordFailure(source, error);
+        assertRetryAfter(Duration.ofMinutes(10));
+        sourceCircuitBreaker.recordFailure(source, error);
+        assertRetryAfter(Duration.ofMinutes(20));
+        sourceCircuitBreaker.recordFailure(source, error);
+        assertRetryAfter(Duration.ofMinutes(30));
+
+        assertEquals(6, source.getConsecutiveFailures());
+        verify(rssSourceMapper, times(6)).updateFetchFailure(source);
+    }
+
+    @Test
+    public void testRecordSuccess_ClosesBreaker() {
+        source.setStatus("error");
+        source.setConsecutiveFailures(4);
+        source.setNextRetryTime(LocalDateTime.now().minusMinutes(1));
+        source.setErrorMessage("HTTP错误: 503");
+
+        sourceCircuitBreaker.recordSuccess(source);
+
+        assertEquals("active", source.getStatus());
+        assertEquals(0, source.getConsecutiveFailures());
+        assertNull(source.getNextRetryTime());
+        assertNull(source.getErrorMessage());
+        verify(rssSourceMapper).resetFetchFailures(1);
+    }
+
+    @Test
+    public void testRecordSuccess_NoFailuresSkipsUpdate() {
+        sourceCircuitBreaker.recordSuccess(source);
+
+        verify(rssSourceMapper, never()).resetFetchFailures(any());
+    }
+
+    @Test
+    public void testManualFetchOfInactiveSource_StaysInactive() {
+        source.setStatus("inactive");
+        IOException error = new IOException("连接超时");
+
+        for (int i = 0; i < 3; i++) {
+            sourceCircuitBreaker.recordFailure(source, error);
+        }
+        assertEquals("inactive", source.getStatus());
+        assertNull(source.getNextRetryTime());
+
+        sourceCircuitBreaker.recordSuccess(source);
+        assertEquals("inactive", source.getStatus());
+    }
+
+    @Test
+    public void testConcurrentDeactivate_StatementsKeepInactive() throws Exception {
+        // 抓取开始时读到的是active，抓取期间管理员停用了该源：
+        // 写回失败记录和清除失败记录的语句都以数据库中的当前状态为准，不覆盖inactive
+        String failure = updateSql("updateFetchFailure", RssSource.class);
+        String reset = updateSql("resetFetchFailures", Integer.class);
+        assertTrue(failure.contains("status = IF(status = 'inactive', status, #{status})"), failure);
+        assertTrue(reset.contains("status = IF(status = 'error', 'active', status)"), reset);
+        assertFalse(reset.contains("status = 'active'"), reset);
+    }
+
+    private static String updateSql(String method, Class<?> parameterType) throws NoSuchMethodException {
+        Update update = RssSourceMapper.class.getMethod(method, parameterType).getAnnotation(Update.class);
+        return String.join("", update.value());
+    }
+
+    private void assertRetryAfter(Duration expected) {
+        LocalDateTime expectedTime = LocalDateTime.now().plus(expected);
+        assertTrue(Duration.between(source.getNextRetryTime(), expectedTime).abs().getSeconds() < 5,
+                "下次重试时间应为" + expected.toMinutes() + "分钟后");
+    }
+}
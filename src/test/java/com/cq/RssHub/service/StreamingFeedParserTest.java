@@ -0,0 +1,127 @@
+package com.cq.RssHub.service;
+
+import com.cq.RssHub.service.impl.StreamingFeedParser;
+import com.rometools.rome.feed.synd.SyndEntry;
+import com.rometools.rome.feed.synd.SyndFeed;
+import com.rometools.rome.io.SyndFeedInput;
+import com.rometools.rome.io.XmlReader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StreamingFeedParserTest {
+
+    private static final String RSS = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <rss version="2.0" xmlns:dc="http://purl.org/dc/elements/1.1/"
+                 xmlns:content="http://purl.org/rss/1.0/modules/content/">
+              <channel>
+                <title>测试频道</title>
+                <item>
+                  <title>第一篇</title>
+                  <link>https://example.com/1</link>
+                  <dc:creator>张三</dc:creator>
+                  <pubDate>Mon, 06 Jan 2025 08:00:00 GMT</pubDate>
+                  <description><![CDATA[<p>摘要<img src="https://example.com/a.jpg"/></p>]]></description>
+                  <content:encoded><![CDATA[<p>正文</p>]]></content:encoded>
+                </item>
+                <item>
+                  <title>第二篇</title>
+                  <guid>https://example.com/2</guid>
+                  <pubDate>Sun, 05 Jan 2025 08:00:00 GMT</pubDate>
+                </item>
+                <item>
+                  <title>第三篇</title>
+                  <link>https://example.com/3</link>
+                </item>
+              </channel>
+            </rss>
+            """;
+
+    private static final String ATOM = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <feed xmlns="http://www.w3.org/2005/Atom">
+              <title>测试</title>
+              <entry>
+                <title>Atom文章</title>
+                <link rel="alternate" href="https://example.com/atom/1"/>
+                <id>urn:uuid:1</id>
+                <author><name>李四</name></author>
+                <published>2025-01-06T08:00:00Z</published>
+                <summary>摘要</summary>
+                <content type="html">&lt;p&gt;正文&lt;/p&gt;</content>
+              </entry>
+            </feed>
+            """;
+
+    private StreamingFeedParser streamingFeedParser;
+
+    @BeforeEach
+    public void setup() {
+        streamingFeedParser = new StreamingFeedParser();
+    }
+
+    private List<SyndEntry> parseAll(String xml) throws XMLStreamException {
+        List<SyndEntry> entries = new ArrayList<>();
+        streamingFeedParser.parse(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), entries::add);
+        return entries;
+    }
+
+    @Test
+    public void testParse_RssMatchesRome() throws Exception {
+        List<SyndEntry> entries = parseAll(RSS);
+        SyndFeed feed = new SyndFeedInput().build(
+                new XmlReader(new ByteArrayInputStream(RSS.getBytes(StandardCharsets.UTF_8))));
+
+        // 与Rome解析结果保持一致
+        assertEquals(feed.getEntries().size(), entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            SyndEntry expected = feed.getEntries().get(i);
+            SyndEntry actual = entries.get(i);
+            assertEquals(expected.getTitle(), actual.getTitle());
+            assertEquals(expected.getLink(), actual.getLink());
+            assertEquals(expected.getAuthor(), actual.getAuthor());
+            assertEquals(expected.getPublishedDate(), actual.getPublishedDate());
+        }
+        assertEquals("<p>正文</p>", entries.get(0).getContents().get(0).getValue());
+        assertTrue(entries.get(0).getDescription().getValue().contains("a.jpg"));
+    }
+
+    @Test
+    public void testParse_Atom() throws Exception {
+        List<SyndEntry> entries = parseAll(ATOM);
+
+        assertEquals(1, entries.size());
+        SyndEntry entry = entries.get(0);
+        assertEquals("Atom文章", entry.getTitle());
+        assertEquals("https://example.com/atom/1", entry.getLink());
+        assertEquals("李四", entry.getAuthor());
+        assertNotNull(entry.getPublishedDate());
+        assertEquals("<p>正文</p>", entry.getContents().get(0).getValue());
+    }
+
+    @Test
+    public void testParse_StopsWhenHandlerReturnsFalse() throws Exception {
+        List<String> titles = new ArrayList<>();
+        int read = streamingFeedParser.parse(new ByteArrayInputStream(RSS.getBytes(StandardCharsets.UTF_8)), entry -> {
+            titles.add(entry.getTitle());
+            // 遇到第二篇即停止，不再读取后续条目
+            return !"https://example.com/2".equals(entry.getLink());
+        });
+
+        assertEquals(2, read);
+        assertEquals(List.of("第一篇", "第二篇"), titles);
+    }
+
+    @Test
+    public void testParse_RejectsUnknownRoot() {
+        assertThrows(XMLStreamException.class, () -> parseAll("<html><body/></html>"));
+    }
+}
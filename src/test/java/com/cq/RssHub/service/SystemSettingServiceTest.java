@@ -0,0 +1,189 @@
+package com.cq.RssHub.service;
+
+import com.cq.RssHub.mapper.SystemSettingMapper;
+import com.cq.RssHub.pojo.SettingsSnapshot;
+import com.cq.RssHub.pojo.SystemSetting;
+import com.cq.RssHub.service.impl.SystemSettingServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SystemSettingServiceTest {
+
+    @Mock
+    private SystemSettingMapper systemSettingMapper;
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private RedisMessageListenerContainer redisMessageListenerContainer;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private SystemSettingServiceImpl systemSettingService;
+
+    @Test
+    public void testSnapshot_DefaultsBeforeLoad() {
+        SettingsSnapshot snapshot = systemSettingService.getSnapshot();
+
+        assertEquals(0, snapshot.getVersion());
+        assertEquals(60, snapshot.getDefaultFetchFrequency());
+        assertEquals(30, snapshot.getMaxArticleAge());
+        assertEquals(24, snapshot.getCleanupInterval());
+    }
+
+    @Test
+    public void testReload_SwapsSnapshot() {
+        when(systemSettingMapper.findAll()).thenReturn(List.of(setting("defaultFetchFrequency", "15")));
+        SettingsSnapshot before = systemSettingService.getSnapshot();
+
+        assertTrue(systemSettingService.reload());
+
+        SettingsSnapshot after = systemSettingService.getSnapshot();
+        assertNotSame(before, after);
+        assertEquals(1, after.getVersion());
+        assertEquals(15, after.getDefaultFetchFrequency());
+        // 旧快照不受影响
+        assertEquals(60, before.getDefaultFetchFrequency());
+    }
+
+    @Test
+    public void testReload_KeepsSnapshotWhenDatabaseFails() {
+        when(systemSettingMapper.findAll()).thenReturn(List.of(setting("maxArticleAge", "7")));
+        systemSettingService.reload();
+        SettingsSnapshot loaded = systemSettingService.getSnapshot();
+        when(systemSettingMapper.findAll()).thenThrow(new RuntimeException("数据库不可用"));
+
+        assertFalse(systemSettingService.reload());
+
+        assertSame(loaded, systemSettingService.getSnapshot());
+    }
+
+    @Test
+    public void testSnapshot_InvalidValuesFallBackToDefaults() {
+        SettingsSnapshot snapshot = SettingsSnapshot.of(List.of(
+                setting("defaultFetchFrequency", "abc"),
+                setting("maxArticleAge", "0"),
+                setting("cleanupInterval", "-1")), 1);
+
+        assertEquals(60, snapshot.getDefaultFetchFrequency());
+        // 0表示不清理，是有效值
+        assertEquals(0, snapshot.getMaxArticleAge());
+        assertEquals(24, snapshot.getCleanupInterval());
+    }
+
+    @Test
+    public void testGetSettings_ConvertsNumbers() {
+        when(systemSettingMapper.findAll()).thenReturn(List.of(
+                setting("systemName", "RSS管理系统"),
+                setting("defaultFetchFrequency", "30")));
+        systemSettingService.reload();
+
+        Map<String, Object> settings = systemSettingService.getSettings();
+
+        assertEquals("RSS管理系统", settings.get("systemName"));
+        assertEquals(30, settings.get("defaultFetchFrequency"));
+    }
+
+    @Test
+    public void testUpdateSettings_ReloadsAndPublishes() {
+        when(systemSettingMapper.updateValue(anyString(), anyString())).thenReturn(1);
+        when(systemSettingMapper.findAll()).thenReturn(List.of(setting("cleanupInterval", "48")));
+
+        systemSettingService.updateSettings(Map.of("cleanupInterval", 48));
+
+        verify(systemSettingMapper).updateValue("cleanupInterval", "48");
+        verify(transactionManager).commit(any());
+        assertEquals(48, systemSettingService.getSnapshot().getCleanupInterval());
+        verify(stringRedisTemplate).convertAndSend(eq("rss:settings:changed"), anyString());
+    }
+
+    @Test
+    public void testUpdateSettings_RejectsInvalidValue() {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("theme", "dark");
+        settings.put("defaultFetchFrequency", 0);
+
+        assertThrows(IllegalArgumentException.class, () -> systemSettingService.updateSettings(settings));
+
+        // 校验在写入之前，任何一项无效都不会修改数据库
+        verify(systemSettingMapper, never()).updateValue(anyString(), anyString());
+    }
+
+    @Test
+    public void testUpdateSettings_UnknownKeyRollsBack() {
+        when(systemSettingMapper.updateValue("unknownKey", "1")).thenReturn(0);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> systemSettingService.updateSettings(Map.of("unknownKey", "1")));
+
+        verify(transactionManager).rollback(any());
+        verify(systemSettingMapper, never()).findAll();
+        verify(stringRedisTemplate, never()).convertAndSend(anyString(), anyString());
+    }
+
+    @Test
+    public void testUpdateSettings_ToleratesRedisFailure() {
+        when(systemSettingMapper.updateValue(anyString(), anyString())).thenReturn(1);
+        when(systemSettingMapper.findAll()).thenReturn(List.of(setting("maxArticleAge", "10")));
+        when(stringRedisTemplate.convertAndSend(anyString(), anyString()))
+                .thenThrow(new RedisConnectionFailureException("连接失败"));
+
+        systemSettingService.updateSettings(Map.of("maxArticleAge", "10"));
+
+        // 通知失败不影响本节点生效
+        assertEquals(10, systemSettingService.getSnapshot().getMaxArticleAge());
+    }
+
+    @Test
+    public void testOnMessage_IgnoresOwnNotification() {
+        when(systemSettingMapper.updateValue(anyString(), anyString())).thenReturn(1);
+        when(systemSettingMapper.findAll()).thenReturn(new ArrayList<>());
+        List<String> senders = new ArrayList<>();
+        when(stringRedisTemplate.convertAndSend(anyString(), anyString())).thenAnswer(invocation -> {
+            senders.add(invocation.getArgument(1));
+            return 1L;
+        });
+        systemSettingService.updateSettings(Map.of("theme", "dark"));
+        clearInvocations(systemSettingMapper);
+
+        systemSettingService.onMessage(message(senders.get(0)), null);
+        verify(systemSettingMapper, never()).findAll();
+
+        systemSettingService.onMessage(message("other-node"), null);
+        verify(systemSettingMapper).findAll();
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage("rss:settings:changed".getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static SystemSetting setting(String key, String value) {
+        SystemSetting setting = new SystemSetting();
+        setting.setSettingKey(key);
+        setting.setSettingValue(value);
+        return setting;
+    }
+}